@@ -0,0 +1,257 @@
+package org.example.chessmystic.Benchmarks;
+
+import org.example.chessmystic.Models.GameStateandFlow.GameMode;
+import org.example.chessmystic.Models.GameStateandFlow.GameState;
+import org.example.chessmystic.Models.GameStateandFlow.GameStatus;
+import org.example.chessmystic.Models.GameStateandFlow.GameTimers;
+import org.example.chessmystic.Models.GameStateandFlow.PlayerTimer;
+import org.example.chessmystic.Models.Interactions.ActionType;
+import org.example.chessmystic.Models.Interactions.MoveBucket;
+import org.example.chessmystic.Models.Interactions.MoveRecord;
+import org.example.chessmystic.Models.Interactions.PlayerAction;
+import org.example.chessmystic.Models.Tracking.GameSession;
+import org.example.chessmystic.Models.Tracking.PlayerSessionInfo;
+import org.example.chessmystic.Models.chess.BoardPosition;
+import org.example.chessmystic.Models.chess.Piece;
+import org.example.chessmystic.Models.chess.PieceColor;
+import org.example.chessmystic.Models.chess.PieceType;
+import org.example.chessmystic.Repository.GameSessionRepository;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.BitboardPosition;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.Bitboards;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.Move;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.MoveGenerator;
+import org.example.chessmystic.Service.implementation.GameRelated.LiveGameRegistry;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Shared fixtures: the standard perft positions and helpers that turn them into the
+ * session shapes the services work on.
+ */
+final class BenchmarkFixtures {
+
+    static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    static final String PROMOTIONS = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    static final String TALKCHESS = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+    static final String MIDDLEGAME = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+
+    static final Map<String, String> PERFT_POSITIONS = Map.of(
+            "start", START,
+            "kiwipete", KIWIPETE,
+            "endgame", ENDGAME,
+            "promotions", PROMOTIONS,
+            "talkchess", TALKCHESS,
+            "middlegame", MIDDLEGAME);
+
+    private BenchmarkFixtures() {
+    }
+
+    static Piece[][] boardFromFen(String fen) {
+        String placement = fen.trim().split("\\s+")[0];
+        Piece[][] board = new Piece[8][8];
+        int row = 0;
+        int col = 0;
+        for (char c : placement.toCharArray()) {
+            if (c == '/') {
+                row++;
+                col = 0;
+            } else if (Character.isDigit(c)) {
+                col += c - '0';
+            } else {
+                PieceColor color = Character.isUpperCase(c) ? PieceColor.white : PieceColor.black;
+                board[row][col++] = new Piece(typeOf(c), color);
+            }
+        }
+        return board;
+    }
+
+    static GameState gameStateFromFen(String gameId, String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        BoardPosition enPassant = null;
+        if (!"-".equals(fields[3])) {
+            enPassant = new BoardPosition(7 - (fields[3].charAt(1) - '1'), fields[3].charAt(0) - 'a');
+        }
+        return GameState.builder()
+                .gamestateId("state-" + gameId)
+                .gameSessionId(gameId)
+                .currentTurn("b".equals(fields[1]) ? PieceColor.black : PieceColor.white)
+                .canWhiteCastleKingSide(fields[2].contains("K"))
+                .canWhiteCastleQueenSide(fields[2].contains("Q"))
+                .canBlackCastleKingSide(fields[2].contains("k"))
+                .canBlackCastleQueenSide(fields[2].contains("q"))
+                .enPassantTarget(enPassant)
+                .halfMoveClock(fields.length > 4 ? Integer.parseInt(fields[4]) : 0)
+                .build();
+    }
+
+    static GameSession sessionFromFen(String gameId, String fen) {
+        LocalDateTime now = LocalDateTime.now();
+        return GameSession.builder()
+                .gameId(gameId)
+                .whitePlayer(player("white-" + gameId))
+                .blackPlayer(player("black-" + gameId))
+                .gameMode(GameMode.CLASSIC_MULTIPLAYER)
+                .board(boardFromFen(fen))
+                .gameState(gameStateFromFen(gameId, fen))
+                .timers(GameTimers.builder()
+                        .defaultTime(600)
+                        .white(PlayerTimer.builder().timeLeft(600).active(true).build())
+                        .black(PlayerTimer.builder().timeLeft(600).active(false).build())
+                        .serverTimeMs(System.currentTimeMillis())
+                        .build())
+                .createdAt(now.minusHours(1))
+                .startedAt(now.minusHours(1))
+                .lastActivity(now)
+                .isActive(true)
+                .status(GameStatus.ACTIVE)
+                .playerLastSeen(new HashMap<>(Map.of("white-" + gameId, now, "black-" + gameId, now)))
+                .timeControlMinutes(10)
+                .allowSpectators(true)
+                .spectatorIds(new ArrayList<>())
+                .gameHistoryId("history-" + gameId)
+                .moveHistoryIds(new ArrayList<>())
+                .build();
+    }
+
+    static PlayerSessionInfo player(String userId) {
+        return PlayerSessionInfo.builder()
+                .id("psi-" + userId)
+                .userId(userId)
+                .username(userId)
+                .displayName("Player " + userId)
+                .isConnected(true)
+                .lastSeen(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * A registry whose backing repository serves the given sessions from memory; active
+     * sessions are pulled into the live map on first lookup.
+     */
+    static LiveGameRegistry registryWith(Map<String, GameSession> sessions) {
+        GameSessionRepository repository = repository(GameSessionRepository.class,
+                Map.of("findById", args -> Optional.ofNullable(sessions.get(args[0]))));
+        return new LiveGameRegistry(repository, null);
+    }
+
+    /**
+     * An in-memory stand-in for a Spring Data repository that answers the named methods
+     * and rejects everything else. Plain proxies keep mocking overhead out of the numbers.
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R repository(Class<R> type, Map<String, Function<Object[], Object>> answers) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + " stub";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        });
+    }
+
+    /**
+     * A legal move in {@code fen}, taken from the middle of the generated list so it is
+     * not trivially the first candidate examined.
+     */
+    static BoardPosition legalMove(String fen) {
+        BitboardPosition position = BitboardPosition.fromFen(fen);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegalMoves(position, moves);
+        int move = moves[count / 2];
+        return new BoardPosition(Bitboards.row(Move.from(move)), Bitboards.col(Move.from(move)),
+                Bitboards.row(Move.to(move)), Bitboards.col(Move.to(move)));
+    }
+
+    /**
+     * Plays a seeded random game of up to {@code plies} moves from the start position and
+     * returns it as the actions the live path would have recorded, one second apart and
+     * starting {@code startedAt}. Under-promotions are skipped since the game only promotes to queens.
+     */
+    static List<PlayerAction> randomGame(String gameId, int plies, LocalDateTime startedAt, long seed) {
+        Random random = new Random(seed);
+        BitboardPosition position = BitboardPosition.fromFen(START);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        List<PlayerAction> actions = new ArrayList<>(plies);
+        for (int ply = 0; ply < plies; ply++) {
+            int count = MoveGenerator.generateLegalMoves(position, moves);
+            int candidates = 0;
+            for (int i = 0; i < count; i++) {
+                if (!Move.isPromotion(moves[i]) || Move.promotionType(moves[i]) == Bitboards.QUEEN) {
+                    moves[candidates++] = moves[i];
+                }
+            }
+            if (candidates == 0) {
+                break;
+            }
+            int move = moves[random.nextInt(candidates)];
+            int from = Move.from(move);
+            int to = Move.to(move);
+            actions.add(PlayerAction.builder()
+                    .id(gameId + "-action-" + ply)
+                    .gameSessionId(gameId)
+                    .playerId(ply % 2 == 0 ? "white-" + gameId : "black-" + gameId)
+                    .actionType(actionType(move))
+                    .fromX(Bitboards.row(from))
+                    .fromY(Bitboards.col(from))
+                    .toX(Bitboards.row(to))
+                    .toY(Bitboards.col(to))
+                    .timestamp(startedAt.plusSeconds(ply + 1))
+                    .sequenceNumber(ply + 1)
+                    .build());
+            position.makeMove(move);
+        }
+        return actions;
+    }
+
+    /**
+     * The actions as the move store would have bucketed them.
+     */
+    static List<MoveBucket> buckets(String gameId, List<PlayerAction> actions) {
+        List<MoveBucket> buckets = new ArrayList<>();
+        for (int start = 0; start < actions.size(); start += MoveBucket.CAPACITY) {
+            List<PlayerAction> chunk = actions.subList(start, Math.min(actions.size(), start + MoveBucket.CAPACITY));
+            buckets.add(MoveBucket.builder()
+                    .id(gameId + "-bucket-" + buckets.size())
+                    .gameSessionId(gameId)
+                    .count(chunk.size())
+                    .firstSequence(chunk.get(0).getSequenceNumber())
+                    .lastSequence(chunk.get(chunk.size() - 1).getSequenceNumber())
+                    .moves(chunk.stream().map(MoveRecord::of).toList())
+                    .build());
+        }
+        return buckets;
+    }
+
+    private static ActionType actionType(int move) {
+        if (Move.isPromotion(move)) {
+            return ActionType.PROMOTION;
+        }
+        return switch (Move.flag(move)) {
+            case Move.DOUBLE_PAWN_PUSH -> ActionType.DOUBLE_PAWN_PUSH;
+            case Move.KING_CASTLE -> ActionType.CASTLE_KINGSIDE;
+            case Move.QUEEN_CASTLE -> ActionType.CASTLE_QUEENSIDE;
+            case Move.CAPTURE -> ActionType.CAPTURE;
+            case Move.EN_PASSANT -> ActionType.EN_PASSANT;
+            default -> ActionType.NORMAL;
+        };
+    }
+
+    private static PieceType typeOf(char fenPiece) {
+        return Bitboards.pieceType("pnbrqk".indexOf(Character.toLowerCase(fenPiece)));
+    }
+}
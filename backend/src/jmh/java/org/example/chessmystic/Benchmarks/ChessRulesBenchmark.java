@@ -0,0 +1,67 @@
+package org.example.chessmystic.Benchmarks;
+
+import org.example.chessmystic.Models.Tracking.GameSession;
+import org.example.chessmystic.Models.chess.BoardPosition;
+import org.example.chessmystic.Models.chess.PieceColor;
+import org.example.chessmystic.Service.implementation.GameRelated.ChessGameService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rules checks as the controllers call them: the session is resolved through the live
+ * registry and the position rebuilt from the persisted board on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessRulesBenchmark {
+
+    @Param({"start", "kiwipete", "endgame", "promotions", "talkchess", "middlegame"})
+    public String position;
+
+    private ChessGameService chessGameService;
+    private String gameId;
+    private BoardPosition move;
+    private PieceColor sideToMove;
+
+    @Setup
+    public void setUp() {
+        String fen = BenchmarkFixtures.PERFT_POSITIONS.get(position);
+        gameId = "bench-" + position;
+        GameSession session = BenchmarkFixtures.sessionFromFen(gameId, fen);
+        chessGameService = new ChessGameService(
+                BenchmarkFixtures.registryWith(Map.of(gameId, session)), null, null, null);
+        move = BenchmarkFixtures.legalMove(fen);
+        sideToMove = session.getGameState().getCurrentTurn();
+    }
+
+    @Benchmark
+    public boolean validateMove() {
+        return chessGameService.validateMove(gameId, move);
+    }
+
+    @Benchmark
+    public boolean isCheckmate() {
+        return chessGameService.isCheckmate(gameId, sideToMove);
+    }
+
+    @Benchmark
+    public boolean isDraw() {
+        return chessGameService.isDraw(gameId, sideToMove);
+    }
+}
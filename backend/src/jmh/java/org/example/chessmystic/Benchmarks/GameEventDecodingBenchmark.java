@@ -0,0 +1,82 @@
+package org.example.chessmystic.Benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.chessmystic.Config.JacksonConfig;
+import org.example.chessmystic.Models.KafkaEvents.GameEvent;
+import org.example.chessmystic.Models.KafkaEvents.MoveEvent;
+import org.example.chessmystic.Service.implementation.GameEventCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding one move event as the analytics consumer does: the former two-pass read (to a
+ * map for eventType, then to the class), the single-pass polymorphic JSON read, and the
+ * binary format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEventDecodingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private GameEventCodec codec;
+    private String jsonText;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper("array");
+        codec = new GameEventCodec(objectMapper);
+        MoveEvent move = MoveEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .gameId(UUID.randomUUID().toString())
+                .playerId(UUID.randomUUID().toString())
+                .timestamp(System.currentTimeMillis())
+                .eventType("MOVE")
+                .fromRow(6).fromCol(4).toRow(4).toCol(4)
+                .pieceType("PAWN")
+                .pieceColor("white")
+                .moveTimeMs(1830)
+                .build();
+        json = codec.toJson(move);
+        jsonText = new String(json, StandardCharsets.UTF_8);
+        binary = codec.toBinary(move);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object twoPassJson() throws Exception {
+        Map<String, Object> eventMap = objectMapper.readValue(jsonText, Map.class);
+        if ("MOVE".equals(eventMap.get("eventType"))) {
+            return objectMapper.readValue(jsonText, MoveEvent.class);
+        }
+        return null;
+    }
+
+    @Benchmark
+    public GameEvent singlePassJson() throws Exception {
+        return codec.decode(json);
+    }
+
+    @Benchmark
+    public GameEvent binary() throws Exception {
+        return codec.decode(binary);
+    }
+}
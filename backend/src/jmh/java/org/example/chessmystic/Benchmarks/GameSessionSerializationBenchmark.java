@@ -0,0 +1,53 @@
+package org.example.chessmystic.Benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.chessmystic.Config.JacksonConfig;
+import org.example.chessmystic.Models.Interactions.PlayerAction;
+import org.example.chessmystic.Models.Tracking.GameSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a mid-game session, as sent over STOMP and REST after every move,
+ * with the board written as piece rows or in the packed form.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameSessionSerializationBenchmark {
+
+    @Param({"array", "packed"})
+    public String boardFormat;
+
+    private ObjectMapper objectMapper;
+    private GameSession session;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper(boardFormat);
+        session = BenchmarkFixtures.sessionFromFen("bench-json", BenchmarkFixtures.MIDDLEGAME);
+        BenchmarkFixtures.randomGame("bench-json", 60, LocalDateTime.now().minusHours(1), 7L).stream()
+                .map(PlayerAction::getId)
+                .forEach(session.getMoveHistoryIds()::add);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(session);
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.chessmystic.Benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.chessmystic.Service.implementation.GameRelated.MatchmakingService;
+import org.example.chessmystic.Service.implementation.GameRelated.TimeoutService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * One matchmaking pass over a large queue in which no two players are close enough in
+ * rating to pair, so every pass examines the whole queue and leaves it unchanged. The
+ * rating window is held at its initial width so it cannot widen mid-run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchmakingBenchmark {
+
+    // Wider than the rating window, so players never pair
+    private static final int RATING_SPACING = 100;
+    private static final int RATING_WINDOW = 50;
+
+    @Param({"100", "1000", "5000"})
+    public int queueSize;
+
+    private MatchmakingService matchmakingService;
+
+    @Setup
+    public void setUp() {
+        matchmakingService = new MatchmakingService(null, new TimeoutService(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(matchmakingService, "messagingTemplate", mock(SimpMessagingTemplate.class, withSettings().stubOnly()));
+        ReflectionTestUtils.setField(matchmakingService, "initialRatingWindow", RATING_WINDOW);
+        ReflectionTestUtils.setField(matchmakingService, "maxRatingWindow", RATING_WINDOW);
+        ReflectionTestUtils.setField(matchmakingService, "matchAnyoneAfterSeconds", Long.MAX_VALUE);
+        for (int i = 0; i < queueSize; i++) {
+            matchmakingService.joinQueue("player-" + i, i * RATING_SPACING);
+        }
+    }
+
+    @Benchmark
+    public int matchPlayers() {
+        matchmakingService.matchPlayers();
+        return matchmakingService.getQueueSize();
+    }
+}
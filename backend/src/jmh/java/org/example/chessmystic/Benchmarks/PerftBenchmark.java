@@ -0,0 +1,63 @@
+package org.example.chessmystic.Benchmarks;
+
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.BitboardPosition;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.MoveGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw move generator throughput: perft to a fixed depth over the standard positions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+
+    private static final int DEPTH = 3;
+
+    @Param({"start", "kiwipete", "endgame", "promotions", "talkchess", "middlegame"})
+    public String position;
+
+    private BitboardPosition board;
+    private int[][] moveLists;
+
+    @Setup
+    public void setUp() {
+        board = BitboardPosition.fromFen(BenchmarkFixtures.PERFT_POSITIONS.get(position));
+        moveLists = new int[DEPTH + 1][MoveGenerator.MAX_MOVES];
+    }
+
+    @Benchmark
+    public long perft() {
+        return perft(DEPTH);
+    }
+
+    private long perft(int depth) {
+        int[] moves = moveLists[depth];
+        int count = MoveGenerator.generateLegalMoves(board, moves);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            nodes += perft(depth - 1);
+            board.unmakeMove(moves[i]);
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.chessmystic.Benchmarks;
+
+import org.example.chessmystic.Models.Interactions.MoveBucket;
+import org.example.chessmystic.Models.Interactions.PlayerAction;
+import org.example.chessmystic.Models.Tracking.GameSession;
+import org.example.chessmystic.Repository.MoveBucketRepository;
+import org.example.chessmystic.Service.implementation.GameRelated.GameSessionService;
+import org.example.chessmystic.Service.implementation.GameRelated.LiveGameRegistry;
+import org.example.chessmystic.Service.implementation.GameRelated.MoveBucketStore;
+import org.example.chessmystic.Service.implementation.GameRelated.SpectatorDelayService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The delayed spectator view of a game whose first half is past the delay and second half
+ * still queued, and the per-move cost of feeding the delay queue. Repositories answer from
+ * memory, so this measures the pipeline itself, not Mongo latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpectatorDelayBenchmark {
+
+    private static final long SPECTATOR_DELAY_SECONDS = 120;
+
+    @Param({"40", "120"})
+    public int plies;
+
+    private String gameId;
+    private GameSession session;
+    private SpectatorDelayService spectatorDelayService;
+
+    // Rebuilt every iteration so the move queue benchmarked by recordMove stays bounded
+    @Setup(Level.Iteration)
+    public void setUp() {
+        gameId = "bench-spectator-" + plies;
+        LocalDateTime startedAt = LocalDateTime.now().minusSeconds(SPECTATOR_DELAY_SECONDS + plies / 2);
+        session = BenchmarkFixtures.sessionFromFen(gameId, BenchmarkFixtures.START);
+        session.setStartedAt(startedAt);
+        session.getSpectatorIds().add("spectator-" + gameId);
+        List<PlayerAction> actions = BenchmarkFixtures.randomGame(gameId, plies, startedAt, 42L);
+        session.setMoveHistoryIds(new ArrayList<>(actions.stream().map(PlayerAction::getId).toList()));
+
+        LiveGameRegistry liveGameRegistry = BenchmarkFixtures.registryWith(Map.of(gameId, session));
+        GameSessionService gameSessionService = new GameSessionService(null, null, null, null, null, null, null,
+                null, liveGameRegistry, null);
+        List<MoveBucket> buckets = BenchmarkFixtures.buckets(gameId, actions);
+        MoveBucketStore moveBucketStore = new MoveBucketStore(null, BenchmarkFixtures.repository(MoveBucketRepository.class,
+                Map.of("findByGameSessionIdOrderByFirstSequenceAsc", args -> buckets)), null);
+
+        spectatorDelayService = new SpectatorDelayService(null, liveGameRegistry, gameSessionService, moveBucketStore);
+        ReflectionTestUtils.setField(spectatorDelayService, "delaySeconds", SPECTATOR_DELAY_SECONDS);
+        // Seed once, as the first spectator would
+        spectatorDelayService.findDelayedSession(gameId);
+    }
+
+    @Benchmark
+    public GameSession delayedView() {
+        return spectatorDelayService.findDelayedSession(gameId).orElseThrow();
+    }
+
+    @Benchmark
+    public void recordMove() {
+        session.getMoveHistoryIds().add(gameId + "-move");
+        spectatorDelayService.recordMove(session);
+    }
+}
@@ -2,17 +2,26 @@ package org.example.chessmystic.Config.Kafka;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.chessmystic.Models.KafkaEvents.*;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.example.chessmystic.Service.implementation.AnalyticsService;
+import org.example.chessmystic.Service.implementation.GameEventCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
-public class KafkaAnalyticsConsumer {
+public class KafkaAnalyticsConsumer implements ConsumerSeekAware {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaAnalyticsConsumer.class);
 
@@ -22,39 +31,71 @@ public class KafkaAnalyticsConsumer {
     @Autowired
     private AnalyticsService analyticsService;
 
-    @KafkaListener(topics = "${kafka.topics.game-events}", groupId = "chexy-analytics-grp")
-    public void processGameEvent(String message) {
-        try {
-            // Parse the event type first
-            Map<String, Object> eventMap = objectMapper.readValue(message, Map.class);
-            String eventType = (String) eventMap.get("eventType");
+    @Autowired
+    private GameEventCodec gameEventCodec;
 
-            switch (eventType) {
-                case "MOVE":
-                    analyticsService.processMoveEvent(objectMapper.readValue(message, MoveEvent.class));
-                    break;
-                case "GAME_START":
-                    analyticsService.processGameStartEvent(objectMapper.readValue(message, GameStartEvent.class));
-                    break;
-                case "GAME_END":
-                    analyticsService.processGameEndEvent(objectMapper.readValue(message, GameEndEvent.class));
-                    break;
-                default:
-                    logger.warn("Unknown game event type: {}", eventType);
+    @Value("${kafka.topics.game-events}")
+    private String gameEventsTopic;
+
+    // Game-event partitions resume from their analytics checkpoint rather than the committed offset
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        for (TopicPartition topicPartition : assignments.keySet()) {
+            if (topicPartition.topic().equals(gameEventsTopic)) {
+                analyticsService.restorePartition(topicPartition.partition())
+                        .ifPresent(offset -> callback.seek(topicPartition.topic(), topicPartition.partition(), offset));
             }
-        } catch (Exception e) {
-            logger.error("Error processing game event: {}", e.getMessage(), e);
         }
     }
 
-    @KafkaListener(topics = "${kafka.topics.user-actions}", groupId = "chexy-analytics-grp")
-    public void processUserAction(String message) {
-        try {
-            UserActionEvent event = objectMapper.readValue(message, UserActionEvent.class);
-            analyticsService.processUserAction(event);
-        } catch (Exception e) {
-            logger.error("Error processing user action: {}", e.getMessage(), e);
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        for (TopicPartition topicPartition : partitions) {
+            if (topicPartition.topic().equals(gameEventsTopic)) {
+                analyticsService.releasePartition(topicPartition.partition());
+            }
+        }
+    }
+
+    // Batch listener: a poll's ended games are persisted together, then each partition's progress recorded.
+    // If persisting fails the exception reaches the error handler, which retries the poll.
+    @KafkaListener(topics = "${kafka.topics.game-events}", groupId = "chexy-analytics-grp",
+            containerFactory = "gameEventListenerContainerFactory", batch = "true")
+    public void processGameEvents(List<ConsumerRecord<String, byte[]>> records) {
+        Map<Integer, Long> lastOffsets = new HashMap<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            lastOffsets.put(record.partition(), record.offset());
+            if (!analyticsService.markApplied(record.partition(), record.offset())) {
+                // Applied by a failed attempt at this poll
+                continue;
+            }
+            try {
+                // One parse: JSON resolves the subtype from eventType, binary from its type byte
+                switch (gameEventCodec.decode(record.value())) {
+                    case MoveEvent moveEvent -> analyticsService.processMoveEvent(moveEvent, record.partition());
+                    case GameStartEvent startEvent -> analyticsService.processGameStartEvent(startEvent, record.partition());
+                    case GameEndEvent endEvent -> analyticsService.endGame(endEvent, record.partition());
+                    default -> logger.warn("Unhandled game event at {}-{}", record.partition(), record.offset());
+                }
+            } catch (Exception e) {
+                logger.error("Error processing game event: {}", e.getMessage(), e);
+            }
+        }
+        analyticsService.persistEndedGames(lastOffsets.keySet());
+        lastOffsets.forEach(analyticsService::recordProcessed);
+    }
+
+    @KafkaListener(topics = "${kafka.topics.user-actions}", groupId = "chexy-analytics-grp", batch = "true")
+    public void processUserActions(List<String> messages) {
+        List<UserActionEvent> events = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            try {
+                events.add(objectMapper.readValue(message, UserActionEvent.class));
+            } catch (Exception e) {
+                logger.error("Error processing user action: {}", e.getMessage(), e);
+            }
         }
+        analyticsService.processUserActions(events);
     }
 
     @KafkaListener(topics = "${kafka.topics.performance-metrics}", groupId = "chexy-analytics-grp")
@@ -38,10 +38,28 @@ public class KafkaConfig {
 
     @Bean
     public ProducerFactory<String, String> producerFactory() {
+        Map<String, Object> configProps = producerProps();
+        configProps.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    @Bean
+    public KafkaTemplate<String, String> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+
+    // Game events are sent as bytes, either JSON or the binary form of GameEventCodec
+    @Bean
+    public KafkaTemplate<String, byte[]> gameEventKafkaTemplate() {
+        Map<String, Object> configProps = producerProps();
+        configProps.put("value.serializer", "org.apache.kafka.common.serialization.ByteArraySerializer");
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(configProps));
+    }
+
+    private Map<String, Object> producerProps() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put("bootstrap.servers", bootstrapServers);
         configProps.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
-        configProps.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
 
         // Performance optimizations
         configProps.put("batch.size", 16384);
@@ -50,46 +68,59 @@ public class KafkaConfig {
         configProps.put("acks", "all");  // Required for idempotent producer
         configProps.put("retries", 3);
         configProps.put("enable.idempotence", true);
+        return configProps;
+    }
 
-        return new DefaultKafkaProducerFactory<>(configProps);
+    // Consumer Configuration
+    @Bean
+    public ConsumerFactory<String, String> consumerFactory() {
+        Map<String, Object> props = consumerProps();
+        props.put("value.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+        return new DefaultKafkaConsumerFactory<>(props);
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        configureListenerContainer(factory);
+        return factory;
     }
 
-    // Consumer Configuration
+    // Game events arrive as raw bytes so GameEventCodec can read JSON or binary in one pass
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> gameEventListenerContainerFactory() {
+        Map<String, Object> props = consumerProps();
+        props.put("value.deserializer", "org.apache.kafka.common.serialization.ByteArrayDeserializer");
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        configureListenerContainer(factory);
+        return factory;
+    }
+
+    private Map<String, Object> consumerProps() {
         Map<String, Object> props = new HashMap<>();
         props.put("bootstrap.servers", bootstrapServers);
         props.put("group.id", "chexy-analytics-grp");
         props.put("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
-        props.put("value.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
         props.put("auto.offset.reset", "earliest");
         props.put("enable.auto.commit", true);
         props.put("auto.commit.interval.ms", 1000);
         props.put("session.timeout.ms", 30000);
         props.put("max.poll.records", 500);
         props.put("max.poll.interval.ms", 300000);
-
-        return new DefaultKafkaConsumerFactory<>(props);
+        return props;
     }
 
-    @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory =
-                new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+    private void configureListenerContainer(ConcurrentKafkaListenerContainerFactory<String, ?> factory) {
         factory.setConcurrency(3);
         
         // Error handling configuration
         factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler());
         factory.getContainerProperties().setAckMode(org.springframework.kafka.listener.ContainerProperties.AckMode.BATCH);
         factory.getContainerProperties().setPollTimeout(3000);
-        
-        return factory;
     }
 
     @Bean
@@ -0,0 +1,54 @@
+package org.example.chessmystic.Config;
+
+import org.bson.types.Binary;
+import org.example.chessmystic.Models.chess.Piece;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.BoardCodec;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+/**
+ * Boards are stored in the packed {@link BoardCodec} form instead of nested piece documents.
+ * Sessions saved before that still hold an array of arrays, which is not binary and so keeps
+ * going through the default mapping.
+ */
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(
+                new BoardWritingConverter(),
+                new BoardReadingConverter(),
+                new BinaryBoardReadingConverter()));
+    }
+
+    @WritingConverter
+    static class BoardWritingConverter implements Converter<Piece[][], byte[]> {
+        @Override
+        public byte[] convert(Piece[][] board) {
+            return BoardCodec.pack(board);
+        }
+    }
+
+    @ReadingConverter
+    static class BoardReadingConverter implements Converter<byte[], Piece[][]> {
+        @Override
+        public Piece[][] convert(byte[] packed) {
+            return BoardCodec.unpack(packed);
+        }
+    }
+
+    @ReadingConverter
+    static class BinaryBoardReadingConverter implements Converter<Binary, Piece[][]> {
+        @Override
+        public Piece[][] convert(Binary packed) {
+            return BoardCodec.unpack(packed.getData());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.chessmystic.Config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.example.chessmystic.Models.chess.Piece;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.BoardCodec;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON handling of {@code Piece[][]} boards. Boards are always accepted either as the usual
+ * array of piece rows or as a base64 {@link BoardCodec} string; they are written packed only
+ * when {@code packed} is set, since clients that expect the row arrays still need them.
+ */
+public class PackedBoardModule extends SimpleModule {
+
+    public PackedBoardModule(boolean packed) {
+        super("PackedBoardModule");
+        addDeserializer(Piece[][].class, new BoardDeserializer());
+        if (packed) {
+            addSerializer(Piece[][].class, new PackedBoardSerializer());
+        }
+    }
+
+    static class PackedBoardSerializer extends StdSerializer<Piece[][]> {
+        PackedBoardSerializer() {
+            super(Piece[][].class);
+        }
+
+        @Override
+        public void serialize(Piece[][] board, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeBinary(BoardCodec.pack(board));
+        }
+    }
+
+    static class BoardDeserializer extends StdDeserializer<Piece[][]> {
+        BoardDeserializer() {
+            super(Piece[][].class);
+        }
+
+        @Override
+        public Piece[][] deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                return BoardCodec.unpack(parser.getBinaryValue());
+            }
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                return (Piece[][]) context.handleUnexpectedToken(Piece[][].class, parser);
+            }
+
+            List<Piece[]> rows = new ArrayList<>(8);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                    rows.add(null);
+                    continue;
+                }
+                List<Piece> row = new ArrayList<>(8);
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    row.add(parser.currentToken() == JsonToken.VALUE_NULL
+                            ? null
+                            : context.readValue(parser, Piece.class));
+                }
+                rows.add(row.toArray(new Piece[0]));
+            }
+            return rows.toArray(new Piece[0][]);
+        }
+    }
+}
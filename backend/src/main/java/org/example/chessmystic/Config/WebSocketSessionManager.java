@@ -1,27 +1,115 @@
 package org.example.chessmystic.Config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.CloseStatus;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Tracks raw WebSocket sessions and sends to them through a bounded queue per session, drained
+ * by a small shared pool of sender threads, one send at a time per session. Enqueuing never
+ * waits on a socket, and a drain hands its thread back after {@code chess.websocket.drain-batch}
+ * messages, so a busy client cannot keep a sender to itself.
+ *
+ * What happens to a message when its session's queue is full depends on its
+ * {@link MessageClass}. A session is evicted as a slow consumer when its queue is full of
+ * critical messages, or when a send has been stuck for {@code chess.websocket.send-time-limit-ms};
+ * stuck sends are looked for every {@code stuck-check-interval-ms}, since a stalled client holds
+ * a sender thread until it is closed.
+ * Broadcasts build the frame once and queue the same message to every session.
+ *
+ * Metrics: {@code chess.websocket.queue.depth} (gauge, messages queued over all sessions) and
+ * the {@code chess.websocket.dropped} (tagged by message class) and {@code .evicted} counters.
+ */
 @Component
 public class WebSocketSessionManager {
     private static final Logger log = LoggerFactory.getLogger(WebSocketSessionManager.class);
 
+    /**
+     * How a message is treated when its session's send queue is full.
+     */
+    public enum MessageClass {
+        // Never dropped: queued non-critical messages make room for it, and failing that the session is evicted
+        CRITICAL,
+        // Dropped itself, for messages that are soon superseded or merely informative
+        BEST_EFFORT,
+        // Drops the oldest queued non-critical messages to make room, for updates where only the latest matters
+        LATEST_WINS
+    }
+
+    private enum Outcome { QUEUED, DROPPED, EVICT }
+
+    private record Outbound(WebSocketMessage<?> message, MessageClass messageClass, int size) {
+    }
+
     private final ConcurrentMap<String, SessionInfo> activeSessions = new ConcurrentHashMap<>();
     private final AtomicLong messagesSent = new AtomicLong(0);
     private final AtomicLong messagesFailedToSend = new AtomicLong(0);
+    private final ExecutorService senders;
+    private final Counter evicted;
+    private final Map<MessageClass, Counter> dropped = new EnumMap<>(MessageClass.class);
+
+    @Value("${chess.websocket.queue.max-messages:256}")
+    private int maxQueuedMessages;
+
+    @Value("${chess.websocket.queue.max-bytes:1048576}")
+    private int maxQueuedBytes;
+
+    @Value("${chess.websocket.send-time-limit-ms:10000}")
+    private long sendTimeLimitMs;
+
+    @Value("${chess.websocket.drain-batch:16}")
+    private int drainBatch;
+
+    @Autowired
+    public WebSocketSessionManager(MeterRegistry meterRegistry,
+                                   @Value("${chess.websocket.sender-threads:4}") int senderThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ws-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evicted = Counter.builder("chess.websocket.evicted")
+                .description("Sessions closed for not keeping up with their messages")
+                .register(meterRegistry);
+        for (MessageClass messageClass : MessageClass.values()) {
+            dropped.put(messageClass, Counter.builder("chess.websocket.dropped")
+                    .description("Messages dropped because their session's send queue was full")
+                    .tag("class", messageClass.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("chess.websocket.queue.depth", activeSessions,
+                        sessions -> sessions.values().stream().mapToInt(SessionInfo::queuedCount).sum())
+                .description("Messages queued for sending over all sessions")
+                .register(meterRegistry);
+    }
 
     /**
      * Session information wrapper
@@ -32,6 +120,12 @@ public class WebSocketSessionManager {
         private volatile long lastActivity;
         private volatile int failureCount;
         private volatile boolean isHealthy;
+        // Guarded by itself, as are queuedBytes and draining
+        private final Deque<Outbound> queue = new ArrayDeque<>();
+        private int queuedBytes;
+        private boolean draining;
+        // When the send in progress started; 0 when none is
+        private volatile long sendStartedAt;
 
         public SessionInfo(WebSocketSession session) {
             this.session = session;
@@ -54,6 +148,24 @@ public class WebSocketSessionManager {
         public boolean isStale(long maxIdleTime) {
             return System.currentTimeMillis() - lastActivity > maxIdleTime;
         }
+
+        public boolean isSendStuck(long sendTimeLimit) {
+            long started = sendStartedAt;
+            return started != 0 && System.currentTimeMillis() - started > sendTimeLimit;
+        }
+
+        public int queuedCount() {
+            synchronized (queue) {
+                return queue.size();
+            }
+        }
+
+        public void clearQueue() {
+            synchronized (queue) {
+                queue.clear();
+                queuedBytes = 0;
+            }
+        }
     }
 
     public void addSession(WebSocketSession session) {
@@ -68,6 +180,7 @@ public class WebSocketSessionManager {
         if (session != null) {
             SessionInfo removed = activeSessions.remove(session.getId());
             if (removed != null) {
+                removed.clearQueue();
                 log.info("Session removed: {} (Total active: {})", session.getId(), activeSessions.size());
 
                 // Gracefully close if still open
@@ -86,6 +199,7 @@ public class WebSocketSessionManager {
         if (sessionId != null) {
             SessionInfo sessionInfo = activeSessions.remove(sessionId);
             if (sessionInfo != null) {
+                sessionInfo.clearQueue();
                 log.info("Session removed by ID: {} (Total active: {})", sessionId, activeSessions.size());
 
                 WebSocketSession session = sessionInfo.getSession();
@@ -136,15 +250,17 @@ public class WebSocketSessionManager {
                 .count();
     }
 
-    public void broadcastToActiveSessions(String message) {
+    public void broadcastToActiveSessions(String message, MessageClass messageClass) {
         if (message == null) {
             log.warn("Cannot broadcast null message");
             return;
         }
 
+        // One frame for every session
         TextMessage textMessage = new TextMessage(message);
-        int successCount = 0;
-        int failureCount = 0;
+        int size = textMessage.getPayloadLength();
+        int queued = 0;
+        int dropped = 0;
 
         // Create a list of sessions to remove
         var sessionsToRemove = new java.util.ArrayList<String>();
@@ -152,44 +268,31 @@ public class WebSocketSessionManager {
         for (var entry : activeSessions.entrySet()) {
             String sessionId = entry.getKey();
             SessionInfo sessionInfo = entry.getValue();
-            WebSocketSession session = sessionInfo.getSession();
 
-            if (!session.isOpen()) {
+            if (!sessionInfo.getSession().isOpen()) {
                 log.debug("Marking closed session for removal: {}", sessionId);
                 sessionsToRemove.add(sessionId);
                 continue;
             }
 
-            try {
-                session.sendMessage(textMessage);
-                sessionInfo.updateLastActivity();
-                sessionInfo.resetFailureCount();
-                successCount++;
-                messagesSent.incrementAndGet();
-
-            } catch (Exception e) {
-                log.warn("Failed to send message to session {}: {}", sessionId, e.getMessage());
-                sessionInfo.incrementFailureCount();
-
-                // Mark session as unhealthy if too many failures
-                if (sessionInfo.getFailureCount() >= 3) {
-                    sessionInfo.markUnhealthy();
-                    sessionsToRemove.add(sessionId);
-                }
-
-                failureCount++;
-                messagesFailedToSend.incrementAndGet();
+            switch (enqueue(sessionInfo, textMessage, size, messageClass)) {
+                case QUEUED -> queued++;
+                case DROPPED -> dropped++;
+                case EVICT -> evict(sessionId, sessionInfo);
             }
         }
 
-        // Remove failed/closed sessions
+        // Remove closed sessions
         sessionsToRemove.forEach(this::removeSessionById);
 
-        log.debug("Broadcast completed: {} successful, {} failed, {} sessions removed",
-                successCount, failureCount, sessionsToRemove.size());
+        log.debug("Broadcast queued: {} queued, {} dropped, {} sessions removed",
+                queued, dropped, sessionsToRemove.size());
     }
 
-    public boolean sendToSession(String sessionId, String message) {
+    /**
+     * @return true if the message was queued for the session
+     */
+    public boolean sendToSession(String sessionId, String message, MessageClass messageClass) {
         if (sessionId == null || message == null) {
             log.warn("Cannot send message: sessionId={}, message={}", sessionId, message != null);
             return false;
@@ -201,33 +304,153 @@ public class WebSocketSessionManager {
             return false;
         }
 
-        WebSocketSession session = sessionInfo.getSession();
-        if (!session.isOpen()) {
+        if (!sessionInfo.getSession().isOpen()) {
             log.debug("Session closed, removing: {}", sessionId);
             activeSessions.remove(sessionId);
             return false;
         }
 
+        TextMessage textMessage = new TextMessage(message);
+        Outcome outcome = enqueue(sessionInfo, textMessage, textMessage.getPayloadLength(), messageClass);
+        if (outcome == Outcome.EVICT) {
+            evict(sessionId, sessionInfo);
+        }
+        return outcome == Outcome.QUEUED;
+    }
+
+    private Outcome enqueue(SessionInfo sessionInfo, WebSocketMessage<?> message, int size, MessageClass messageClass) {
+        if (sessionInfo.isSendStuck(sendTimeLimitMs)) {
+            return Outcome.EVICT;
+        }
+        boolean startDrain;
+        synchronized (sessionInfo.queue) {
+            if (messageClass != MessageClass.BEST_EFFORT) {
+                Outbound oldest;
+                while (isFull(sessionInfo, size) && (oldest = dropOldestDroppable(sessionInfo)) != null) {
+                    dropped.get(oldest.messageClass()).increment();
+                }
+            }
+            if (isFull(sessionInfo, size)) {
+                if (messageClass == MessageClass.CRITICAL) {
+                    return Outcome.EVICT;
+                }
+                dropped.get(messageClass).increment();
+                return Outcome.DROPPED;
+            }
+            sessionInfo.queue.add(new Outbound(message, messageClass, size));
+            sessionInfo.queuedBytes += size;
+            startDrain = !sessionInfo.draining;
+            sessionInfo.draining = true;
+        }
+        if (startDrain) {
+            submitDrain(sessionInfo);
+        }
+        return Outcome.QUEUED;
+    }
+
+    private void submitDrain(SessionInfo sessionInfo) {
         try {
-            session.sendMessage(new TextMessage(message));
-            sessionInfo.updateLastActivity();
-            sessionInfo.resetFailureCount();
-            messagesSent.incrementAndGet();
-            return true;
-
-        } catch (Exception e) {
-            log.warn("Failed to send message to session {}: {}", sessionId, e.getMessage());
-            sessionInfo.incrementFailureCount();
-            messagesFailedToSend.incrementAndGet();
-
-            // Mark session as unhealthy if too many failures
-            if (sessionInfo.getFailureCount() >= 3) {
-                sessionInfo.markUnhealthy();
-                removeSessionById(sessionId);
+            senders.execute(() -> drain(sessionInfo));
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            synchronized (sessionInfo.queue) {
+                sessionInfo.draining = false;
             }
+        }
+    }
 
-            return false;
+    // Caller holds the queue's lock
+    private boolean isFull(SessionInfo sessionInfo, int size) {
+        return !sessionInfo.queue.isEmpty()
+                && (sessionInfo.queue.size() >= maxQueuedMessages || sessionInfo.queuedBytes + size > maxQueuedBytes);
+    }
+
+    // Caller holds the queue's lock
+    private Outbound dropOldestDroppable(SessionInfo sessionInfo) {
+        var iterator = sessionInfo.queue.iterator();
+        while (iterator.hasNext()) {
+            Outbound queued = iterator.next();
+            if (queued.messageClass() != MessageClass.CRITICAL) {
+                iterator.remove();
+                sessionInfo.queuedBytes -= queued.size();
+                return queued;
+            }
+        }
+        return null;
+    }
+
+    // Runs on a sender thread; only one drain per session at a time
+    private void drain(SessionInfo sessionInfo) {
+        WebSocketSession session = sessionInfo.getSession();
+        for (int sent = 0; ; sent++) {
+            Outbound next;
+            synchronized (sessionInfo.queue) {
+                if (sent == drainBatch && !sessionInfo.queue.isEmpty() && session.isOpen()) {
+                    // Still draining: the rest goes behind the other sessions waiting for a sender
+                    break;
+                }
+                next = sessionInfo.queue.poll();
+                if (next == null || !session.isOpen()) {
+                    sessionInfo.queue.clear();
+                    sessionInfo.queuedBytes = 0;
+                    sessionInfo.draining = false;
+                    return;
+                }
+                sessionInfo.queuedBytes -= next.size();
+            }
+
+            sessionInfo.sendStartedAt = System.currentTimeMillis();
+            try {
+                session.sendMessage(next.message());
+                sessionInfo.updateLastActivity();
+                sessionInfo.resetFailureCount();
+                messagesSent.incrementAndGet();
+
+            } catch (Exception e) {
+                log.warn("Failed to send message to session {}: {}", session.getId(), e.getMessage());
+                sessionInfo.incrementFailureCount();
+                messagesFailedToSend.incrementAndGet();
+
+                // Mark session as unhealthy if too many failures
+                if (sessionInfo.getFailureCount() >= 3) {
+                    sessionInfo.markUnhealthy();
+                    removeSessionById(session.getId());
+                }
+            } finally {
+                sessionInfo.sendStartedAt = 0;
+            }
         }
+        submitDrain(sessionInfo);
+    }
+
+    /**
+     * Evicts sessions whose send has been stuck past the limit, freeing the sender they hold.
+     */
+    @Scheduled(fixedDelayString = "${chess.websocket.stuck-check-interval-ms:1000}")
+    public void evictStuckSessions() {
+        activeSessions.forEach((sessionId, sessionInfo) -> {
+            if (sessionInfo.isSendStuck(sendTimeLimitMs)) {
+                evict(sessionId, sessionInfo);
+            }
+        });
+    }
+
+    private void evict(String sessionId, SessionInfo sessionInfo) {
+        if (!activeSessions.remove(sessionId, sessionInfo)) {
+            return;
+        }
+        evicted.increment();
+        sessionInfo.markUnhealthy();
+        sessionInfo.clearQueue();
+        log.warn("Evicting slow session {} (Total active: {})", sessionId, activeSessions.size());
+        // Closing aborts a stuck send, but may itself block on the socket; keep it off the caller
+        CompletableFuture.runAsync(() -> {
+            try {
+                sessionInfo.getSession().close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException e) {
+                log.debug("Error closing session {}: {}", sessionId, e.getMessage());
+            }
+        });
     }
 
     /**
@@ -276,7 +499,9 @@ public class WebSocketSessionManager {
     /**
      * Force cleanup of all sessions (for shutdown)
      */
+    @PreDestroy
     public void closeAllSessions() {
+        senders.shutdownNow();
         log.info("Closing all {} active sessions", activeSessions.size());
 
         for (SessionInfo sessionInfo : activeSessions.values()) {
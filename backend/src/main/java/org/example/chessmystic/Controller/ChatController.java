@@ -1,7 +1,7 @@
 package org.example.chessmystic.Controller;
 
-import org.example.chessmystic.Config.RabbitMQ.RabbitMQMessageService;
 import org.example.chessmystic.Models.*;
+import org.example.chessmystic.Service.implementation.ChatDeliveryService;
 import org.example.chessmystic.Service.implementation.ChatService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,7 +12,6 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Controller
@@ -27,36 +26,31 @@ public class ChatController {
     private ChatService chatService;
 
     @Autowired
-    private RabbitMQMessageService rabbitMQMessageService;
-
-
+    private ChatDeliveryService chatDeliveryService;
 
     @MessageMapping("/chat/send")
     public void sendMessage(@Payload ChatMessageRequest request) {
         log.info("Chat message received from {} to {}", request.getSenderId(), request.getReceiverId());
         
         try {
-            // Save message to database
-            ChatMessage savedMessage = chatService.saveMessage(
+            ChatService.SavedMessage saved = chatService.saveMessage(
                 request.getSenderId(),
                 request.getSenderName(),
                 request.getReceiverId(),
-                request.getMessage()
-            );
-            
-            // Send to sender (for confirmation)
-            messagingTemplate.convertAndSend(
-                "/queue/chat." + request.getSenderId(),
-                savedMessage
+                request.getMessage(),
+                request.getClientMessageId()
             );
+            ChatMessage savedMessage = saved.message();
 
-            // Send to receiver
-            messagingTemplate.convertAndSend(
-                "/queue/chat." + request.getReceiverId(),
-                savedMessage
-            );
+            if (saved.duplicate()) {
+                // A resend after a reconnect: the receiver already has it, the sender needs the ack
+                chatDeliveryService.deliverTo(request.getSenderId(), savedMessage);
+                log.info("Chat message {} was already sent; acknowledged again", savedMessage.getId());
+                return;
+            }
 
-            rabbitMQMessageService.sendChatMessage(request.getReceiverId(), savedMessage);
+            // To the receiver, and back to the sender as confirmation
+            chatDeliveryService.deliver(savedMessage);
 
             log.info("Chat message sent successfully: {}", savedMessage.getId());
         } catch (Exception e) {
@@ -100,17 +94,36 @@ public class ChatController {
         }
     }
 
+    @MessageMapping("/chat/unread")
+    public void getUnreadCounts(@Payload Map<String, String> payload) {
+        String userId = payload.get("userId");
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("type", "UNREAD_COUNTS");
+            response.put("counts", chatService.getUnreadCounts(userId));
+
+            messagingTemplate.convertAndSend("/queue/chat." + userId, response);
+        } catch (Exception e) {
+            log.error("Error fetching unread counts for {}: {}", userId, e.getMessage(), e);
+        }
+    }
+
     @MessageMapping("/chat/history")
     public void getChatHistory(@Payload ChatHistoryRequest request) {
         try {
             log.info("Fetching chat history between {} and {}", request.getUserId1(), request.getUserId2());
 
-            List<ChatMessage> messages = chatService.getChatHistory(request.getUserId1(), request.getUserId2());
+            ChatService.HistoryPage page = chatService.getChatHistory(
+                    request.getUserId1(), request.getUserId2(), request.getBefore(), request.getLimit());
 
             Map<String, Object> response = new HashMap<>();
             response.put("type", "CHAT_HISTORY");
             response.put("friendId", request.getUserId2());
-            response.put("messages", messages);
+            response.put("messages", page.messages());
+            // Pass nextCursor back as "before" to load older messages
+            response.put("before", request.getBefore());
+            response.put("hasMore", page.hasMore());
+            response.put("nextCursor", page.nextCursor());
 
             // Send chat history back to the requester
             messagingTemplate.convertAndSend(
@@ -8,6 +8,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/games/chess")
 public class ChessGameController {
@@ -52,6 +54,20 @@ public class ChessGameController {
         return ResponseEntity.ok(isDraw);
     }
 
+    /**
+     * Legal moves for the side to move, optionally only those from the square at {@code row}/{@code col}.
+     */
+    @GetMapping("/{gameId}/legal-moves")
+    public ResponseEntity<List<BoardPosition>> getLegalMoves(
+            @PathVariable String gameId,
+            @RequestParam(required = false) Integer row,
+            @RequestParam(required = false) Integer col) {
+        if (row == null || col == null) {
+            return ResponseEntity.ok(chessGameService.getLegalMoves(gameId));
+        }
+        return ResponseEntity.ok(chessGameService.getLegalMoves(gameId, row, col));
+    }
+
 
 
 }
\ No newline at end of file
@@ -6,7 +6,7 @@ import org.example.chessmystic.Models.GameStateandFlow.GameStatus;
 import org.example.chessmystic.Models.Tracking.GameSession;
 import org.example.chessmystic.Models.UIUX.TieResolutionOption;
 import org.example.chessmystic.Service.implementation.GameRelated.MatchmakingService;
-import org.example.chessmystic.Service.implementation.GameRelated.RealtimeService;
+import org.example.chessmystic.Service.implementation.GameRelated.SpectatorDelayService;
 import org.example.chessmystic.Service.interfaces.GameRelated.IGameSessionService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -27,12 +27,15 @@ public class GameSessionController {
     private final IGameSessionService gameSessionService;
     private final MatchmakingService matchmakingService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final SpectatorDelayService spectatorDelayService;
 
 
-    public GameSessionController(IGameSessionService gameSessionService, MatchmakingService matchmakingService, SimpMessagingTemplate messagingTemplate) {
+    public GameSessionController(IGameSessionService gameSessionService, MatchmakingService matchmakingService, SimpMessagingTemplate messagingTemplate,
+                                 SpectatorDelayService spectatorDelayService) {
         this.gameSessionService = gameSessionService;
         this.matchmakingService = matchmakingService;
         this.messagingTemplate = messagingTemplate;
+        this.spectatorDelayService = spectatorDelayService;
     }
 
     @PostMapping
@@ -70,13 +73,10 @@ public class GameSessionController {
     @GetMapping("/{gameId}")
     public ResponseEntity<?> findById(@PathVariable String gameId) {
         try {
-            Optional<GameSession> session = gameSessionService.findById(gameId);
+            Optional<GameSession> session = gameId.startsWith("SpecSession-")
+                    ? spectatorDelayService.findDelayedSession(gameId.substring("SpecSession-".length()))
+                    : gameSessionService.findById(gameId);
             if (session.isPresent()) {
-                if (gameId.startsWith("SpecSession-")) {
-                    String rawId = gameId.substring("SpecSession-".length());
-                    var delayed = RealtimeService.createTimeDelayedGameSession(rawId, java.time.Duration.ofMinutes(2));
-                    return ResponseEntity.ok(delayed);
-                }
                 logger.info("Returning game session for gameId {}: {}", gameId, session.get());
                 return ResponseEntity.ok(session.get());
             }
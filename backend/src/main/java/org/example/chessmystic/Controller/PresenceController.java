@@ -0,0 +1,69 @@
+package org.example.chessmystic.Controller;
+
+import org.example.chessmystic.Service.implementation.PresenceService;
+import org.example.chessmystic.Service.interfaces.GameRelated.IGameSessionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Controller
+public class PresenceController {
+
+    private static final Logger log = LoggerFactory.getLogger(PresenceController.class);
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private IGameSessionService gameSessionService;
+
+    /**
+     * Payload: {@code userId}, plus {@code gameId} while playing and {@code away: "true"} when
+     * the client is in the background.
+     */
+    @MessageMapping("/presence/heartbeat")
+    public void heartbeat(@Payload Map<String, String> payload, SimpMessageHeaderAccessor headers) {
+        String userId = payload.get("userId");
+        if (userId == null) {
+            return;
+        }
+        String gameId = payload.get("gameId");
+        try {
+            if (gameId != null) {
+                gameSessionService.updatePlayerLastSeen(gameId, userId);
+            }
+        } catch (RuntimeException e) {
+            log.debug("Ignoring game {} in heartbeat from {}: {}", gameId, userId, e.getMessage());
+            // Over, not in progress here, or not theirs
+            presenceService.gameEnded(gameId, List.of(userId));
+            gameId = null;
+        }
+        presenceService.heartbeat(headers.getSessionId(), userId, gameId, Boolean.parseBoolean(payload.get("away")));
+    }
+
+    @MessageMapping("/presence/friends")
+    public void getFriendsPresence(@Payload Map<String, String> payload) {
+        String userId = payload.get("userId");
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("type", "PRESENCE_SNAPSHOT");
+            response.put("friends", presenceService.friendsPresence(userId));
+
+            messagingTemplate.convertAndSend("/queue/presence." + userId, response);
+        } catch (Exception e) {
+            log.error("Error fetching friends' presence for {}: {}", userId, e.getMessage(), e);
+        }
+    }
+}
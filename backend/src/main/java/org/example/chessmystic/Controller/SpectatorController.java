@@ -4,6 +4,7 @@ import org.example.chessmystic.Models.SpectatorChatMessage;
 import org.example.chessmystic.Models.Tracking.GameSession;
 import org.example.chessmystic.Service.implementation.GameRelated.ChessGameService;
 import org.example.chessmystic.Service.implementation.GameRelated.GameSessionService;
+import org.example.chessmystic.Service.implementation.GameRelated.SpectatorDelayService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,6 +31,9 @@ public class SpectatorController {
     @Autowired
     private GameSessionService gameSessionService;
 
+    @Autowired
+    private SpectatorDelayService spectatorDelayService;
+
     @MessageMapping("/spectator-chat/send")
     public void sendSpectatorMessage(@Payload SpectatorChatMessage message) {
         try {
@@ -44,7 +48,7 @@ public class SpectatorController {
     public ResponseEntity<?> broadcastDelayedGameState(@PathVariable String gameId) {
         try {
             // Get delayed session for spectators
-            GameSession delayedSession = gameSessionService.findById("SpecSession-" + gameId).orElse(null);
+            GameSession delayedSession = spectatorDelayService.findDelayedSession(gameId).orElse(null);
             if (delayedSession != null) {
                 String destination = "/topic/spectator-game-state/" + gameId;
                 messagingTemplate.convertAndSend(destination, delayedSession.getGameState());
@@ -60,7 +64,7 @@ public class SpectatorController {
     @PostMapping("/spectator/broadcast-timer/{gameId}")
     public ResponseEntity<?> broadcastTimerUpdate(@PathVariable String gameId) {
         try {
-            GameSession session = gameSessionService.findById("SpecSession-" + gameId).orElse(null); // CHANGE TO DELAYED
+            GameSession session = spectatorDelayService.findDelayedSession(gameId).orElse(null);
             if (session != null) {
                 String destination = "/topic/timer-updates/" + gameId; // spectator topic
                 messagingTemplate.convertAndSend(destination, session.getTimers()); // SEND DELAYED TIMERS
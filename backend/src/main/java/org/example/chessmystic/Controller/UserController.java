@@ -1,7 +1,9 @@
 package org.example.chessmystic.Controller;
 
+import org.example.chessmystic.Models.APIContacts.UserDTO.LeaderboardEntryDTO;
 import org.example.chessmystic.Models.APIContacts.UserDTO.UserUpdateDTO;
 import org.example.chessmystic.Models.UserManagement.User;
+import org.example.chessmystic.Service.implementation.LeaderboardService;
 import org.example.chessmystic.Service.interfaces.IUserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,9 +18,11 @@ import java.util.Optional;
 public class UserController {
 
     private final IUserService userService;
+    private final LeaderboardService leaderboardService;
 
-    public UserController(IUserService userService) {
+    public UserController(IUserService userService, LeaderboardService leaderboardService) {
         this.userService = userService;
+        this.leaderboardService = leaderboardService;
     }
 
     @GetMapping("/current")
@@ -71,6 +75,56 @@ public class UserController {
         }
     }
 
+    // window is all-time, daily or weekly
+    @GetMapping("/leaderboard/{window}")
+    public ResponseEntity<?> getLeaderboard(@PathVariable String window,
+                                            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<LeaderboardEntryDTO> leaderboard = leaderboardService.top(LeaderboardService.Window.fromPath(window), limit);
+            return ResponseEntity.ok(leaderboard);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown leaderboard: " + window));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve leaderboard", "message", "An unexpected error occurred"));
+        }
+    }
+
+    @GetMapping("/leaderboard/{window}/rank")
+    public ResponseEntity<?> getLeaderboardRank(@PathVariable String window, @RequestParam String userId) {
+        try {
+            Optional<LeaderboardEntryDTO> entry = leaderboardService.rankOf(LeaderboardService.Window.fromPath(window), userId);
+            return entry.<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(Map.of("error", "User is not on the leaderboard")));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown leaderboard: " + window));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve rank", "message", "An unexpected error occurred"));
+        }
+    }
+
+    @GetMapping("/leaderboard/{window}/around")
+    public ResponseEntity<?> getLeaderboardAround(@PathVariable String window, @RequestParam String userId,
+                                                  @RequestParam(defaultValue = "5") int radius) {
+        try {
+            List<LeaderboardEntryDTO> entries = leaderboardService.around(LeaderboardService.Window.fromPath(window), userId, radius);
+            return ResponseEntity.ok(entries);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown leaderboard: " + window));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve leaderboard", "message", "An unexpected error occurred"));
+        }
+    }
+
     @PatchMapping("/deactivate")
     public ResponseEntity<?> deactivateUser(@RequestParam String id) {
         try {
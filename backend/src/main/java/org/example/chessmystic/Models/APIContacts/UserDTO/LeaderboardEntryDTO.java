@@ -0,0 +1,15 @@
+package org.example.chessmystic.Models.APIContacts.UserDTO;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDTO {
+    private int rank;
+    private String userId;
+    private String username;
+    private long points;
+}
@@ -0,0 +1,17 @@
+package org.example.chessmystic.Models.APIContacts.UserDTO;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+    private String id;
+    private String username;
+    // First and last name, as shown to other players
+    private String displayName;
+    private int points;
+    private String image;
+}
@@ -0,0 +1,29 @@
+package org.example.chessmystic.Models.Analytics;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Analytics of the games in progress on one game-events partition, together with the offset
+ * of the first event not yet reflected in them. Both are written in one document so a
+ * restored partition resumes exactly where its state left off.
+ */
+@Document(collection = "analytics_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsCheckpoint {
+    @Id
+    private String id; // topic-partition
+    private String topic;
+    private int partition;
+    private long nextOffset;
+    private List<GameAnalytics> games;
+    private LocalDateTime updatedAt;
+}
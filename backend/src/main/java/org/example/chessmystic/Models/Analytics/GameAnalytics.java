@@ -34,4 +34,5 @@ public class GameAnalytics {
     private boolean checkmate;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private List<String> recentEventIds; // while in progress only, to drop redelivered events
 }
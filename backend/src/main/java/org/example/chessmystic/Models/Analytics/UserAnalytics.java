@@ -5,6 +5,7 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Document(collection = "user_analytics")
@@ -29,6 +30,7 @@ public class UserAnalytics {
     private int longestWinStreak;
     private int currentWinStreak;
     private Map<String, Integer> actionCounts; // LOGIN, LOGOUT, GAME_JOIN, etc.
+    private List<String> countedGameIds; // most recent games folded into the totals, oldest first
     private LocalDateTime lastActivityTime;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
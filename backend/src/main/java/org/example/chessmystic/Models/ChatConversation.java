@@ -0,0 +1,32 @@
+package org.example.chessmystic.Models;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-conversation summary kept next to {@code chat_messages}: who is in it, when it was last
+ * active, and how many messages each participant has not read yet. The id is the messages'
+ * {@link ChatMessage#conversationId(String, String)}.
+ */
+@Document(collection = "chat_conversations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatConversation {
+    @Id
+    private String id;
+
+    @Indexed
+    private List<String> participantIds;
+
+    private Map<String, Integer> unread; // userId -> unread messages
+    private LocalDateTime lastMessageAt;
+}
@@ -3,6 +3,9 @@ package org.example.chessmystic.Models;
 public class ChatHistoryRequest {
     private String userId1;
     private String userId2;
+    // Id of the oldest message already loaded; absent for the latest page
+    private String before;
+    private Integer limit;
     
     // Constructors
     public ChatHistoryRequest() {}
@@ -28,4 +31,20 @@ public class ChatHistoryRequest {
     public void setUserId2(String userId2) {
         this.userId2 = userId2;
     }
+
+    public String getBefore() {
+        return before;
+    }
+
+    public void setBefore(String before) {
+        this.before = before;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
 }
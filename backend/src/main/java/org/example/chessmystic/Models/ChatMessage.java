@@ -1,16 +1,24 @@
 package org.example.chessmystic.Models;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "chat_messages")
+@CompoundIndex(name = "conversation_page", def = "{'conversationId': 1, 'timestamp': -1, '_id': -1}")
+@CompoundIndex(name = "unread", def = "{'receiverId': 1, 'isRead': 1, 'timestamp': -1}")
+@CompoundIndex(name = "client_message", def = "{'senderId': 1, 'clientMessageId': 1}", unique = true,
+        partialFilter = "{'clientMessageId': {$exists: true}}")
 public class ChatMessage {
     
     @Id
     private String id;
+
+    // Same for both directions of a chat; see conversationId(String, String)
+    private String conversationId;
     
     @Indexed
     private String senderId;
@@ -21,6 +29,9 @@ public class ChatMessage {
     private String receiverId;
     
     private String message;
+
+    // The sender's own id for the message, when the client supplies one
+    private String clientMessageId;
     
     private LocalDateTime timestamp;
     
@@ -36,10 +47,18 @@ public class ChatMessage {
         this.senderId = senderId;
         this.senderName = senderName;
         this.receiverId = receiverId;
+        this.conversationId = conversationId(senderId, receiverId);
         this.message = message;
         this.timestamp = LocalDateTime.now();
         this.isRead = false;
     }
+
+    /**
+     * The conversation key of two users: their ids in order, so either user gets the same key.
+     */
+    public static String conversationId(String userId1, String userId2) {
+        return userId1.compareTo(userId2) <= 0 ? userId1 + ":" + userId2 : userId2 + ":" + userId1;
+    }
     
     // Getters and Setters
     public String getId() {
@@ -50,6 +69,14 @@ public class ChatMessage {
         this.id = id;
     }
     
+    public String getConversationId() {
+        return conversationId;
+    }
+
+    public void setConversationId(String conversationId) {
+        this.conversationId = conversationId;
+    }
+    
     public String getSenderId() {
         return senderId;
     }
@@ -82,6 +109,14 @@ public class ChatMessage {
         this.message = message;
     }
     
+    public String getClientMessageId() {
+        return clientMessageId;
+    }
+
+    public void setClientMessageId(String clientMessageId) {
+        this.clientMessageId = clientMessageId;
+    }
+    
     public LocalDateTime getTimestamp() {
         return timestamp;
     }
@@ -5,6 +5,8 @@ public class ChatMessageRequest {
     private String senderName;
     private String receiverId;
     private String message;
+    // Set by the client and kept across resends, so a message retried after a reconnect is stored once
+    private String clientMessageId;
     
     // Constructors
     public ChatMessageRequest() {}
@@ -48,4 +50,12 @@ public class ChatMessageRequest {
     public void setMessage(String message) {
         this.message = message;
     }
+
+    public String getClientMessageId() {
+        return clientMessageId;
+    }
+
+    public void setClientMessageId(String clientMessageId) {
+        this.clientMessageId = clientMessageId;
+    }
 }
@@ -33,4 +33,11 @@ public class GameState {
     private boolean canWhiteCastleQueenSide;
     private boolean canBlackCastleKingSide;
     private boolean canBlackCastleQueenSide;
+
+    // Repetition tracking: Zobrist key of the current position, plies since the last
+    // capture or pawn move, and a ring of the keys reached since then
+    private long zobristKey;
+    private int halfMoveClock;
+    private long[] positionHistory;
+    private int positionHistoryCount;
 }
@@ -0,0 +1,36 @@
+package org.example.chessmystic.Models.Interactions;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+/**
+ * Up to {@link #CAPACITY} consecutive actions of one game, so a whole game reads back in
+ * a handful of documents instead of one per move. An action goes to bucket
+ * {@code (sequenceNumber - 1) / CAPACITY}; buckets are created by upsert, which the unique
+ * index keeps to one per number, and ordered by their first sequence number.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "move_buckets")
+@CompoundIndex(name = "game_first_sequence", def = "{'gameSessionId': 1, 'firstSequence': 1}")
+@CompoundIndex(name = "game_bucket", def = "{'gameSessionId': 1, 'bucketNo': 1}", unique = true)
+public class MoveBucket {
+    public static final int CAPACITY = 64;
+
+    @Id
+    private String id;
+
+    private String gameSessionId;
+    private int bucketNo;
+    private int count;
+    private int firstSequence;
+    private int lastSequence;
+    private List<MoveRecord> moves;
+}
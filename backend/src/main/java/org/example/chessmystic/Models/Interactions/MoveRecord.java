@@ -0,0 +1,128 @@
+package org.example.chessmystic.Models.Interactions;
+
+import lombok.*;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+/**
+ * One recorded action inside a {@link MoveBucket}. Short field names keep the embedded
+ * records small; RPG-only fields are left unset for plain chess moves and so not stored.
+ * Coordinates on an 8x8 board are packed into one 16-bit code laid out like the engine's
+ * moves (from square in bits 0-5, to square in bits 6-11, squares counted from a1), anything
+ * else (larger RPG boards, off-board ability targets) falls back to the four explicit fields.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MoveRecord {
+    @Field("a")
+    private String actionId;
+    @Field("s")
+    private int sequenceNumber;
+    @Field("p")
+    private String playerId;
+    @Field("t")
+    private ActionType actionType;
+    @Field("m")
+    private Short move;
+    @Field("fx")
+    private Integer fromX;
+    @Field("fy")
+    private Integer fromY;
+    @Field("tx")
+    private Integer toX;
+    @Field("ty")
+    private Integer toY;
+    @Field("ts")
+    private LocalDateTime timestamp;
+
+    @Field("rs")
+    private String rpgGameStateId;
+    @Field("es")
+    private String enhancedGameStateId;
+    @Field("r")
+    private Integer roundNumber;
+    @Field("ab")
+    private String abilityUsed;
+    @Field("dmg")
+    private Integer damageDealt;
+    @Field("crit")
+    private Boolean criticalHit;
+
+    public static MoveRecord of(PlayerAction action) {
+        MoveRecord.MoveRecordBuilder record = MoveRecord.builder();
+        if (onBoard(action.getFromX(), action.getFromY()) && onBoard(action.getToX(), action.getToY())) {
+            record.move((short) (square(action.getFromX(), action.getFromY())
+                    | square(action.getToX(), action.getToY()) << 6));
+        } else {
+            record.fromX(action.getFromX())
+                    .fromY(action.getFromY())
+                    .toX(action.getToX())
+                    .toY(action.getToY());
+        }
+        return record
+                .actionId(action.getId())
+                .sequenceNumber(action.getSequenceNumber())
+                .playerId(action.getPlayerId())
+                .actionType(action.getActionType())
+                .timestamp(action.getTimestamp())
+                .rpgGameStateId(action.getRpgGameStateId())
+                .enhancedGameStateId(action.getEnhancedGameStateId())
+                .roundNumber(action.getRoundNumber() != 0 ? action.getRoundNumber() : null)
+                .abilityUsed(action.getAbilityUsed())
+                .damageDealt(action.getDamageDealt() != 0 ? action.getDamageDealt() : null)
+                .criticalHit(action.isCriticalHit() ? Boolean.TRUE : null)
+                .build();
+    }
+
+    public PlayerAction toPlayerAction(String gameSessionId) {
+        PlayerAction.PlayerActionBuilder action = PlayerAction.builder();
+        if (move != null) {
+            int from = move & 0x3F;
+            int to = (move >>> 6) & 0x3F;
+            action.fromX(row(from))
+                    .fromY(col(from))
+                    .toX(row(to))
+                    .toY(col(to));
+        } else {
+            action.fromX(fromX != null ? fromX : 0)
+                    .fromY(fromY != null ? fromY : 0)
+                    .toX(toX != null ? toX : 0)
+                    .toY(toY != null ? toY : 0);
+        }
+        return action
+                .id(actionId)
+                .gameSessionId(gameSessionId)
+                .sequenceNumber(sequenceNumber)
+                .playerId(playerId)
+                .actionType(actionType)
+                .timestamp(timestamp)
+                .rpgGameStateId(rpgGameStateId)
+                .enhancedGameStateId(enhancedGameStateId)
+                .roundNumber(roundNumber != null ? roundNumber : 0)
+                .abilityUsed(abilityUsed)
+                .damageDealt(damageDealt != null ? damageDealt : 0)
+                .isCriticalHit(Boolean.TRUE.equals(criticalHit))
+                .build();
+    }
+
+    private static boolean onBoard(int row, int col) {
+        return row >= 0 && row < 8 && col >= 0 && col < 8;
+    }
+
+    // Row 0 is rank 8, as on the board the game is played on
+    private static int square(int row, int col) {
+        return ((7 - row) << 3) | col;
+    }
+
+    private static int row(int square) {
+        return 7 - (square >>> 3);
+    }
+
+    private static int col(int square) {
+        return square & 7;
+    }
+}
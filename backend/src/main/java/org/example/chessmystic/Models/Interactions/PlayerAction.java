@@ -2,6 +2,7 @@ package org.example.chessmystic.Models.Interactions;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Document(collection = "player_actions")
+@CompoundIndex(name = "game_sequence", def = "{'gameSessionId': 1, 'sequenceNumber': 1}")
 public class PlayerAction {
     @Id
     private String id;
@@ -1,9 +1,21 @@
 package org.example.chessmystic.Models.KafkaEvents;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+// eventType is written first so readers resolve the subtype without buffering the rest
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "eventType", visible = true)
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = MoveEvent.class, name = "MOVE"),
+        @JsonSubTypes.Type(value = GameStartEvent.class, name = "GAME_START"),
+        @JsonSubTypes.Type(value = GameEndEvent.class, name = "GAME_END")
+})
+@JsonPropertyOrder({"eventType"})
 public interface GameEvent {
     String getEventId();
     String getGameId();
     String getPlayerId();
     long getTimestamp();
     String getEventType();
-}
\ No newline at end of file
+}
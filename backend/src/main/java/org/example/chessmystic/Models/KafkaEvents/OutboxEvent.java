@@ -0,0 +1,39 @@
+package org.example.chessmystic.Models.KafkaEvents;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A game event waiting to be relayed to Kafka. The id is an ObjectId assigned when the event
+ * is recorded, so ordering by id gives each game's events in the order they happened.
+ * Published entries expire a day after they were sent. The event is held as JSON text in
+ * {@code payload}, or in {@code binaryPayload} when the binary game event format is enabled.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "event_outbox")
+@CompoundIndex(name = "unpublished", def = "{'published': 1, '_id': 1}")
+public class OutboxEvent {
+    @Id
+    private String id;
+
+    private String gameId;
+    private String topic;
+    private String key;
+    private String eventType;
+    private String payload;
+    private byte[] binaryPayload;
+    private boolean published;
+    private LocalDateTime createdAt;
+
+    @Indexed(name = "published_ttl", expireAfter = "1d")
+    private LocalDateTime publishedAt;
+}
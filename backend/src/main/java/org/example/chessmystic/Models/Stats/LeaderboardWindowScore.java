@@ -0,0 +1,33 @@
+package org.example.chessmystic.Models.Stats;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Points a user gained in one leaderboard window period, e.g. one day or one week. The id is
+ * {@code window:period:userId}, where period is the ISO date the period starts on, so each
+ * change is a single {@code $inc} upsert. Entries expire once their period is well over.
+ */
+@Document(collection = "leaderboard_windows")
+@CompoundIndex(name = "window_period", def = "{'window': 1, 'period': 1}")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardWindowScore {
+    @Id
+    private String id;
+    private String userId;
+    private String window;
+    private String period;
+    private long points;
+
+    @Indexed(name = "window_ttl", expireAfter = "15d")
+    private LocalDateTime updatedAt;
+}
@@ -17,8 +17,12 @@ import java.util.List;
 import java.util.Map;
 
 @Document(collection = "game_sessions")
-@CompoundIndex(def = "{'playerIds': 1, 'status': 1}")
+@CompoundIndex(def = "{'whitePlayer.userId': 1, 'status': 1}")
+@CompoundIndex(def = "{'blackPlayer.userId': 1, 'status': 1}")
+@CompoundIndex(def = "{'otherPlayers.userId': 1, 'status': 1}")
 @CompoundIndex(def = "{'createdAt': -1, 'gameMode': 1}")
+@CompoundIndex(def = "{'gameMode': 1, 'createdAt': -1}")
+@CompoundIndex(name = "gameState._id", def = "{'gameState._id': 1}")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -39,7 +43,7 @@ public class GameSession {
     private GameMode gameMode;
     private boolean isRankedMatch;
     private boolean isPrivate;
-    private String inviteCode;
+    @Indexed(sparse = true) private String inviteCode;
 
     // CURRENT BOARD STATE - i'm skeptical about this
     private Piece[][] board;
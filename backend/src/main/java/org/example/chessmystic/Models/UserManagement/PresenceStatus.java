@@ -0,0 +1,5 @@
+package org.example.chessmystic.Models.UserManagement;
+
+public enum PresenceStatus {
+    ONLINE, AWAY, IN_GAME, OFFLINE
+}
@@ -47,6 +47,7 @@ public class User {
     @NotNull
     private String emailAddress;
 
+    @Indexed
     @Min(0)
     private int points = 0;
 
@@ -0,0 +1,9 @@
+package org.example.chessmystic.Repository;
+
+import org.example.chessmystic.Models.Analytics.AnalyticsCheckpoint;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AnalyticsCheckpointRepository extends MongoRepository<AnalyticsCheckpoint, String> {
+}
@@ -9,11 +9,6 @@ import java.util.List;
 @Repository
 public interface ChatMessageRepository extends MongoRepository<ChatMessage, String> {
     
-    // Find messages between two users (in both directions)
-    List<ChatMessage> findBySenderIdAndReceiverIdOrReceiverIdAndSenderIdOrderByTimestampAsc(
-        String senderId, String receiverId, String receiverId2, String senderId2
-    );
-    
     // Find unread messages for a user
     List<ChatMessage> findByReceiverIdAndIsReadFalseOrderByTimestampDesc(String receiverId);
     
@@ -3,6 +3,7 @@ package org.example.chessmystic.Repository;
 import org.example.chessmystic.Models.Tracking.GameSession;
 import org.example.chessmystic.Models.GameStateandFlow.GameMode;
 import org.example.chessmystic.Models.GameStateandFlow.GameStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -15,7 +16,7 @@ public interface GameSessionRepository extends MongoRepository<GameSession, Stri
     @Query("{ $or: [ {'whitePlayer.userId': ?0}, {'blackPlayer.userId': ?0}, {'otherPlayers.userId': ?0} ] }")
     List<GameSession> findByPlayerIdsContaining(String playerId);
     List<GameSession> findByStatus(GameStatus status);
-    List<GameSession> findByGameMode(GameMode gameMode);
+    List<GameSession> findByGameModeOrderByCreatedAtDesc(GameMode gameMode, Pageable pageable);
     List<GameSession> findByIsActiveTrue();
 
     @Query("{ $and: [ { $or: [ {'whitePlayer.userId': ?0}, {'blackPlayer.userId': ?0}, {'otherPlayers.userId': ?0} ] }, { 'status': { $in: ?1 } } ] }")
@@ -26,6 +27,10 @@ public interface GameSessionRepository extends MongoRepository<GameSession, Stri
 
     Optional<GameSession> findByInviteCode(String inviteCode);
 
+    // Only the game id is loaded
+    @Query(value = "{ 'gameState._id': ?0 }", fields = "{ '_id': 1 }")
+    Optional<GameSession> findGameIdByGameStateId(String gameStateId);
+
     @Query("{ 'enhancedGameStateId': ?0, $or: [ {'whitePlayer.userId': ?1}, {'blackPlayer.userId': ?1}, {'otherPlayers.userId': ?1} ] }")
     GameSession findByEnhancedGameStateIdAndPlayerId(String enhancedGameStateId, String playerId);
 
@@ -0,0 +1,12 @@
+package org.example.chessmystic.Repository;
+
+import org.example.chessmystic.Models.Interactions.MoveBucket;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MoveBucketRepository extends MongoRepository<MoveBucket, String> {
+    List<MoveBucket> findByGameSessionIdOrderByFirstSequenceAsc(String gameSessionId);
+}
@@ -7,12 +7,14 @@ import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PlayerActionRepository extends MongoRepository<PlayerAction, String> {
     List<PlayerAction> findByGameSessionId(String gameSessionId);
     List<PlayerAction> findByPlayerId(String playerId);
     List<PlayerAction> findByGameSessionIdOrderBySequenceNumberAsc(String gameSessionId);
+    Optional<PlayerAction> findFirstByGameSessionIdOrderBySequenceNumberDesc(String gameSessionId);
 
     @Query("{'gameSessionId': ?0, 'roundNumber': ?1}")
     List<PlayerAction> findByGameSessionIdAndRoundNumber(String gameSessionId, int roundNumber);
@@ -1,38 +1,169 @@
 package org.example.chessmystic.Service.implementation;
 
+import org.bson.Document;
+import org.example.chessmystic.Models.Analytics.AnalyticsCheckpoint;
 import org.example.chessmystic.Models.Analytics.GameAnalytics;
 import org.example.chessmystic.Models.Analytics.UserAnalytics;
 import org.example.chessmystic.Models.KafkaEvents.*;
-import org.example.chessmystic.Repository.AnalyticsRepository;
-import org.example.chessmystic.Repository.UserAnalyticsRepository;
+import org.example.chessmystic.Repository.AnalyticsCheckpointRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.stream.Collectors;
+
+/**
+ * Aggregates game events into analytics. Games in progress are held per game-events partition;
+ * since events are keyed by gameId, each partition's games are only ever touched by the
+ * consumer that owns it. A partition's state is checkpointed to {@code analytics_checkpoints}
+ * with its next offset periodically and when the partition is revoked, and restored when it is
+ * assigned, so consumers can be added, removed or restarted without losing aggregates.
+ * Ended games and user actions are folded per poll and written with bulk upserts.
+ *
+ * A poll whose ended games cannot be written is retried: the games stay with their partition
+ * until a write succeeds, and events the failed attempt already applied are not applied twice.
+ * Events the outbox relay delivers more than once are dropped by eventId: each game in progress
+ * keeps the ids of its last {@value #RECENT_EVENTS_KEPT} events.
+ */
 @Service
 public class AnalyticsService {
 
     private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
+    // Far more games than a player can end between a failed write and its retry
+    private static final int COUNTED_GAMES_KEPT = 100;
+    // Far more events than the outbox relay resends for one game after a failure
+    private static final int RECENT_EVENTS_KEPT = 64;
 
     @Autowired
-    private AnalyticsRepository gameAnalyticsRepository;
+    private AnalyticsCheckpointRepository checkpointRepository;
 
     @Autowired
-    private UserAnalyticsRepository userAnalyticsRepository;
+    private MongoTemplate mongoTemplate;
+
+    @Value("${kafka.topics.game-events}")
+    private String gameEventsTopic;
+
+    @Value("${chess.analytics.checkpoint-interval-ms:5000}")
+    private long checkpointIntervalMs;
+
+    // Games in progress per owned partition (persisted on game end)
+    private final Map<Integer, PartitionState> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * Loads the partition's checkpoint, if any, and takes ownership of the partition.
+     *
+     * @return the offset to resume consuming from, or empty to use the committed offset
+     */
+    public Optional<Long> restorePartition(int partition) {
+        PartitionState state = new PartitionState();
+        Optional<AnalyticsCheckpoint> checkpoint = checkpointRepository.findById(checkpointId(partition));
+        checkpoint.ifPresent(saved -> {
+            if (saved.getGames() != null) {
+                saved.getGames().forEach(game -> state.games.put(game.getGameId(), game));
+            }
+            state.nextOffset = saved.getNextOffset();
+            state.appliedOffset = saved.getNextOffset() - 1;
+        });
+        partitions.put(partition, state);
+        logger.info("Restored analytics partition {} with {} games in progress", partition, state.games.size());
+        return checkpoint.map(AnalyticsCheckpoint::getNextOffset);
+    }
+
+    /**
+     * Checkpoints the partition and drops its state; another consumer restores it from there.
+     */
+    public void releasePartition(int partition) {
+        PartitionState state = partitions.remove(partition);
+        // Nothing applied and nothing restored: leave the committed offset in charge. Nor can a
+        // state holding a failed poll's effects be saved against the offset before that poll;
+        // the new owner replays it from the previous checkpoint instead.
+        if (state != null && state.nextOffset >= 0 && state.appliedOffset < state.nextOffset) {
+            checkpoint(partition, state);
+        }
+    }
+
+    /**
+     * Claims the event at {@code offset} for applying to the partition's state.
+     *
+     * @return false if it was already applied, by an earlier attempt at a poll being retried
+     */
+    public boolean markApplied(int partition, long offset) {
+        PartitionState state = partition(partition);
+        if (offset <= state.appliedOffset) {
+            return false;
+        }
+        state.appliedOffset = offset;
+        return true;
+    }
+
+    /**
+     * Marks the events up to {@code offset} as persisted and checkpoints the partition if it is due.
+     */
+    public void recordProcessed(int partition, long offset) {
+        PartitionState state = partition(partition);
+        state.nextOffset = offset + 1;
+        if (System.currentTimeMillis() - state.lastCheckpointMillis >= checkpointIntervalMs) {
+            checkpoint(partition, state);
+        }
+    }
 
-    // Temporary in-memory storage for active games (will be persisted on game end)
-    private final Map<String, GameAnalytics> activeGames = new ConcurrentHashMap<>();
+    private void checkpoint(int partition, PartitionState state) {
+        try {
+            checkpointRepository.save(AnalyticsCheckpoint.builder()
+                    .id(checkpointId(partition))
+                    .topic(gameEventsTopic)
+                    .partition(partition)
+                    .nextOffset(state.nextOffset)
+                    .games(new ArrayList<>(state.games.values()))
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+            state.lastCheckpointMillis = System.currentTimeMillis();
+        } catch (Exception e) {
+            // The previous checkpoint stays valid; events since then are replayed from it
+            logger.error("Failed to checkpoint analytics partition {}: {}", partition, e.getMessage());
+        }
+    }
+
+    private String checkpointId(int partition) {
+        return gameEventsTopic + "-" + partition;
+    }
+
+    private PartitionState partition(int partition) {
+        return partitions.computeIfAbsent(partition, p -> new PartitionState());
+    }
 
     @Transactional
-    public void processMoveEvent(MoveEvent moveEvent) {
+    public void processMoveEvent(MoveEvent moveEvent, int partition) {
         try {
             String gameId = moveEvent.getGameId();
+            PartitionState state = partition(partition);
+            if (state.ended.containsKey(gameId)) {
+                logger.debug("Dropping move event {} for ended game {}", moveEvent.getEventId(), gameId);
+                return;
+            }
+            Map<String, GameAnalytics> activeGames = state.games;
             GameAnalytics analytics = activeGames.computeIfAbsent(gameId, k -> 
                 GameAnalytics.builder()
                     .gameId(gameId)
@@ -45,6 +176,10 @@ public class AnalyticsService {
                     .createdAt(LocalDateTime.now())
                     .build()
             );
+            if (!firstDelivery(analytics, moveEvent.getEventId())) {
+                logger.debug("Dropping redelivered move event {} for game {}", moveEvent.getEventId(), gameId);
+                return;
+            }
 
             analytics.setTotalMoves(analytics.getTotalMoves() + 1);
             
@@ -78,8 +213,21 @@ public class AnalyticsService {
     }
 
     @Transactional
-    public void processGameStartEvent(GameStartEvent event) {
+    public void processGameStartEvent(GameStartEvent event, int partition) {
         try {
+            Map<String, GameAnalytics> activeGames = partition(partition).games;
+            GameAnalytics existing = activeGames.get(event.getGameId());
+            if (existing != null) {
+                // Redelivered, or resent after the game's first moves: keep what they counted
+                if (firstDelivery(existing, event.getEventId())) {
+                    existing.setWhitePlayerId(event.getPlayerId());
+                    existing.setBlackPlayerId(event.getOpponentId());
+                    existing.setGameMode(event.getGameMode());
+                    existing.setDetectedOpening(event.getOpeningDetected());
+                    existing.setUpdatedAt(LocalDateTime.now());
+                }
+                return;
+            }
             GameAnalytics analytics = GameAnalytics.builder()
                 .gameId(event.getGameId())
                 .whitePlayerId(event.getPlayerId())
@@ -96,6 +244,7 @@ public class AnalyticsService {
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
+            firstDelivery(analytics, event.getEventId());
 
             activeGames.put(event.getGameId(), analytics);
 
@@ -106,73 +255,192 @@ public class AnalyticsService {
         }
     }
 
-    @Transactional
-    public void processGameEndEvent(GameEndEvent event) {
-        try {
-            GameAnalytics analytics = activeGames.remove(event.getGameId());
-            if (analytics != null) {
-                analytics.setGameEndTime(LocalDateTime.now());
-                analytics.setWinnerId(event.getWinnerId());
-                analytics.setEndReason(event.getEndReason());
-                analytics.setTotalMoves(event.getTotalMoves());
-                
-                if (analytics.getGameStartTime() != null) {
-                    long durationMs = java.time.Duration.between(
-                        analytics.getGameStartTime(), 
-                        analytics.getGameEndTime()
-                    ).toMillis();
-                    analytics.setGameDurationMs(durationMs);
-                }
+    /**
+     * Closes the game in the partition's state. Nothing is written here: the games ended in a
+     * poll are persisted together by {@link #persistEndedGames}.
+     */
+    public void endGame(GameEndEvent event, int partition) {
+        PartitionState state = partition(partition);
+        if (state.ended.containsKey(event.getGameId())) {
+            logger.debug("Dropping redelivered game end event for game: {}", event.getGameId());
+            return;
+        }
+        GameAnalytics analytics = state.games.remove(event.getGameId());
+        if (analytics == null) {
+            logger.warn("Game end event received for unknown game: {}", event.getGameId());
+            return;
+        }
+        analytics.setRecentEventIds(null);
+        analytics.setGameEndTime(LocalDateTime.now());
+        analytics.setWinnerId(event.getWinnerId());
+        analytics.setEndReason(event.getEndReason());
+        analytics.setTotalMoves(event.getTotalMoves());
+
+        if (analytics.getGameStartTime() != null) {
+            long durationMs = java.time.Duration.between(
+                analytics.getGameStartTime(),
+                analytics.getGameEndTime()
+            ).toMillis();
+            analytics.setGameDurationMs(durationMs);
+        }
+
+        analytics.setUpdatedAt(LocalDateTime.now());
+        state.ended.put(analytics.getGameId(), analytics);
+    }
 
-                analytics.setUpdatedAt(LocalDateTime.now());
-                
-                // Persist to database
-                gameAnalyticsRepository.save(analytics);
-                
-                // Update user analytics
-                updateUserAnalytics(analytics);
-
-                logger.info("Game ended and persisted: gameId={}, winner={}, moves={}, duration={}ms",
-                    event.getGameId(), event.getWinnerId(), event.getTotalMoves(), 
-                    analytics.getGameDurationMs());
+    /**
+     * @return false if the game has already applied the event
+     */
+    private static boolean firstDelivery(GameAnalytics game, String eventId) {
+        if (eventId == null) {
+            return true;
+        }
+        List<String> recent = game.getRecentEventIds();
+        if (recent == null) {
+            recent = new ArrayList<>();
+            game.setRecentEventIds(recent);
+        } else if (recent.contains(eventId)) {
+            return false;
+        }
+        if (recent.size() == RECENT_EVENTS_KEPT) {
+            recent.remove(0);
+        }
+        recent.add(eventId);
+        return true;
+    }
+
+    /**
+     * Writes the partitions' ended games and folds them into their players' analytics, with one
+     * bulk write per collection. Games already in {@code game_analytics} were replayed from a
+     * checkpoint taken before they were persisted, and are skipped; players are written first,
+     * so a game is only ever in there once its results are counted. Each player also keeps the
+     * ids of their last games counted, and the same update appends to them, so a retry after
+     * the players were written but the games were not counts nothing twice.
+     *
+     * @throws RuntimeException if a write fails; the games are kept for the next attempt
+     */
+    public void persistEndedGames(Collection<Integer> partitionIds) {
+        List<GameAnalytics> endedGames = new ArrayList<>();
+        for (Integer partitionId : partitionIds) {
+            PartitionState state = partitions.get(partitionId);
+            if (state != null) {
+                endedGames.addAll(state.ended.values());
+            }
+        }
+        if (endedGames.isEmpty()) {
+            return;
+        }
+        List<String> gameIds = endedGames.stream().map(GameAnalytics::getGameId).toList();
+        Query existing = Query.query(Criteria.where("_id").in(gameIds));
+        existing.fields().include("_id");
+        Set<String> persisted = mongoTemplate.find(existing, GameAnalytics.class).stream()
+            .map(GameAnalytics::getGameId)
+            .collect(Collectors.toSet());
+
+        List<GameAnalytics> freshGames = new ArrayList<>();
+        for (GameAnalytics game : endedGames) {
+            if (persisted.add(game.getGameId())) {
+                freshGames.add(game);
             } else {
-                logger.warn("Game end event received for unknown game: {}", event.getGameId());
+                logger.debug("Game end already persisted: {}", game.getGameId());
+            }
+        }
+        Map<String, Set<String>> counted = countedGames(freshGames);
+
+        BulkOperations games = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, GameAnalytics.class);
+        Map<String, PlayerResults> players = new LinkedHashMap<>();
+        int fresh = 0;
+        for (GameAnalytics game : freshGames) {
+            games.replaceOne(Query.query(Criteria.where("_id").is(game.getGameId())), game,
+                FindAndReplaceOptions.options().upsert());
+            addResult(players, counted, game.getWhitePlayerId(), game);
+            addResult(players, counted, game.getBlackPlayerId(), game);
+            fresh++;
+        }
+        if (fresh > 0) {
+            if (!players.isEmpty()) {
+                BulkOperations users = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserAnalytics.class);
+                LocalDateTime now = LocalDateTime.now();
+                players.forEach((playerId, results) ->
+                    users.upsert(Query.query(Criteria.where("_id").is(playerId)), results.toUpdate(now)));
+                users.execute();
             }
+            games.execute();
+            logger.info("Persisted {} ended games for {} players", fresh, players.size());
+        }
 
-        } catch (Exception e) {
-            logger.error("Error processing game end event: {}", e.getMessage(), e);
+        for (Integer partitionId : partitionIds) {
+            PartitionState state = partitions.get(partitionId);
+            if (state != null) {
+                gameIds.forEach(state.ended::remove);
+            }
         }
     }
 
-    @Transactional
-    public void processUserAction(UserActionEvent event) {
-        try {
-            UserAnalytics userAnalytics = userAnalyticsRepository.findByUserId(event.getUserId())
-                .orElse(UserAnalytics.builder()
-                    .userId(event.getUserId())
-                    .totalGamesPlayed(0)
-                    .gamesWon(0)
-                    .gamesLost(0)
-                    .gamesDrawn(0)
-                    .winRate(0.0)
-                    .totalMovesPlayed(0)
-                    .totalGameTimeMs(0L)
-                    .actionCounts(new ConcurrentHashMap<>())
-                    .createdAt(LocalDateTime.now())
-                    .build());
+    // The games' players, each with those of the games they already count
+    private Map<String, Set<String>> countedGames(List<GameAnalytics> games) {
+        Set<String> playerIds = new HashSet<>();
+        for (GameAnalytics game : games) {
+            if (game.getWhitePlayerId() != null) {
+                playerIds.add(game.getWhitePlayerId());
+            }
+            if (game.getBlackPlayerId() != null) {
+                playerIds.add(game.getBlackPlayerId());
+            }
+        }
+        Map<String, Set<String>> counted = new HashMap<>();
+        if (playerIds.isEmpty()) {
+            return counted;
+        }
+        Query query = Query.query(Criteria.where("_id").in(playerIds));
+        query.fields().include("_id").include("countedGameIds");
+        for (UserAnalytics user : mongoTemplate.find(query, UserAnalytics.class)) {
+            if (user.getCountedGameIds() != null) {
+                counted.put(user.getUserId(), new HashSet<>(user.getCountedGameIds()));
+            }
+        }
+        return counted;
+    }
 
-            // Update action counts
-            userAnalytics.getActionCounts().merge(event.getActionType(), 1, Integer::sum);
-            userAnalytics.setLastActivityTime(LocalDateTime.now());
-            userAnalytics.setUpdatedAt(LocalDateTime.now());
+    private static void addResult(Map<String, PlayerResults> players, Map<String, Set<String>> counted,
+                                  String playerId, GameAnalytics game) {
+        if (playerId == null || counted.getOrDefault(playerId, Set.of()).contains(game.getGameId())) {
+            return;
+        }
+        players.computeIfAbsent(playerId, id -> new PlayerResults()).add(playerId, game);
+    }
 
-            userAnalyticsRepository.save(userAnalytics);
+    /**
+     * Applies a poll's user actions as one bulk write: an {@code $inc} per user of each action
+     * count, upserting users seen for the first time.
+     */
+    public void processUserActions(List<UserActionEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+            for (UserActionEvent event : events) {
+                counts.computeIfAbsent(event.getUserId(), id -> new HashMap<>())
+                    .merge(event.getActionType(), 1, Integer::sum);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            BulkOperations users = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserAnalytics.class);
+            counts.forEach((userId, actions) -> {
+                Update update = new Update()
+                    .max("lastActivityTime", now)
+                    .set("updatedAt", now)
+                    .setOnInsert("createdAt", now);
+                actions.forEach((actionType, count) -> update.inc("actionCounts." + actionType, count));
+                users.upsert(Query.query(Criteria.where("_id").is(userId)), update);
+            });
+            users.execute();
 
-            logger.debug("User action processed: userId={}, action={}", 
-                event.getUserId(), event.getActionType());
+            logger.debug("Processed {} user actions for {} users", events.size(), counts.size());
 
         } catch (Exception e) {
-            logger.error("Error processing user action: {}", e.getMessage(), e);
+            logger.error("Error processing user actions: {}", e.getMessage(), e);
         }
     }
 
@@ -194,78 +462,111 @@ public class AnalyticsService {
         }
     }
 
-    private void updateUserAnalytics(GameAnalytics gameAnalytics) {
+    // Cleanup method for orphaned active games (call periodically)
+    @Transactional
+    public void cleanupOrphanedGames() {
         try {
-            // Update white player analytics
-            updatePlayerAnalytics(gameAnalytics.getWhitePlayerId(), gameAnalytics, 
-                gameAnalytics.getWinnerId() != null && gameAnalytics.getWinnerId().equals(gameAnalytics.getWhitePlayerId()));
-
-            // Update black player analytics
-            if (gameAnalytics.getBlackPlayerId() != null) {
-                updatePlayerAnalytics(gameAnalytics.getBlackPlayerId(), gameAnalytics,
-                    gameAnalytics.getWinnerId() != null && gameAnalytics.getWinnerId().equals(gameAnalytics.getBlackPlayerId()));
+            LocalDateTime cutoff = LocalDateTime.now().minusHours(24);
+            int remaining = 0;
+            for (PartitionState state : partitions.values()) {
+                state.games.entrySet().removeIf(entry ->
+                    entry.getValue().getCreatedAt().isBefore(cutoff));
+                remaining += state.games.size();
             }
 
+            logger.info("Cleaned up orphaned active games, remaining: {}", remaining);
         } catch (Exception e) {
-            logger.error("Error updating user analytics: {}", e.getMessage(), e);
+            logger.error("Error cleaning up orphaned games: {}", e.getMessage(), e);
         }
     }
 
-    private void updatePlayerAnalytics(String playerId, GameAnalytics gameAnalytics, boolean won) {
-        UserAnalytics userAnalytics = userAnalyticsRepository.findByUserId(playerId)
-            .orElse(UserAnalytics.builder()
-                .userId(playerId)
-                .totalGamesPlayed(0)
-                .gamesWon(0)
-                .gamesLost(0)
-                .gamesDrawn(0)
-                .winRate(0.0)
-                .totalMovesPlayed(0)
-                .totalGameTimeMs(0L)
-                .actionCounts(new ConcurrentHashMap<>())
-                .createdAt(LocalDateTime.now())
-                .build());
-
-        userAnalytics.setTotalGamesPlayed(userAnalytics.getTotalGamesPlayed() + 1);
-        
-        if (won) {
-            userAnalytics.setGamesWon(userAnalytics.getGamesWon() + 1);
-            userAnalytics.setCurrentWinStreak(userAnalytics.getCurrentWinStreak() + 1);
-            userAnalytics.setLongestWinStreak(Math.max(userAnalytics.getLongestWinStreak(), userAnalytics.getCurrentWinStreak()));
-        } else if (gameAnalytics.getWinnerId() != null) {
-            userAnalytics.setGamesLost(userAnalytics.getGamesLost() + 1);
-            userAnalytics.setCurrentWinStreak(0);
-        } else {
-            userAnalytics.setGamesDrawn(userAnalytics.getGamesDrawn() + 1);
-            userAnalytics.setCurrentWinStreak(0);
+    private static final class PartitionState {
+        final Map<String, GameAnalytics> games = new ConcurrentHashMap<>();
+        // Ended games waiting for persistEndedGames to succeed
+        final Map<String, GameAnalytics> ended = new ConcurrentHashMap<>();
+        volatile long nextOffset = -1;
+        // Highest offset applied to the state, which may run ahead of nextOffset while a poll is retried
+        volatile long appliedOffset = -1;
+        volatile long lastCheckpointMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * One player's results over a batch of games, in the order the games ended, and the update
+     * that applies them on top of the stored analytics.
+     */
+    private static final class PlayerResults {
+        int games;
+        int won;
+        int lost;
+        int drawn;
+        int moves;
+        long gameTimeMs;
+        String gameMode;
+        // Wins before the first loss or draw, which extend the stored streak
+        int leadingWins;
+        // Wins since the last loss or draw, which become the current streak
+        int trailingWins;
+        int longestRun;
+        boolean onlyWins = true;
+        final List<String> gameIds = new ArrayList<>();
+
+        void add(String playerId, GameAnalytics game) {
+            games++;
+            gameIds.add(game.getGameId());
+            moves += game.getTotalMoves();
+            gameTimeMs += game.getGameDurationMs();
+            gameMode = game.getGameMode();
+            if (playerId.equals(game.getWinnerId())) {
+                won++;
+                trailingWins++;
+                longestRun = Math.max(longestRun, trailingWins);
+                if (onlyWins) {
+                    leadingWins++;
+                }
+                return;
+            }
+            if (game.getWinnerId() != null) {
+                lost++;
+            } else {
+                drawn++;
+            }
+            onlyWins = false;
+            trailingWins = 0;
         }
 
-        // Calculate win rate
-        if (userAnalytics.getTotalGamesPlayed() > 0) {
-            userAnalytics.setWinRate((double) userAnalytics.getGamesWon() / userAnalytics.getTotalGamesPlayed());
+        AggregationUpdate toUpdate(LocalDateTime now) {
+            Document fields = new Document()
+                .append("totalGamesPlayed", plus("totalGamesPlayed", games))
+                .append("gamesWon", plus("gamesWon", won))
+                .append("gamesLost", plus("gamesLost", lost))
+                .append("gamesDrawn", plus("gamesDrawn", drawn))
+                .append("totalMovesPlayed", plus("totalMovesPlayed", moves))
+                .append("totalGameTimeMs", plus("totalGameTimeMs", gameTimeMs))
+                .append("currentWinStreak", onlyWins ? plus("currentWinStreak", trailingWins) : trailingWins)
+                .append("longestWinStreak", new Document("$max", List.of(
+                    stored("longestWinStreak"), plus("currentWinStreak", leadingWins), longestRun)))
+                .append("mostPlayedGameMode", gameMode)
+                .append("countedGameIds", new Document("$slice", List.of(
+                    new Document("$concatArrays", List.of(new Document("$ifNull", List.of("$countedGameIds", List.of())), gameIds)),
+                    -COUNTED_GAMES_KEPT)))
+                .append("lastActivityTime", new Document("$max", List.of("$lastActivityTime", now)))
+                .append("createdAt", new Document("$ifNull", List.of("$createdAt", now)))
+                .append("updatedAt", now);
+            // Stages run in order, so the second one sees the new totals
+            Document winRate = new Document("winRate", new Document("$divide", List.of("$gamesWon", "$totalGamesPlayed")));
+            return AggregationUpdate.from(List.of(stage(fields), stage(winRate)));
         }
 
-        // Update other metrics
-        userAnalytics.setTotalMovesPlayed(userAnalytics.getTotalMovesPlayed() + gameAnalytics.getTotalMoves());
-        userAnalytics.setTotalGameTimeMs(userAnalytics.getTotalGameTimeMs() + gameAnalytics.getGameDurationMs());
-        userAnalytics.setMostPlayedGameMode(gameAnalytics.getGameMode());
-        userAnalytics.setLastActivityTime(LocalDateTime.now());
-        userAnalytics.setUpdatedAt(LocalDateTime.now());
+        private static Document stored(String field) {
+            return new Document("$ifNull", List.of("$" + field, 0));
+        }
 
-        userAnalyticsRepository.save(userAnalytics);
-    }
+        private static Document plus(String field, long amount) {
+            return new Document("$add", List.of(stored(field), amount));
+        }
 
-    // Cleanup method for orphaned active games (call periodically)
-    @Transactional
-    public void cleanupOrphanedGames() {
-        try {
-            LocalDateTime cutoff = LocalDateTime.now().minusHours(24);
-            activeGames.entrySet().removeIf(entry -> 
-                entry.getValue().getCreatedAt().isBefore(cutoff));
-            
-            logger.info("Cleaned up orphaned active games, remaining: {}", activeGames.size());
-        } catch (Exception e) {
-            logger.error("Error cleaning up orphaned games: {}", e.getMessage(), e);
+        private static AggregationOperation stage(Document fields) {
+            return context -> new Document("$set", fields);
         }
     }
 }
@@ -0,0 +1,93 @@
+package org.example.chessmystic.Service.implementation;
+
+import org.example.chessmystic.Models.ChatMessage;
+import org.example.chessmystic.Service.implementation.GameRelated.TimeoutService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The one path saved chat messages take to users' {@code /queue/chat.<userId>} destinations.
+ * Messages for a user are held for {@code chess.chat.batch-window-ms} after the first one
+ * arrives, so a burst goes out as a single {@link ChatBatch} frame; a lone message is sent as
+ * the message itself. Within a batch each message id is delivered once.
+ */
+@Service
+public class ChatDeliveryService {
+
+    private static final String CHAT_FLUSH = "chat-flush";
+
+    public record ChatBatch(String type, List<ChatMessage> messages) {
+        ChatBatch(List<ChatMessage> messages) {
+            this("CHAT_BATCH", messages);
+        }
+    }
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TimeoutService timeoutService;
+    // Recipient -> messages waiting for the recipient's flush, by message id
+    private final Map<String, Map<String, ChatMessage>> pending = new ConcurrentHashMap<>();
+
+    @Value("${chess.chat.batch-window-ms:25}")
+    private long batchWindowMs;
+
+    @Autowired
+    public ChatDeliveryService(SimpMessagingTemplate messagingTemplate, TimeoutService timeoutService) {
+        this.messagingTemplate = messagingTemplate;
+        this.timeoutService = timeoutService;
+    }
+
+    /**
+     * Delivers a new message to its receiver, and to its sender as confirmation.
+     */
+    public void deliver(ChatMessage message) {
+        deliverTo(message.getSenderId(), message);
+        if (!message.getReceiverId().equals(message.getSenderId())) {
+            deliverTo(message.getReceiverId(), message);
+        }
+    }
+
+    public void deliverTo(String userId, ChatMessage message) {
+        if (batchWindowMs <= 0) {
+            messagingTemplate.convertAndSend(destination(userId), message);
+            return;
+        }
+        boolean[] opened = new boolean[1];
+        pending.compute(userId, (id, batch) -> {
+            if (batch == null) {
+                batch = new LinkedHashMap<>();
+                opened[0] = true;
+            }
+            batch.put(message.getId(), message);
+            return batch;
+        });
+        // Later messages join the open batch rather than pushing its flush back
+        if (opened[0]) {
+            timeoutService.schedule(CHAT_FLUSH, userId, Duration.ofMillis(batchWindowMs), () -> flush(userId));
+        }
+    }
+
+    private void flush(String userId) {
+        Map<String, ChatMessage> batch = pending.remove(userId);
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+        if (batch.size() == 1) {
+            messagingTemplate.convertAndSend(destination(userId), batch.values().iterator().next());
+        } else {
+            messagingTemplate.convertAndSend(destination(userId), new ChatBatch(new ArrayList<>(batch.values())));
+        }
+    }
+
+    private static String destination(String userId) {
+        return "/queue/chat." + userId;
+    }
+}
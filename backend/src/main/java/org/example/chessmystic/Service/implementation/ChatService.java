@@ -1,58 +1,245 @@
 package org.example.chessmystic.Service.implementation;
 
+import org.bson.Document;
+import org.example.chessmystic.Models.ChatConversation;
 import org.example.chessmystic.Models.ChatMessage;
 import org.example.chessmystic.Repository.ChatMessageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.*;
 
+/**
+ * Direct messages between users. Messages carry a conversation id shared by both directions of
+ * a chat, so history is read a page at a time, newest first, from one index. Each conversation
+ * keeps per-user unread counts in {@code chat_conversations}, updated as messages are sent and
+ * read, so opening a chat marks it read with a single update.
+ */
 @Service
 public class ChatService {
-    
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
+
+    /**
+     * One page of a conversation in chronological order. {@code nextCursor} is the id of the
+     * page's oldest message, to pass as {@code before} for the page preceding it.
+     */
+    public record HistoryPage(List<ChatMessage> messages, boolean hasMore, String nextCursor) {
+    }
+
     @Autowired
     private ChatMessageRepository chatMessageRepository;
-    
-    public ChatMessage saveMessage(String senderId, String senderName, String receiverId, String message) {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${chess.chat.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${chess.chat.max-page-size:200}")
+    private int maxPageSize;
+
+    /**
+     * A sent message as stored. {@code duplicate} is set when the sender already sent a message
+     * with the same client id, which is then the message returned and nothing new was stored.
+     */
+    public record SavedMessage(ChatMessage message, boolean duplicate) {
+    }
+
+    public SavedMessage saveMessage(String senderId, String senderName, String receiverId, String message,
+                                    String clientMessageId) {
         ChatMessage chatMessage = new ChatMessage(senderId, senderName, receiverId, message);
-        return chatMessageRepository.save(chatMessage);
+        chatMessage.setClientMessageId(clientMessageId);
+        try {
+            chatMessage = chatMessageRepository.save(chatMessage);
+        } catch (DuplicateKeyException e) {
+            ChatMessage original = mongoTemplate.findOne(Query.query(Criteria.where("senderId").is(senderId)
+                .and("clientMessageId").is(clientMessageId)), ChatMessage.class);
+            if (original == null) {
+                throw e;
+            }
+            return new SavedMessage(original, true);
+        }
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(chatMessage.getConversationId())),
+            new Update()
+                .inc("unread." + receiverId, 1)
+                .max("lastMessageAt", chatMessage.getTimestamp())
+                .setOnInsert("participantIds", List.of(senderId, receiverId)),
+            ChatConversation.class);
+        return new SavedMessage(chatMessage, false);
     }
-    
+
     public void markMessageAsRead(String messageId, String userId) {
-        Optional<ChatMessage> messageOpt = chatMessageRepository.findById(messageId);
-        if (messageOpt.isPresent()) {
-            ChatMessage message = messageOpt.get();
-            // Only mark as read if the receiver is marking it
-            if (message.getReceiverId().equals(userId)) {
-                message.setRead(true);
-                chatMessageRepository.save(message);
-            }
+        // Only the receiver can mark it, and only an unread message counts against the conversation
+        Query unread = Query.query(Criteria.where("_id").is(messageId)
+            .and("receiverId").is(userId)
+            .and("isRead").is(false));
+        unread.fields().include("conversationId");
+        ChatMessage message = mongoTemplate.findAndModify(unread, new Update().set("isRead", true), ChatMessage.class);
+        if (message != null && message.getConversationId() != null) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(message.getConversationId())
+                    .and("unread." + userId).gt(0)),
+                new Update().inc("unread." + userId, -1),
+                ChatConversation.class);
         }
     }
-    
+
     public ChatMessage getMessageById(String messageId) {
         return chatMessageRepository.findById(messageId).orElse(null);
     }
-    
-    public List<ChatMessage> getChatHistory(String userId1, String userId2) {
-        // Get messages between these two users (in both directions)
-        List<ChatMessage> messages = chatMessageRepository.findBySenderIdAndReceiverIdOrReceiverIdAndSenderIdOrderByTimestampAsc(
-            userId1, userId2, userId1, userId2
-        );
-        
-        // Mark messages as read for the requesting user
-        messages.stream()
-            .filter(msg -> msg.getReceiverId().equals(userId1) && !msg.isRead())
-            .forEach(msg -> {
-                msg.setRead(true);
-                chatMessageRepository.save(msg);
-            });
-        
-        return messages;
-    }
-    
+
+    /**
+     * Reads the conversation of {@code userId} with {@code friendId}: the latest page when
+     * {@code before} is null, which also marks the conversation read for {@code userId},
+     * otherwise the page of messages older than the message {@code before}.
+     */
+    public HistoryPage getChatHistory(String userId, String friendId, String before, Integer limit) {
+        String conversationId = ChatMessage.conversationId(userId, friendId);
+        int size = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+
+        Criteria criteria = Criteria.where("conversationId").is(conversationId);
+        if (before != null) {
+            ChatMessage cursor = chatMessageRepository.findById(before).orElse(null);
+            if (cursor == null || !conversationId.equals(cursor.getConversationId())) {
+                return new HistoryPage(List.of(), false, null);
+            }
+            criteria = criteria.orOperator(
+                Criteria.where("timestamp").lt(cursor.getTimestamp()),
+                Criteria.where("timestamp").is(cursor.getTimestamp()).and("_id").lt(cursor.getId()));
+        }
+
+        List<ChatMessage> newestFirst = mongoTemplate.find(Query.query(criteria)
+            .with(Sort.by(Sort.Direction.DESC, "timestamp", "_id"))
+            .limit(size + 1), ChatMessage.class);
+        boolean hasMore = newestFirst.size() > size;
+        List<ChatMessage> messages = new ArrayList<>(newestFirst.subList(0, Math.min(size, newestFirst.size())));
+        Collections.reverse(messages);
+
+        if (before == null) {
+            markConversationRead(conversationId, userId);
+            messages.stream()
+                .filter(msg -> msg.getReceiverId().equals(userId))
+                .forEach(msg -> msg.setRead(true));
+        }
+        return new HistoryPage(messages, hasMore, hasMore ? messages.get(0).getId() : null);
+    }
+
+    public void markConversationRead(String conversationId, String userId) {
+        mongoTemplate.updateMulti(Query.query(Criteria.where("receiverId").is(userId)
+                .and("isRead").is(false)
+                .and("conversationId").is(conversationId)),
+            new Update().set("isRead", true),
+            ChatMessage.class);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(conversationId)),
+            new Update().set("unread." + userId, 0),
+            ChatConversation.class);
+    }
+
+    /**
+     * @return unread message counts by friend id, for the conversations that have any
+     */
+    public Map<String, Integer> getUnreadCounts(String userId) {
+        Query query = Query.query(Criteria.where("participantIds").is(userId)
+            .and("unread." + userId).gt(0));
+        query.fields().include("participantIds").include("unread." + userId);
+        Map<String, Integer> counts = new HashMap<>();
+        for (ChatConversation conversation : mongoTemplate.find(query, ChatConversation.class)) {
+            conversation.getParticipantIds().stream()
+                .filter(id -> !id.equals(userId))
+                .findFirst()
+                .ifPresent(friendId -> counts.put(friendId, conversation.getUnread().get(userId)));
+        }
+        return counts;
+    }
+
     public List<ChatMessage> getUnreadMessages(String userId) {
         return chatMessageRepository.findByReceiverIdAndIsReadFalseOrderByTimestampDesc(userId);
     }
+
+    /**
+     * Gives messages stored before conversations existed their conversation id, then rebuilds
+     * the conversation summaries from the messages. A no-op once every message has an id.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillConversations() {
+        try {
+            AggregationUpdate withConversationId = AggregationUpdate.from(List.of(stage("$set",
+                new Document("conversationId", new Document("$cond", List.of(
+                    new Document("$lte", List.of("$senderId", "$receiverId")),
+                    new Document("$concat", List.of("$senderId", ":", "$receiverId")),
+                    new Document("$concat", List.of("$receiverId", ":", "$senderId"))))))));
+            long backfilled = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("conversationId").exists(false)),
+                withConversationId, ChatMessage.class).getModifiedCount();
+            if (backfilled == 0) {
+                return;
+            }
+
+            // Per conversation and receiver: the sender, the unread count and the latest message
+            Aggregation summaries = Aggregation.newAggregation(
+                stage("$group", new Document("_id", new Document("conversationId", "$conversationId").append("receiverId", "$receiverId"))
+                    .append("senderId", new Document("$first", "$senderId"))
+                    .append("unread", new Document("$sum", new Document("$cond", List.of("$isRead", 0, 1))))
+                    .append("lastMessageAt", new Document("$max", "$timestamp"))),
+                stage("$group", new Document("_id", "$_id.conversationId")
+                    .append("receivers", new Document("$push", new Document("receiverId", "$_id.receiverId")
+                        .append("senderId", "$senderId")
+                        .append("unread", "$unread")
+                        .append("lastMessageAt", "$lastMessageAt")))));
+
+            BulkOperations conversations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatConversation.class);
+            int rebuilt = 0;
+            for (Document summary : mongoTemplate.aggregate(summaries, ChatMessage.class, Document.class)) {
+                Set<String> participants = new TreeSet<>();
+                Map<String, Integer> unread = new HashMap<>();
+                LocalDateTime lastMessageAt = null;
+                for (Document receiver : summary.getList("receivers", Document.class)) {
+                    participants.add(receiver.getString("receiverId"));
+                    participants.add(receiver.getString("senderId"));
+                    unread.put(receiver.getString("receiverId"), receiver.getInteger("unread"));
+                    LocalDateTime last = mongoTemplate.getConverter().getConversionService()
+                        .convert(receiver.get("lastMessageAt"), LocalDateTime.class);
+                    if (lastMessageAt == null || (last != null && last.isAfter(lastMessageAt))) {
+                        lastMessageAt = last;
+                    }
+                }
+                conversations.replaceOne(Query.query(Criteria.where("_id").is(summary.getString("_id"))),
+                    ChatConversation.builder()
+                        .id(summary.getString("_id"))
+                        .participantIds(new ArrayList<>(participants))
+                        .unread(unread)
+                        .lastMessageAt(lastMessageAt)
+                        .build(),
+                    FindAndReplaceOptions.options().upsert());
+                rebuilt++;
+            }
+            if (rebuilt > 0) {
+                conversations.execute();
+            }
+            logger.info("Backfilled {} chat messages and rebuilt {} conversations", backfilled, rebuilt);
+        } catch (Exception e) {
+            logger.error("Failed to backfill chat conversations: {}", e.getMessage(), e);
+        }
+    }
+
+    private static AggregationOperation stage(String operator, Document body) {
+        return context -> new Document(operator, body);
+    }
 }
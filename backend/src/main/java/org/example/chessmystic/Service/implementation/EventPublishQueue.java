@@ -0,0 +1,183 @@
+package org.example.chessmystic.Service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded hand-off between request threads and Kafka. Events are put into a fixed-size ring
+ * buffer and a single sender thread drains it in batches, serializes them and passes them to
+ * the producer, so a slow or unreachable broker never holds up a move.
+ *
+ * When the buffer is full, {@link Overflow#DROP} events are discarded straight away and
+ * {@link Overflow#BLOCK} events wait up to {@code chess.events.block-timeout-ms} for room.
+ *
+ * Metrics: {@code chess.events.queue.size} (gauge), {@code chess.events.lag} (enqueue to broker
+ * ack) and the {@code chess.events.published}, {@code .dropped} and {@code .failed} counters,
+ * tagged by event type.
+ */
+@Service
+public class EventPublishQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventPublishQueue.class);
+
+    public enum Overflow {
+        DROP,
+        BLOCK
+    }
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<Envelope> buffer;
+    private final Timer lag;
+    // Registered on first use of each event type, so the hot path is a map lookup
+    private final Map<String, Counter> publishedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> droppedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> failedCounters = new ConcurrentHashMap<>();
+    private final Thread sender;
+    private volatile boolean running = true;
+
+    @Value("${chess.events.batch-size:256}")
+    private int batchSize;
+
+    @Value("${chess.events.block-timeout-ms:2000}")
+    private long blockTimeoutMs;
+
+    @Autowired
+    public EventPublishQueue(KafkaTemplate<String, String> kafkaTemplate,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${chess.events.buffer-capacity:8192}") int capacity) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.lag = Timer.builder("chess.events.lag")
+                .description("Time from enqueue to broker acknowledgement")
+                .register(meterRegistry);
+        Gauge.builder("chess.events.queue.size", buffer, BlockingQueue::size)
+                .description("Events waiting for the sender thread")
+                .register(meterRegistry);
+        this.sender = new Thread(this::run, "kafka-events");
+        this.sender.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        sender.start();
+    }
+
+    /**
+     * @return false if the event was dropped because the buffer stayed full
+     */
+    public boolean publish(String topic, String key, String type, Object event, Overflow overflow) {
+        Envelope envelope = new Envelope(topic, key, type, event, System.nanoTime());
+        boolean accepted = buffer.offer(envelope);
+        if (!accepted && overflow == Overflow.BLOCK) {
+            try {
+                accepted = buffer.offer(envelope, blockTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!accepted) {
+            counter(droppedCounters, "chess.events.dropped", type).increment();
+            if (overflow == Overflow.BLOCK) {
+                logger.error("Event buffer full, dropped {} event for {}", type, key);
+            }
+        }
+        return accepted;
+    }
+
+    public int getQueuedCount() {
+        return buffer.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        sender.interrupt();
+        try {
+            sender.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Envelope> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Envelope first = buffer.take();
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                send(batch);
+            } catch (InterruptedException e) {
+                // Shutdown; fall through to the final drain
+            } catch (RuntimeException e) {
+                logger.error("Event sender failed on a batch of {}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+        buffer.drainTo(batch);
+        send(batch);
+        kafkaTemplate.flush();
+    }
+
+    private void send(List<Envelope> batch) {
+        for (Envelope envelope : batch) {
+            String value;
+            try {
+                value = objectMapper.writeValueAsString(envelope.event());
+            } catch (JsonProcessingException e) {
+                logger.error("Could not serialize {} event for {}", envelope.type(), envelope.key(), e);
+                counter(failedCounters, "chess.events.failed", envelope.type()).increment();
+                continue;
+            }
+            try {
+                kafkaTemplate.send(envelope.topic(), envelope.key(), value)
+                        .whenComplete((result, error) -> acknowledged(envelope, error));
+            } catch (RuntimeException e) {
+                acknowledged(envelope, e);
+            }
+        }
+    }
+
+    private void acknowledged(Envelope envelope, Throwable error) {
+        if (error != null) {
+            logger.error("Failed to publish {} event for {}", envelope.type(), envelope.key(), error);
+            counter(failedCounters, "chess.events.failed", envelope.type()).increment();
+            return;
+        }
+        lag.record(System.nanoTime() - envelope.enqueuedAt(), TimeUnit.NANOSECONDS);
+        counter(publishedCounters, "chess.events.published", envelope.type()).increment();
+    }
+
+    private Counter counter(Map<String, Counter> counters, String name, String type) {
+        return counters.computeIfAbsent(type, t -> Counter.builder(name).tag("type", t).register(meterRegistry));
+    }
+
+    private record Envelope(String topic, String key, String type, Object event, long enqueuedAt) {
+    }
+}
@@ -0,0 +1,187 @@
+package org.example.chessmystic.Service.implementation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.chessmystic.Models.KafkaEvents.GameEndEvent;
+import org.example.chessmystic.Models.KafkaEvents.GameEvent;
+import org.example.chessmystic.Models.KafkaEvents.GameStartEvent;
+import org.example.chessmystic.Models.KafkaEvents.MoveEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Wire format of game events on the game-events topic. Events are written either as JSON or
+ * in a compact binary form; readers accept both in a single pass and tell them apart by the
+ * first byte, which is never {@link #MAGIC} for JSON.
+ *
+ * Binary layout: {@link #MAGIC}, a type byte, a per-type schema version byte, then the fields
+ * in declaration order. A new version may only append fields: readers skip the trailing
+ * fields of versions newer than theirs, and read a field only if the event's version has it.
+ */
+@Component
+public class GameEventCodec {
+
+    static final byte MAGIC = (byte) 0xCE;
+
+    private static final byte MOVE = 1;
+    private static final byte GAME_START = 2;
+    private static final byte GAME_END = 3;
+
+    private static final byte MOVE_VERSION = 1;
+    private static final byte GAME_START_VERSION = 1;
+    private static final byte GAME_END_VERSION = 1;
+
+    private static final int CAPTURE = 1;
+    private static final int CHECK = 2;
+    private static final int CHECKMATE = 4;
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public GameEventCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] toJson(GameEvent event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public byte[] toBinary(GameEvent event) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC);
+            switch (event) {
+                case MoveEvent move -> {
+                    writeHeader(out, MOVE, MOVE_VERSION, move);
+                    out.writeShort(move.getFromRow());
+                    out.writeShort(move.getFromCol());
+                    out.writeShort(move.getToRow());
+                    out.writeShort(move.getToCol());
+                    writeString(out, move.getPieceType());
+                    writeString(out, move.getPieceColor());
+                    out.writeByte((move.isCapture() ? CAPTURE : 0)
+                            | (move.isCheck() ? CHECK : 0)
+                            | (move.isCheckmate() ? CHECKMATE : 0));
+                    out.writeLong(move.getMoveTimeMs());
+                }
+                case GameStartEvent start -> {
+                    writeHeader(out, GAME_START, GAME_START_VERSION, start);
+                    writeString(out, start.getOpponentId());
+                    writeString(out, start.getGameMode());
+                    out.writeInt(start.getTimeControlMinutes());
+                    writeString(out, start.getOpeningDetected());
+                }
+                case GameEndEvent end -> {
+                    writeHeader(out, GAME_END, GAME_END_VERSION, end);
+                    writeString(out, end.getEndReason());
+                    writeString(out, end.getWinnerId());
+                    out.writeInt(end.getTotalMoves());
+                    out.writeLong(end.getGameDurationMs());
+                    writeString(out, end.getFinalPosition());
+                }
+                default -> throw new IllegalArgumentException("No binary schema for " + event.getClass().getSimpleName());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads an event in either format.
+     */
+    public GameEvent decode(byte[] message) throws IOException {
+        if (message.length == 0 || message[0] != MAGIC) {
+            return objectMapper.readValue(message, GameEvent.class);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(message, 1, message.length - 1));
+        byte type = in.readByte();
+        byte version = in.readByte();
+        return switch (type) {
+            case MOVE -> {
+                requireVersion(type, version);
+                MoveEvent move = MoveEvent.builder().eventType("MOVE").build();
+                move.setEventId(readString(in));
+                move.setGameId(readString(in));
+                move.setPlayerId(readString(in));
+                move.setTimestamp(in.readLong());
+                move.setFromRow(in.readShort());
+                move.setFromCol(in.readShort());
+                move.setToRow(in.readShort());
+                move.setToCol(in.readShort());
+                move.setPieceType(readString(in));
+                move.setPieceColor(readString(in));
+                int flags = in.readByte();
+                move.setCapture((flags & CAPTURE) != 0);
+                move.setCheck((flags & CHECK) != 0);
+                move.setCheckmate((flags & CHECKMATE) != 0);
+                move.setMoveTimeMs(in.readLong());
+                yield move;
+            }
+            case GAME_START -> {
+                requireVersion(type, version);
+                GameStartEvent start = GameStartEvent.builder().eventType("GAME_START").build();
+                start.setEventId(readString(in));
+                start.setGameId(readString(in));
+                start.setPlayerId(readString(in));
+                start.setTimestamp(in.readLong());
+                start.setOpponentId(readString(in));
+                start.setGameMode(readString(in));
+                start.setTimeControlMinutes(in.readInt());
+                start.setOpeningDetected(readString(in));
+                yield start;
+            }
+            case GAME_END -> {
+                requireVersion(type, version);
+                GameEndEvent end = GameEndEvent.builder().eventType("GAME_END").build();
+                end.setEventId(readString(in));
+                end.setGameId(readString(in));
+                end.setPlayerId(readString(in));
+                end.setTimestamp(in.readLong());
+                end.setEndReason(readString(in));
+                end.setWinnerId(readString(in));
+                end.setTotalMoves(in.readInt());
+                end.setGameDurationMs(in.readLong());
+                end.setFinalPosition(readString(in));
+                yield end;
+            }
+            default -> throw new IllegalArgumentException("Unknown binary game event type " + type);
+        };
+    }
+
+    private static void writeHeader(DataOutputStream out, byte type, byte version, GameEvent event) throws IOException {
+        out.writeByte(type);
+        out.writeByte(version);
+        writeString(out, event.getEventId());
+        writeString(out, event.getGameId());
+        writeString(out, event.getPlayerId());
+        out.writeLong(event.getTimestamp());
+    }
+
+    private static void requireVersion(byte type, byte version) {
+        if (version < 1) {
+            throw new IllegalArgumentException("Unsupported schema version " + version + " for game event type " + type);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.chessmystic.Service.implementation.GameRelated;
+
+import org.bson.Document;
+import org.example.chessmystic.Models.Interactions.PlayerAction;
+import org.example.chessmystic.Repository.PlayerActionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-game action sequence numbers. Each game has a counter document that is advanced with
+ * an atomic {@code $inc} a block at a time; numbers within a block are handed out from
+ * memory. Sequence numbers are strictly increasing per game but may skip the unused rest of
+ * a block after a restart, so only their order is meaningful.
+ */
+@Service
+public class ActionSequenceAllocator {
+
+    static final String COLLECTION = "action_sequences";
+
+    private final MongoTemplate mongoTemplate;
+    private final PlayerActionRepository playerActionRepository;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    @Value("${chess.actions.sequence-block-size:32}")
+    private int blockSize;
+
+    @Autowired
+    public ActionSequenceAllocator(MongoTemplate mongoTemplate, PlayerActionRepository playerActionRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.playerActionRepository = playerActionRepository;
+    }
+
+    public int next(String gameSessionId) {
+        Block block = blocks.computeIfAbsent(gameSessionId, id -> new Block());
+        synchronized (block) {
+            if (block.next > block.last) {
+                reserve(gameSessionId, block);
+            }
+            return block.next++;
+        }
+    }
+
+    /**
+     * Drops the in-memory block of a finished game. Safe at any time: the next allocation
+     * just reserves a fresh block.
+     */
+    public void release(String gameSessionId) {
+        blocks.remove(gameSessionId);
+    }
+
+    private void reserve(String gameSessionId, Block block) {
+        int last = increment(gameSessionId, blockSize);
+        if (last == blockSize) {
+            // First block for this game: it may have actions recorded before counters existed
+            int recorded = playerActionRepository.findFirstByGameSessionIdOrderBySequenceNumberDesc(gameSessionId)
+                    .map(PlayerAction::getSequenceNumber)
+                    .orElse(0);
+            if (recorded > 0) {
+                last = increment(gameSessionId, recorded);
+            }
+        }
+        block.next = last - blockSize + 1;
+        block.last = last;
+    }
+
+    private int increment(String gameSessionId, int by) {
+        Document counter = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(gameSessionId)),
+                new Update().inc("seq", by),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                Document.class, COLLECTION);
+        return ((Number) counter.get("seq")).intValue();
+    }
+
+    private static final class Block {
+        int next = 1;
+        int last = 0;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.chessmystic.Service.implementation.GameRelated;
+
+import org.example.chessmystic.Models.GameStateandFlow.GameState;
+import org.example.chessmystic.Models.chess.Piece;
+import org.example.chessmystic.Models.chess.PieceColor;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.LegalMoveList;
+
+/**
+ * Legal moves of a live game's current position, tagged with what they were computed
+ * from so a move (or a replaced board) invalidates them.
+ */
+record CachedLegalMoves(Piece[][] board, int moveCount, long zobristKey, PieceColor turn, LegalMoveList moves) {
+
+    static CachedLegalMoves of(Piece[][] board, GameState gameState, LegalMoveList moves) {
+        return new CachedLegalMoves(board, gameState.getMoveCount(), gameState.getZobristKey(),
+                gameState.getCurrentTurn(), moves);
+    }
+
+    boolean matches(Piece[][] currentBoard, GameState gameState) {
+        return board == currentBoard
+                && moveCount == gameState.getMoveCount()
+                && zobristKey == gameState.getZobristKey()
+                && turn == gameState.getCurrentTurn();
+    }
+}
@@ -1,6 +1,6 @@
 package org.example.chessmystic.Service.implementation.GameRelated;
 
-import org.example.chessmystic.Models.Interactions.PlayerAction;
+import org.example.chessmystic.Models.Tracking.GameSession;
 import org.example.chessmystic.Models.chess.BoardPosition;
 import org.example.chessmystic.Models.GameStateandFlow.GameState;
 import org.example.chessmystic.Models.chess.Piece;
@@ -10,6 +10,11 @@ import org.example.chessmystic.Models.chess.PieceType;
 import org.example.chessmystic.Models.GameStateandFlow.GameMode;
 import org.example.chessmystic.Models.UIUX.TieResolutionOption;
 import org.example.chessmystic.Repository.*;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.BitboardPosition;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.Bitboards;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.LegalMoveList;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.Move;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.MoveGenerator;
 import org.example.chessmystic.Service.interfaces.GameRelated.IChessGameService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -24,24 +30,21 @@ import java.util.Random;
 public class ChessGameService implements IChessGameService {
     private static final Logger logger = LoggerFactory.getLogger(ChessGameService.class);
 
+    // Fifty moves by each side without a capture or pawn move
+    static final int FIFTY_MOVE_PLIES = 100;
 
-    private final GameSessionRepository gameSessionRepository;
-    private final PlayerActionRepository playeractionRepository;
+    private final LiveGameRegistry liveGameRegistry;
     private final TieResolutionOptionService tieResolutionOptionService;
-    private final GameHistoryRepository gameHistoryRepository;
 
 
 
     @Autowired
-    public ChessGameService(GameSessionRepository gameSessionRepository,
+    public ChessGameService(LiveGameRegistry liveGameRegistry,
                             GameStateRepository gameStateRepository,
-                            RPGGameStateRepository rpgGameStateRepository, PlayerActionRepository playeractionRepository,
-                            TieResolutionOptionService tieResolutionOptionService, GameHistoryRepository gameHistoryRepository) {
-        // Remove playerActionService
-        this.gameSessionRepository = gameSessionRepository;
-        this.playeractionRepository = playeractionRepository;
+                            RPGGameStateRepository rpgGameStateRepository,
+                            TieResolutionOptionService tieResolutionOptionService) {
+        this.liveGameRegistry = liveGameRegistry;
         this.tieResolutionOptionService = tieResolutionOptionService;
-        this.gameHistoryRepository = gameHistoryRepository;
     }
 
 
@@ -52,7 +55,11 @@ public class ChessGameService implements IChessGameService {
     @Override
     @Transactional
     public boolean validateMove(String gameId, BoardPosition move) {
-        var session = gameSessionRepository.findById(gameId)
+        return liveGameRegistry.withLock(gameId, () -> isLegal(gameId, move));
+    }
+
+    private boolean isLegal(String gameId, BoardPosition move) {
+        var session = liveGameRegistry.findById(gameId)
                 .orElseThrow(() -> new IllegalArgumentException("Game session not found"));
 
         GameState gameState = session.getGameState();
@@ -76,139 +83,177 @@ public class ChessGameService implements IChessGameService {
             return false;
         }
 
-        // Handle castling first
-        if (movingPiece.getType() == PieceType.KING && Math.abs(toCol - fromCol) == 2) {
-            if (!validateSpecialMoves(gameState, movingPiece, fromRow, fromCol, toRow, toCol, board)) {
-                logger.info("Castling invalid: special move conditions not met");
-                return false;
-            }
-            Piece[][] tempBoard = simulateMove(board, fromRow, fromCol, toRow, toCol);
-            if (isKingInCheck(tempBoard, movingPiece.getColor())) {
-                logger.info("Castling invalid: king would be in check");
-                return false;
-            }
-            return true;
-        }
-
-        // Regular move validation
-        if (!isValidPieceMove(movingPiece, fromRow, fromCol, toRow, toCol, board)) {
-            logger.info("Invalid piece move for " + movingPiece.getType());
-            return false;
-        }
-
-        Piece[][] tempBoard = simulateMove(board, fromRow, fromCol, toRow, toCol);
-        if (isKingInCheck(tempBoard, movingPiece.getColor())) {
+        if (!legalMovesFor(session).contains(Bitboards.square(fromRow, fromCol), Bitboards.square(toRow, toCol))) {
+            logger.info("Invalid move for {} from [{},{}] to [{},{}]",
+                    movingPiece.getType(), fromRow, fromCol, toRow, toCol);
             return false;
         }
-
-        return validateSpecialMoves(gameState, movingPiece, fromRow, fromCol, toRow, toCol, board);
+        return true;
     }
 
     @Override
     public boolean isCheck(String gameId, PieceColor color) {
-        var session = gameSessionRepository.findById(gameId)
+        var session = liveGameRegistry.findById(gameId)
                 .orElseThrow(() -> new IllegalArgumentException("Game session not found"));
         Piece[][] board = session.getBoard();
         if (board == null) {
             System.err.println("Board is null for game session: " + gameId);
             return false; // Assume not in check if board is uninitialized
         }
-        return isKingInCheck(board, color);
+        return BitboardPosition.fromBoard(board, session.getGameState(), color).isInCheck(Bitboards.colorIndex(color));
     }
 
     @Override
     public boolean isCheckmate(String gameId, PieceColor color) {
-        var session = gameSessionRepository.findById(gameId)
+        var session = liveGameRegistry.findById(gameId)
                 .orElseThrow(() -> new IllegalArgumentException("Game session not found"));
 
-        if (!isKingInCheck(session.getBoard(), color)) {
-            return false;
-        }
-
-        return hasLegalMoves(session.getBoard(), color);
+        BitboardPosition position = BitboardPosition.fromBoard(session.getBoard(), session.getGameState(), color);
+        return position.isInCheck(position.getSideToMove()) && !MoveGenerator.hasLegalMove(position);
     }
 
     @Override
     public boolean isDraw(String gameId, PieceColor color) {
-        var session = gameSessionRepository.findById(gameId)
+        var session = liveGameRegistry.findById(gameId)
                 .orElseThrow(() -> new IllegalArgumentException("Game session not found"));
+        return isDraw(BitboardPosition.fromBoard(session.getBoard(), session.getGameState(), color))
+                || (session.getGameState() != null && isDrawByRepetitionOrFiftyMove(session.getGameState()));
+    }
+
+    @Override
+    public List<BoardPosition> getLegalMoves(String gameId) {
+        return liveGameRegistry.withLock(gameId, () -> legalMoves(gameId));
+    }
+
+    @Override
+    public List<BoardPosition> getLegalMoves(String gameId, int row, int col) {
+        if (!isValidPosition(row, col)) {
+            throw new IllegalArgumentException("Invalid square");
+        }
+        return liveGameRegistry.withLock(gameId, () -> legalMovesFrom(gameId, row, col));
+    }
+
+    private List<BoardPosition> legalMoves(String gameId) {
+        var session = liveGameRegistry.findById(gameId)
+                .orElseThrow(() -> new IllegalArgumentException("Game session not found"));
+        LegalMoveList moves = legalMovesFor(session);
+        List<BoardPosition> result = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            addMove(result, moves.get(i));
+        }
+        return result;
+    }
+
+    private List<BoardPosition> legalMovesFrom(String gameId, int row, int col) {
+        var session = liveGameRegistry.findById(gameId)
+                .orElseThrow(() -> new IllegalArgumentException("Game session not found"));
+        LegalMoveList moves = legalMovesFor(session);
+        int from = Bitboards.square(row, col);
+        if (moves.targetsFrom(from) == 0) {
+            return List.of();
+        }
+        List<BoardPosition> result = new ArrayList<>();
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.from(moves.get(i)) == from) {
+                addMove(result, moves.get(i));
+            }
+        }
+        return result;
+    }
+
+    private void addMove(List<BoardPosition> result, int move) {
+        // Pawns always promote to a queen here, so the other promotion choices aren't offered
+        if (Move.isPromotion(move) && Move.promotionType(move) != Bitboards.QUEEN) {
+            return;
+        }
+        result.add(new BoardPosition(Bitboards.row(Move.from(move)), Bitboards.col(Move.from(move)),
+                Bitboards.row(Move.to(move)), Bitboards.col(Move.to(move))));
+    }
+
+    /**
+     * Legal moves for the side to move. Live games compute them once per position and keep
+     * them in the registry, so validation between moves is a bit test. Callers hold the game's
+     * lock, so the board can't change while it is read or between computing and caching.
+     */
+    LegalMoveList legalMovesFor(GameSession session) {
+        GameState gameState = session.getGameState();
         Piece[][] board = session.getBoard();
+        CachedLegalMoves cached = liveGameRegistry.cachedLegalMoves(session.getGameId());
+        if (cached != null && cached.matches(board, gameState)) {
+            return cached.moves();
+        }
+        LegalMoveList moves = LegalMoveList.of(BitboardPosition.fromBoard(board, gameState));
+        liveGameRegistry.cacheLegalMoves(session.getGameId(), CachedLegalMoves.of(board, gameState, moves));
+        return moves;
+    }
+
+    /**
+     * @return the engine encoding of {@code move}, or {@link Move#NONE} if it is not legal
+     */
+    int resolveMove(GameSession session, BoardPosition move) {
+        return legalMovesFor(session).find(
+                Bitboards.square(move.getRow(), move.getCol()), Bitboards.square(move.getTorow(), move.getTocol()));
+    }
 
+    BitboardPosition positionFor(GameSession session) {
+        return BitboardPosition.fromBoard(session.getBoard(), session.getGameState());
+    }
+
+    private boolean isDraw(BitboardPosition position) {
         // Stalemate: Not in check, but no legal moves
-        if (!isKingInCheck(board, color) && hasLegalMoves(board, color)) {
+        if (!position.isInCheck(position.getSideToMove()) && !MoveGenerator.hasLegalMove(position)) {
             return true;
         }
 
         // Insufficient material (simplified check for common cases)
-        int whiteMaterial = 0, blackMaterial = 0;
-        boolean hasNonKingPiece = false;
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board[row][col];
-                if (piece != null) {
-                    if (piece.getType() != PieceType.KING) {
-                        hasNonKingPiece = true;
-                        if (piece.getColor() == PieceColor.white) {
-                            whiteMaterial += getPieceValue(piece);
-                        } else {
-                            blackMaterial += getPieceValue(piece);
-                        }
-                    }
-                }
-            }
-        }
+        int whiteMaterial = getMaterial(position, Bitboards.WHITE);
+        int blackMaterial = getMaterial(position, Bitboards.BLACK);
+        boolean hasNonKingPiece = whiteMaterial > 0 || blackMaterial > 0;
         return !hasNonKingPiece || (whiteMaterial <= 3 && blackMaterial <= 3); // King vs King or minor piece scenarios
     }
 
     /**
-     * Check for threefold repetition and fifty-move rule
-     * @param gameSessionId The game session ID
-     * @param currentTurn The current player's turn
-     * @return true if the game is a draw due to repetition or fifty-move rule
+     * Threefold repetition and the fifty-move rule, answered from the hashes kept on the
+     * game state. Only positions since the last capture or pawn move can repeat, so the
+     * scan is bounded by the half-move clock.
      */
-    private boolean isDrawByRepetitionOrFiftyMove(String gameSessionId, PieceColor currentTurn) {
-        // TODO: Implement threefold repetition check using move history
-        // TODO: Implement fifty-move rule check (50 moves without capture or pawn advance)
-        var history = gameHistoryRepository.findByGameSessionId(gameSessionId).orElseThrow(() -> new IllegalArgumentException("Game Historu not found"));
-        if (history.getPlayerActionIds().stream().count() == 100){
-            isDraw(gameSessionId, currentTurn);
+    private boolean isDrawByRepetitionOrFiftyMove(GameState gameState) {
+        if (gameState.getHalfMoveClock() >= FIFTY_MOVE_PLIES) {
+            return true;
         }
-        List<PlayerAction> actionmade = playeractionRepository.findAllById(history.getPlayerActionIds());
-        List<PlayerAction> whiteplayerAction = actionmade.stream().filter(i -> actionmade.indexOf(i) % 2 == 0).toList();
-        List<PlayerAction> blackplayerAction = actionmade.stream().filter(i -> actionmade.indexOf(i) % 2 != 0).toList();
-        for (int i = 2; i < whiteplayerAction.size() - 2 ; i++) {
-            PlayerAction curr = whiteplayerAction.get(i);
-            PlayerAction last2 = whiteplayerAction.get(i-2);
-            PlayerAction next2 = whiteplayerAction.get(i+2);
-
-            if (curr.equals(last2) && next2.equals(curr)) {
-                if ((curr.getToY() == last2.getToY() && curr.getToX() == last2.getToX() && (curr.getToY() == next2.getToY() && curr.getToX() == next2.getToX()))) {
-                    PlayerAction last1 = whiteplayerAction.get(i-1);
-                    PlayerAction next1 = whiteplayerAction.get(i+1);
-                    if ((last2.getToY()==last1.getFromY() && last2.getToX()==last1.getFromX()) &&
-                            (last1.getToY() == curr.getFromY() && last1.getToX() == curr.getFromX())
-                            && (curr.getToY() == next1.getFromY() && curr.getToX() == next1.getFromX())) {
-                        isDraw(gameSessionId, currentTurn);
-                    }
-                }
+        long[] history = gameState.getPositionHistory();
+        int count = gameState.getPositionHistoryCount();
+        if (history == null || count < 5) {
+            return false;
+        }
+        long key = history[(count - 1) % history.length];
+        int oldest = Math.max(0, count - history.length);
+        int occurrences = 1;
+        // Same side to move only: step back two plies at a time
+        for (int i = count - 3; i >= oldest; i -= 2) {
+            if (history[i % history.length] == key && ++occurrences == 3) {
+                return true;
             }
         }
-
-
         return false;
     }
 
-
-
-    private int getPieceValue(Piece piece) {
-        switch (piece.getType()) {
-            case QUEEN: return 9;
-            case ROOK: return 5;
-            case BISHOP:
-            case KNIGHT: return 3;
-            case PAWN: return 1;
-            default: return 0;
+    private void recordPosition(GameState gameState, long key) {
+        long[] history = gameState.getPositionHistory();
+        if (history == null) {
+            history = new long[FIFTY_MOVE_PLIES];
+            gameState.setPositionHistory(history);
         }
+        int count = gameState.getPositionHistoryCount();
+        history[count % history.length] = key;
+        gameState.setPositionHistoryCount(count + 1);
+    }
+
+    private int getMaterial(BitboardPosition position, int color) {
+        return 9 * Long.bitCount(position.getPieces(color, Bitboards.QUEEN))
+                + 5 * Long.bitCount(position.getPieces(color, Bitboards.ROOK))
+                + 3 * Long.bitCount(position.getPieces(color, Bitboards.BISHOP) | position.getPieces(color, Bitboards.KNIGHT))
+                + Long.bitCount(position.getPieces(color, Bitboards.PAWN));
     }
 
     ActionType determineActionType(Piece movingPiece, Piece targetPiece, int fromRow, int fromCol, int toRow, int toCol, Piece[][] board) {
@@ -229,193 +274,40 @@ public class ChessGameService implements IChessGameService {
     }
 
 
-    void updateGameState(GameState gameState, Piece[][] board, GameMode gameMode) {
+    /**
+     * Plays {@code move} on the pre-move {@code position} (updating its hash incrementally)
+     * and derives the new check, mate, draw and repetition state from the result.
+     */
+    void updateGameState(GameState gameState, BitboardPosition position, int move, GameMode gameMode) {
+        if (gameState.getPositionHistoryCount() == 0) {
+            recordPosition(gameState, position.getZobristKey());
+        }
+        position.makeMove(move);
+
         gameState.setMoveCount(gameState.getMoveCount() + 1);
         PieceColor nextTurn = gameState.getCurrentTurn() == PieceColor.white ? PieceColor.black : PieceColor.white;
         gameState.setCurrentTurn(nextTurn);
-        gameState.setCheck(isKingInCheck(board, nextTurn));
-        gameState.setCheckmate(gameState.isCheck() && hasLegalMoves(board, nextTurn));
-        if (gameState.isCheck()) {
-            gameState.setCheckedPlayer(nextTurn);
+
+        gameState.setZobristKey(position.getZobristKey());
+        gameState.setHalfMoveClock(position.getHalfMoveClock());
+        if (position.getHalfMoveClock() == 0) {
+            // Nothing before an irreversible move can repeat
+            gameState.setPositionHistoryCount(0);
         }
-        gameState.setGameOver(gameState.isCheckmate() || isDraw(gameState.getGameSessionId(), nextTurn));
-    }
+        recordPosition(gameState, position.getZobristKey());
 
-    private boolean hasLegalMoves(Piece[][] board, PieceColor color) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board[row][col];
-                if (piece != null && piece.getColor() == color) {
-                    for (int toRow = 0; toRow < 8; toRow++) {
-                        for (int toCol = 0; toCol < 8; toCol++) {
-                            if (isValidPieceMove(piece, row, col, toRow, toCol, board)) {
-                                Piece[][] tempBoard = simulateMove(board, row, col, toRow, toCol);
-                                if (!isKingInCheck(tempBoard, color)) {
-                                    return false;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+        gameState.setCheck(position.isInCheck(position.getSideToMove()));
+        gameState.setCheckmate(gameState.isCheck() && !MoveGenerator.hasLegalMove(position));
+        if (gameState.isCheck()) {
+            gameState.setCheckedPlayer(nextTurn);
         }
-        return true;
+        gameState.setGameOver(gameState.isCheckmate() || isDraw(position) || isDrawByRepetitionOrFiftyMove(gameState));
     }
 
     private boolean isValidPosition(int row, int col) {
         return row >= 0 && row < 8 && col >= 0 && col < 8;
     }
 
-    private boolean isValidPieceMove(Piece piece, int fromRow, int fromCol, int toRow, int toCol, Piece[][] board) {
-        Piece targetPiece = board[toRow][toCol];
-        if (targetPiece != null && targetPiece.getColor() == piece.getColor()) {
-            return false;
-        }
-        switch (piece.getType()) {
-            case KING:
-                return Math.abs(toRow - fromRow) <= 1 && Math.abs(toCol - fromCol) <= 1;
-            case QUEEN:
-                return isValidRookMove(fromRow, fromCol, toRow, toCol, board) || isValidBishopMove(fromRow, fromCol, toRow, toCol, board);
-            case ROOK:
-                return isValidRookMove(fromRow, fromCol, toRow, toCol, board);
-            case BISHOP:
-                return isValidBishopMove(fromRow, fromCol, toRow, toCol, board);
-            case KNIGHT:
-                int rowDiff = Math.abs(toRow - fromRow);
-                int colDiff = Math.abs(toCol - fromCol);
-                return (rowDiff == 2 && colDiff == 1) || (rowDiff == 1 && colDiff == 2);
-            case PAWN:
-                return isValidPawnMove(piece, fromRow, fromCol, toRow, toCol, board);
-            default:
-                return false;
-        }
-    }
-
-    private boolean isValidRookMove(int fromRow, int fromCol, int toRow, int toCol, Piece[][] board) {
-        if (fromRow != toRow && fromCol != toCol) return false;
-        int stepRow = fromRow == toRow ? 0 : (toRow > fromRow ? 1 : -1);
-        int stepCol = fromCol == toCol ? 0 : (toCol > fromCol ? 1 : -1);
-        int row = fromRow + stepRow;
-        int col = fromCol + stepCol;
-        while (row != toRow || col != toCol) {
-            if (board[row][col] != null) return false;
-            row += stepRow;
-            col += stepCol;
-        }
-        return board[toRow][toCol] == null || board[toRow][toCol].getColor() != board[fromRow][fromCol].getColor();
-    }
-
-    private boolean isValidBishopMove(int fromRow, int fromCol, int toRow, int toCol, Piece[][] board) {
-        if (Math.abs(toRow - fromRow) != Math.abs(toCol - fromCol)) return false;
-        int stepRow = toRow > fromRow ? 1 : -1;
-        int stepCol = toCol > fromCol ? 1 : -1;
-        int row = fromRow + stepRow;
-        int col = fromCol + stepCol;
-        while (row != toRow || col != toCol) {
-            if (board[row][col] != null) return false;
-            row += stepRow;
-            col += stepCol;
-        }
-        return board[toRow][toCol] == null || board[toRow][toCol].getColor() != board[fromRow][fromCol].getColor();
-    }
-
-    private boolean isValidPawnMove(Piece piece, int fromRow, int fromCol, int toRow, int toCol, Piece[][] board) {
-        int direction = piece.getColor() == PieceColor.white ? -1 : 1;  // White moves up (negative), black moves down (positive)
-        int startRow = piece.getColor() == PieceColor.white ? 6 : 1;    // White starts at row 6, black at row 1
-
-        // Forward move
-        if (fromCol == toCol && board[toRow][toCol] == null) {
-            // Single move forward
-            if (toRow == fromRow + direction) return true;
-            // Double move from starting position
-            if (fromRow == startRow && toRow == fromRow + 2 * direction
-                    && board[fromRow + direction][fromCol] == null) {
-                return true;
-            }
-        }
-
-        // Captures
-        if (Math.abs(toCol - fromCol) == 1 && toRow == fromRow + direction) {
-            // Normal capture
-            if (board[toRow][toCol] != null && board[toRow][toCol].getColor() != piece.getColor()) {
-                return true;
-            }
-            // En passant
-            if (board[fromRow][toCol] != null
-                    && board[fromRow][toCol].isEnPassantTarget()) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean validateSpecialMoves(GameState gameState, Piece piece, int fromRow, int fromCol, int toRow, int toCol, Piece[][] board) {
-        if (piece.getType() == PieceType.KING && Math.abs(toCol - fromCol) == 2) {
-            boolean isKingSide = toCol > fromCol;
-            boolean canCastle = piece.getColor() == PieceColor.white ?
-                    (isKingSide ? gameState.isCanWhiteCastleKingSide() : gameState.isCanWhiteCastleQueenSide()) :
-                    (isKingSide ? gameState.isCanBlackCastleKingSide() : gameState.isCanBlackCastleQueenSide());
-
-            // Add debug logging here
-            System.out.println("Castling validation:");
-            System.out.println("Color: " + piece.getColor());
-            System.out.println("Side: " + (isKingSide ? "kingside" : "queenside"));
-            System.out.println("Can castle flag: " + canCastle);
-            System.out.println("King has moved: " + piece.isHasMoved());
-
-            if (!canCastle || piece.isHasMoved()) return false;
-
-            int rookCol = isKingSide ? 7 : 0;
-            Piece rook = board[fromRow][rookCol];
-            if (rook == null || rook.getType() != PieceType.ROOK || rook.isHasMoved()) {
-                System.out.println("Rook validation failed");
-                return false;
-            }
-
-            // Check path is clear
-            int step = isKingSide ? 1 : -1;
-            for (int col = fromCol + step; col != rookCol; col += step) {
-                if (board[fromRow][col] != null) {
-                    System.out.println("Path not clear at " + fromRow + "," + col);
-                    return false;
-                }
-            }
-
-            // Check squares aren't under attack - only the squares the king moves through
-            // Don't check the king's starting square (already checked elsewhere)
-            for (int col = fromCol; col != toCol + step; col += step) {
-                if (col == fromCol) continue; // Skip king's starting square
-                if (isSquareUnderAttack(fromRow, col, piece.getColor(), board)) {
-                    System.out.println("Square under attack at " + fromRow + "," + col);
-                    return false;
-                }
-            }
-
-            return true;
-        }
-        return true;
-    }
-
-    private boolean isSquareUnderAttack(int row, int col, PieceColor color, Piece[][] board) {
-        PieceColor opponentColor = color == PieceColor.white ? PieceColor.black : PieceColor.white;
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece piece = board[r][c];
-                if (piece != null && piece.getColor() == opponentColor) {
-                    // For castling checks, we need to make sure we're not considering
-                    // the opponent's king as an attacker (since kings can't put each other in check)
-                    if (piece.getType() != PieceType.KING &&
-                            isValidPieceMove(piece, r, c, row, col, board)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
-    }
-
-
-
     void handleSpecialMoves(GameState gameState, Piece piece, int fromRow, int fromCol, int toRow, int toCol, Piece[][] board) {
         if (piece.getType() == PieceType.KING && Math.abs(toCol - fromCol) == 2) {
             // Castling move
@@ -440,9 +332,12 @@ public class ChessGameService implements IChessGameService {
 
             System.out.println("Castling performed - flags updated");
         }
-        if (piece.getType() == PieceType.PAWN && Math.abs(toCol - fromCol) == 1 && board[toRow][toCol] == null) {
-            int direction = piece.getColor() == PieceColor.white ? 1 : -1;
-            board[toRow - direction][toCol] = null;
+        // The pawn already stands on the target square here, so detect en passant from the target
+        BoardPosition enPassantTarget = gameState.getEnPassantTarget();
+        if (piece.getType() == PieceType.PAWN && Math.abs(toCol - fromCol) == 1 && enPassantTarget != null
+                && enPassantTarget.getRow() == toRow && enPassantTarget.getCol() == toCol) {
+            // The captured pawn sits beside the mover's origin square
+            board[fromRow][toCol] = null;
         }
         if (piece.getType() == PieceType.PAWN && (toRow == 0 || toRow == 7)) {
             piece.setType(PieceType.QUEEN);
@@ -460,45 +355,6 @@ public class ChessGameService implements IChessGameService {
         }
     }
 
-    private boolean isKingInCheck(Piece[][] board, PieceColor color) {
-        BoardPosition kingPos = null;
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                if (board[row][col] != null && board[row][col].getType() == PieceType.KING && board[row][col].getColor() == color) {
-                    kingPos = new BoardPosition(row, col);
-                    break;
-                }
-            }
-            if (kingPos != null) break;
-        }
-        if (kingPos == null) return false;
-
-        PieceColor opponentColor = color == PieceColor.white ? PieceColor.black : PieceColor.white;
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board[row][col];
-                if (piece != null && piece.getColor() == opponentColor) {
-                    if (isValidPieceMove(piece, row, col, kingPos.getRow(), kingPos.getCol(), board)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
-    }
-
-    private Piece[][] simulateMove(Piece[][] board, int fromRow, int fromCol, int toRow, int toCol) {
-        Piece[][] tempBoard = new Piece[8][8];
-        for (int i = 0; i < 8; i++) {
-            tempBoard[i] = board[i].clone();
-        }
-        Piece movingPiece = tempBoard[fromRow][fromCol];
-        tempBoard[toRow][toCol] = movingPiece;
-        tempBoard[fromRow][fromCol] = null;
-        return tempBoard;
-    }
-
-
     public TieResolutionOption selectTieResolutionOption(GameMode gameMode) {
         if (gameMode == GameMode.SINGLE_PLAYER_RPG || gameMode == GameMode.MULTIPLAYER_RPG) {
             var options = tieResolutionOptionService.getAllOptions();
@@ -0,0 +1,379 @@
+package org.example.chessmystic.Service.implementation.GameRelated.Engine;
+
+import org.example.chessmystic.Models.GameStateandFlow.GameState;
+import org.example.chessmystic.Models.chess.BoardPosition;
+import org.example.chessmystic.Models.chess.Piece;
+import org.example.chessmystic.Models.chess.PieceColor;
+
+import java.util.Arrays;
+
+import static org.example.chessmystic.Service.implementation.GameRelated.Engine.Bitboards.*;
+
+/**
+ * Bitboard view of a classic chess position: one 64-bit set per color and piece type,
+ * plus a mailbox for O(1) "what stands on this square" lookups.
+ *
+ * Positions are mutable: {@link #makeMove} pushes the irreversible state onto a primitive
+ * undo stack and {@link #unmakeMove} pops it, so legality tests and search never copy.
+ * Instances are not thread-safe.
+ */
+public final class BitboardPosition {
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    static final int EMPTY = -1;
+
+    private static final int INITIAL_UNDO_CAPACITY = 64;
+
+    // Castling rights that survive a move touching the given square
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, 0xF);
+        CASTLING_MASK[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[7] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[63] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[56] &= ~BLACK_QUEENSIDE;
+    }
+
+    final long[] pieces = new long[12];
+    final long[] occupancy = new long[2];
+    final int[] mailbox = new int[64];
+    int sideToMove = WHITE;
+    int castlingRights;
+    int enPassantSquare = NO_SQUARE;
+    int halfMoveClock;
+    long zobristKey;
+
+    // Undo stack: packed captured piece / castling / en passant / half-move clock, plus the key
+    private int[] undoState = new int[INITIAL_UNDO_CAPACITY];
+    private long[] undoKey = new long[INITIAL_UNDO_CAPACITY];
+    private int ply;
+
+    BitboardPosition() {
+        Arrays.fill(mailbox, EMPTY);
+    }
+
+    public static BitboardPosition fromBoard(Piece[][] board, GameState gameState) {
+        PieceColor turn = gameState != null && gameState.getCurrentTurn() != null
+                ? gameState.getCurrentTurn() : PieceColor.white;
+        return fromBoard(board, gameState, turn);
+    }
+
+    /**
+     * Builds a position from the persisted board. Castling rights combine the
+     * {@link GameState} flags with the king/rook {@code hasMoved} markers; the en passant
+     * square is only honoured when {@code sideToMove} is the side whose turn it is.
+     */
+    public static BitboardPosition fromBoard(Piece[][] board, GameState gameState, PieceColor sideToMove) {
+        BitboardPosition position = new BitboardPosition();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = board[row][col];
+                if (piece == null || piece.getType() == null
+                        || piece.getColor() == null || piece.getColor() == PieceColor.NULL) {
+                    continue;
+                }
+                position.putPiece(square(row, col), colorIndex(piece.getColor()) * 6 + typeIndex(piece.getType()));
+            }
+        }
+        position.sideToMove = colorIndex(sideToMove);
+
+        if (gameState != null) {
+            position.halfMoveClock = gameState.getHalfMoveClock();
+
+            int rights = 0;
+            if (gameState.isCanWhiteCastleKingSide() && unmoved(board, 7, 4, WHITE, KING) && unmoved(board, 7, 7, WHITE, ROOK)) {
+                rights |= WHITE_KINGSIDE;
+            }
+            if (gameState.isCanWhiteCastleQueenSide() && unmoved(board, 7, 4, WHITE, KING) && unmoved(board, 7, 0, WHITE, ROOK)) {
+                rights |= WHITE_QUEENSIDE;
+            }
+            if (gameState.isCanBlackCastleKingSide() && unmoved(board, 0, 4, BLACK, KING) && unmoved(board, 0, 7, BLACK, ROOK)) {
+                rights |= BLACK_KINGSIDE;
+            }
+            if (gameState.isCanBlackCastleQueenSide() && unmoved(board, 0, 4, BLACK, KING) && unmoved(board, 0, 0, BLACK, ROOK)) {
+                rights |= BLACK_QUEENSIDE;
+            }
+            position.castlingRights = rights;
+
+            BoardPosition ep = gameState.getEnPassantTarget();
+            if (ep != null && gameState.getCurrentTurn() == sideToMove
+                    && ep.getRow() >= 0 && ep.getRow() < 8 && ep.getCol() >= 0 && ep.getCol() < 8) {
+                int epSquare = square(ep.getRow(), ep.getCol());
+                int them = opposite(position.sideToMove);
+                int pawnSquare = position.sideToMove == WHITE ? epSquare - 8 : epSquare + 8;
+                if (pawnSquare >= 0 && pawnSquare < 64 && position.mailbox[pawnSquare] == them * 6 + PAWN
+                        && position.canCaptureEnPassant(epSquare, position.sideToMove)) {
+                    position.enPassantSquare = epSquare;
+                }
+            }
+        }
+        if (position.sideToMove == BLACK) {
+            position.zobristKey ^= Zobrist.SIDE_TO_MOVE;
+        }
+        position.zobristKey ^= Zobrist.CASTLING[position.castlingRights] ^ Zobrist.enPassant(position.enPassantSquare);
+        return position;
+    }
+
+    /**
+     * Parses the first four fields of a FEN string (placement, side, castling, en passant)
+     * plus the half-move clock when present. Used for fixtures and perft.
+     */
+    public static BitboardPosition fromFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("Invalid FEN: " + fen);
+        }
+        BitboardPosition position = new BitboardPosition();
+        int rank = 7;
+        int file = 0;
+        for (char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                rank--;
+                file = 0;
+            } else if (Character.isDigit(c)) {
+                file += c - '0';
+            } else {
+                int type = "pnbrqk".indexOf(Character.toLowerCase(c));
+                if (type < 0 || rank < 0 || file > 7) {
+                    throw new IllegalArgumentException("Invalid FEN placement: " + fields[0]);
+                }
+                position.putPiece(rank * 8 + file, (Character.isUpperCase(c) ? WHITE : BLACK) * 6 + type);
+                file++;
+            }
+        }
+        position.sideToMove = "b".equals(fields[1]) ? BLACK : WHITE;
+        for (char c : fields[2].toCharArray()) {
+            switch (c) {
+                case 'K' -> position.castlingRights |= WHITE_KINGSIDE;
+                case 'Q' -> position.castlingRights |= WHITE_QUEENSIDE;
+                case 'k' -> position.castlingRights |= BLACK_KINGSIDE;
+                case 'q' -> position.castlingRights |= BLACK_QUEENSIDE;
+                default -> { }
+            }
+        }
+        if (!"-".equals(fields[3])) {
+            int epSquare = (fields[3].charAt(1) - '1') * 8 + (fields[3].charAt(0) - 'a');
+            if (position.canCaptureEnPassant(epSquare, position.sideToMove)) {
+                position.enPassantSquare = epSquare;
+            }
+        }
+        if (fields.length > 4) {
+            position.halfMoveClock = Integer.parseInt(fields[4]);
+        }
+        if (position.sideToMove == BLACK) {
+            position.zobristKey ^= Zobrist.SIDE_TO_MOVE;
+        }
+        position.zobristKey ^= Zobrist.CASTLING[position.castlingRights] ^ Zobrist.enPassant(position.enPassantSquare);
+        return position;
+    }
+
+    private static boolean unmoved(Piece[][] board, int row, int col, int color, int type) {
+        Piece piece = board[row][col];
+        return piece != null && !piece.isHasMoved()
+                && piece.getType() != null && typeIndex(piece.getType()) == type
+                && piece.getColor() != null && piece.getColor() != PieceColor.NULL
+                && colorIndex(piece.getColor()) == color;
+    }
+
+    public BitboardPosition copy() {
+        BitboardPosition copy = new BitboardPosition();
+        System.arraycopy(pieces, 0, copy.pieces, 0, pieces.length);
+        System.arraycopy(occupancy, 0, copy.occupancy, 0, occupancy.length);
+        System.arraycopy(mailbox, 0, copy.mailbox, 0, mailbox.length);
+        copy.sideToMove = sideToMove;
+        copy.castlingRights = castlingRights;
+        copy.enPassantSquare = enPassantSquare;
+        copy.halfMoveClock = halfMoveClock;
+        copy.zobristKey = zobristKey;
+        return copy;
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * Plies since the last capture or pawn move, for the fifty-move rule.
+     */
+    public int getHalfMoveClock() {
+        return halfMoveClock;
+    }
+
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    public long getPieces(int color, int type) {
+        return pieces[color * 6 + type];
+    }
+
+    public long getOccupancy(int color) {
+        return occupancy[color];
+    }
+
+    public long getOccupancy() {
+        return occupancy[WHITE] | occupancy[BLACK];
+    }
+
+    /**
+     * @return {@code color * 6 + type} of the piece on {@code square}, or -1 when empty
+     */
+    public int pieceAt(int square) {
+        return mailbox[square];
+    }
+
+    public boolean isSquareAttacked(int square, int byColor) {
+        long occ = occupancy[WHITE] | occupancy[BLACK];
+        int base = byColor * 6;
+        long queens = pieces[base + QUEEN];
+        return (pawnAttacks(opposite(byColor), square) & pieces[base + PAWN]) != 0
+                || (knightAttacks(square) & pieces[base + KNIGHT]) != 0
+                || (kingAttacks(square) & pieces[base + KING]) != 0
+                || (rookAttacks(square, occ) & (pieces[base + ROOK] | queens)) != 0
+                || (bishopAttacks(square, occ) & (pieces[base + BISHOP] | queens)) != 0;
+    }
+
+    public boolean isInCheck(int color) {
+        long king = pieces[color * 6 + KING];
+        return king != 0 && isSquareAttacked(Long.numberOfTrailingZeros(king), opposite(color));
+    }
+
+    /**
+     * Applies a pseudo-legal move in place, updating the Zobrist key incrementally.
+     * Legality is the caller's concern. Reverse it with {@link #unmakeMove}.
+     */
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flag = Move.flag(move);
+        int us = sideToMove;
+        int captured = flag == Move.EN_PASSANT || !Move.isCapture(move) ? EMPTY : mailbox[to];
+        pushUndo(captured);
+
+        zobristKey ^= Zobrist.CASTLING[castlingRights] ^ Zobrist.enPassant(enPassantSquare);
+        halfMoveClock = mailbox[from] == us * 6 + PAWN || Move.isCapture(move) ? 0 : halfMoveClock + 1;
+        enPassantSquare = NO_SQUARE;
+        if (flag == Move.EN_PASSANT) {
+            removePiece(us == WHITE ? to - 8 : to + 8);
+        } else if (captured != EMPTY) {
+            removePiece(to);
+        }
+        movePiece(from, to);
+
+        if (Move.isPromotion(move)) {
+            removePiece(to);
+            putPiece(to, us * 6 + Move.promotionType(move));
+        } else if (flag == Move.DOUBLE_PAWN_PUSH) {
+            int skipped = us == WHITE ? from + 8 : from - 8;
+            if (canCaptureEnPassant(skipped, opposite(us))) {
+                enPassantSquare = skipped;
+            }
+        } else if (flag == Move.KING_CASTLE) {
+            movePiece(from + 3, from + 1);
+        } else if (flag == Move.QUEEN_CASTLE) {
+            movePiece(from - 4, from - 1);
+        }
+
+        castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        sideToMove = opposite(us);
+        zobristKey ^= Zobrist.CASTLING[castlingRights] ^ Zobrist.enPassant(enPassantSquare) ^ Zobrist.SIDE_TO_MOVE;
+    }
+
+    /**
+     * Takes back {@code move}, which must be the last move made on this position.
+     */
+    public void unmakeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flag = Move.flag(move);
+        int us = opposite(sideToMove);
+        sideToMove = us;
+
+        if (Move.isPromotion(move)) {
+            removePiece(to);
+            putPiece(to, us * 6 + PAWN);
+        } else if (flag == Move.KING_CASTLE) {
+            movePiece(from + 1, from + 3);
+        } else if (flag == Move.QUEEN_CASTLE) {
+            movePiece(from - 1, from - 4);
+        }
+        movePiece(to, from);
+
+        ply--;
+        int state = undoState[ply];
+        int captured = (state & 0xF) - 1;
+        if (flag == Move.EN_PASSANT) {
+            putPiece(us == WHITE ? to - 8 : to + 8, opposite(us) * 6 + PAWN);
+        } else if (captured != EMPTY) {
+            putPiece(to, captured);
+        }
+        castlingRights = (state >>> 4) & 0xF;
+        enPassantSquare = ((state >>> 8) & 0x7F) - 1;
+        halfMoveClock = state >>> 15;
+        // Restored last: the piece updates above toggled the key as a side effect
+        zobristKey = undoKey[ply];
+    }
+
+    private void pushUndo(int captured) {
+        if (ply == undoState.length) {
+            undoState = Arrays.copyOf(undoState, ply * 2);
+            undoKey = Arrays.copyOf(undoKey, ply * 2);
+        }
+        undoState[ply] = (captured + 1)
+                | castlingRights << 4
+                | (enPassantSquare + 1) << 8
+                | Math.min(halfMoveClock, 0xFFFF) << 15;
+        undoKey[ply] = zobristKey;
+        ply++;
+    }
+
+    /**
+     * The en passant square only counts (and is only hashed) when a {@code capturer} pawn
+     * could actually take on it, so that transpositions compare equal for repetition.
+     */
+    private boolean canCaptureEnPassant(int square, int capturer) {
+        return (pawnAttacks(opposite(capturer), square) & pieces[capturer * 6 + PAWN]) != 0;
+    }
+
+    void putPiece(int square, int piece) {
+        long bit = 1L << square;
+        pieces[piece] |= bit;
+        occupancy[piece / 6] |= bit;
+        mailbox[square] = piece;
+        zobristKey ^= Zobrist.PIECE_SQUARE[piece][square];
+    }
+
+    void removePiece(int square) {
+        int piece = mailbox[square];
+        long bit = 1L << square;
+        pieces[piece] &= ~bit;
+        occupancy[piece / 6] &= ~bit;
+        mailbox[square] = EMPTY;
+        zobristKey ^= Zobrist.PIECE_SQUARE[piece][square];
+    }
+
+    void movePiece(int from, int to) {
+        int piece = mailbox[from];
+        long bits = (1L << from) | (1L << to);
+        pieces[piece] ^= bits;
+        occupancy[piece / 6] ^= bits;
+        mailbox[from] = EMPTY;
+        mailbox[to] = piece;
+        zobristKey ^= Zobrist.PIECE_SQUARE[piece][from] ^ Zobrist.PIECE_SQUARE[piece][to];
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.chessmystic.Service.implementation.GameRelated.Engine;
+
+import org.example.chessmystic.Models.chess.PieceColor;
+import org.example.chessmystic.Models.chess.PieceType;
+
+/**
+ * Square layout, piece indices and precomputed attack tables for the bitboard engine.
+ *
+ * Squares are numbered a1 = 0 .. h8 = 63. The persisted {@code Piece[][]} board keeps
+ * black's back rank in row 0, so {@link #square(int, int)} flips the row.
+ * Sliding attacks are looked up with {@link Long#compress} (PEXT on BMI2 hardware),
+ * which indexes a per-square table by the relevant occupancy bits.
+ */
+public final class Bitboards {
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    public static final int NO_SQUARE = -1;
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_2 = RANK_1 << 8;
+    public static final long RANK_4 = RANK_1 << 24;
+    public static final long RANK_5 = RANK_1 << 32;
+    public static final long RANK_7 = RANK_1 << 48;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    static final long[] KNIGHT_ATTACKS = new long[64];
+    static final long[] KING_ATTACKS = new long[64];
+    static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final int[][] KNIGHT_OFFSETS = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+
+    static {
+        for (int sq = 0; sq < 64; sq++) {
+            int rank = sq >>> 3;
+            int file = sq & 7;
+
+            for (int[] offset : KNIGHT_OFFSETS) {
+                KNIGHT_ATTACKS[sq] |= bitIfOnBoard(rank + offset[0], file + offset[1]);
+            }
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int df = -1; df <= 1; df++) {
+                    if (dr != 0 || df != 0) {
+                        KING_ATTACKS[sq] |= bitIfOnBoard(rank + dr, file + df);
+                    }
+                }
+            }
+            PAWN_ATTACKS[WHITE][sq] = bitIfOnBoard(rank + 1, file - 1) | bitIfOnBoard(rank + 1, file + 1);
+            PAWN_ATTACKS[BLACK][sq] = bitIfOnBoard(rank - 1, file - 1) | bitIfOnBoard(rank - 1, file + 1);
+
+            ROOK_MASKS[sq] = relevantOccupancy(sq, ROOK_DIRECTIONS);
+            BISHOP_MASKS[sq] = relevantOccupancy(sq, BISHOP_DIRECTIONS);
+            ROOK_TABLE[sq] = buildSliderTable(sq, ROOK_MASKS[sq], ROOK_DIRECTIONS);
+            BISHOP_TABLE[sq] = buildSliderTable(sq, BISHOP_MASKS[sq], BISHOP_DIRECTIONS);
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    public static int square(int row, int col) {
+        return ((7 - row) << 3) | col;
+    }
+
+    public static int row(int square) {
+        return 7 - (square >>> 3);
+    }
+
+    public static int col(int square) {
+        return square & 7;
+    }
+
+    public static int opposite(int color) {
+        return color ^ 1;
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    public static long pawnAttacks(int color, int square) {
+        return PAWN_ATTACKS[color][square];
+    }
+
+    public static long rookAttacks(int square, long occupancy) {
+        return ROOK_TABLE[square][(int) Long.compress(occupancy, ROOK_MASKS[square])];
+    }
+
+    public static long bishopAttacks(int square, long occupancy) {
+        return BISHOP_TABLE[square][(int) Long.compress(occupancy, BISHOP_MASKS[square])];
+    }
+
+    public static long queenAttacks(int square, long occupancy) {
+        return rookAttacks(square, occupancy) | bishopAttacks(square, occupancy);
+    }
+
+    public static int colorIndex(PieceColor color) {
+        return color == PieceColor.black ? BLACK : WHITE;
+    }
+
+    public static PieceColor pieceColor(int color) {
+        return color == BLACK ? PieceColor.black : PieceColor.white;
+    }
+
+    public static int typeIndex(PieceType type) {
+        return switch (type) {
+            case PAWN -> PAWN;
+            case KNIGHT -> KNIGHT;
+            case BISHOP -> BISHOP;
+            case ROOK -> ROOK;
+            case QUEEN -> QUEEN;
+            case KING -> KING;
+        };
+    }
+
+    public static PieceType pieceType(int type) {
+        return switch (type) {
+            case PAWN -> PieceType.PAWN;
+            case KNIGHT -> PieceType.KNIGHT;
+            case BISHOP -> PieceType.BISHOP;
+            case ROOK -> PieceType.ROOK;
+            case QUEEN -> PieceType.QUEEN;
+            case KING -> PieceType.KING;
+            default -> throw new IllegalArgumentException("Invalid piece index: " + type);
+        };
+    }
+
+    private static long bitIfOnBoard(int rank, int file) {
+        return rank >= 0 && rank < 8 && file >= 0 && file < 8 ? 1L << ((rank << 3) | file) : 0L;
+    }
+
+    // Occupancy bits that can block a slider from sq; the last square of each ray never matters.
+    private static long relevantOccupancy(int sq, int[][] directions) {
+        long mask = 0L;
+        for (int[] dir : directions) {
+            int rank = (sq >>> 3) + dir[0];
+            int file = (sq & 7) + dir[1];
+            while (rank + dir[0] >= 0 && rank + dir[0] < 8 && file + dir[1] >= 0 && file + dir[1] < 8) {
+                mask |= 1L << ((rank << 3) | file);
+                rank += dir[0];
+                file += dir[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slowSliderAttacks(int sq, long occupancy, int[][] directions) {
+        long attacks = 0L;
+        for (int[] dir : directions) {
+            int rank = (sq >>> 3) + dir[0];
+            int file = (sq & 7) + dir[1];
+            while (rank >= 0 && rank < 8 && file >= 0 && file < 8) {
+                long bit = 1L << ((rank << 3) | file);
+                attacks |= bit;
+                if ((occupancy & bit) != 0) break;
+                rank += dir[0];
+                file += dir[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static long[] buildSliderTable(int sq, long mask, int[][] directions) {
+        long[] table = new long[1 << Long.bitCount(mask)];
+        long subset = 0L;
+        do {
+            table[(int) Long.compress(subset, mask)] = slowSliderAttacks(sq, subset, directions);
+            subset = (subset - mask) & mask;
+        } while (subset != 0L);
+        return table;
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.chessmystic.Service.implementation.GameRelated.Engine;
+
+import org.example.chessmystic.Models.chess.Piece;
+import org.example.chessmystic.Models.chess.PieceColor;
+import org.example.chessmystic.Models.chess.PieceType;
+
+/**
+ * Packed form of a {@code Piece[][]} board, used for storage and compact transport.
+ *
+ * Layout: one byte holding {@code (rows - 1) << 4 | (cols - 1)}, an occupancy bitmap over
+ * {@code row * cols + col}, one has-moved bit per occupied square, then one 4-bit piece code
+ * per occupied square ({@code color * 6 + type}). A standard board with all 32 pieces packs
+ * into 29 bytes. Boards up to 16x16 are supported, so RPG layouts round-trip as well.
+ * The per-piece en passant flag is not kept; the target square lives on the game state.
+ */
+public final class BoardCodec {
+
+    private static final int MAX_SIDE = 16;
+    private static final int BLANK_PIECE = 15;
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final char[] PLACEMENT_LETTERS = new char[TYPES.length];
+
+    static {
+        PLACEMENT_LETTERS[PieceType.PAWN.ordinal()] = 'p';
+        PLACEMENT_LETTERS[PieceType.KNIGHT.ordinal()] = 'n';
+        PLACEMENT_LETTERS[PieceType.BISHOP.ordinal()] = 'b';
+        PLACEMENT_LETTERS[PieceType.ROOK.ordinal()] = 'r';
+        PLACEMENT_LETTERS[PieceType.QUEEN.ordinal()] = 'q';
+        PLACEMENT_LETTERS[PieceType.KING.ordinal()] = 'k';
+    }
+
+    private BoardCodec() {
+    }
+
+    public static byte[] pack(Piece[][] board) {
+        int rows = board.length;
+        int cols = rows == 0 ? 0 : board[0].length;
+        if (rows == 0 || cols == 0 || rows > MAX_SIDE || cols > MAX_SIDE) {
+            throw new IllegalArgumentException("Cannot pack a " + rows + "x" + cols + " board");
+        }
+
+        int squares = rows * cols;
+        int occupied = 0;
+        for (Piece[] row : board) {
+            if (row.length != cols) {
+                throw new IllegalArgumentException("Cannot pack a ragged board");
+            }
+            for (Piece piece : row) {
+                if (piece != null) {
+                    occupied++;
+                }
+            }
+        }
+
+        int occupancyOffset = 1;
+        int movedOffset = occupancyOffset + bytesFor(squares);
+        int codeOffset = movedOffset + bytesFor(occupied);
+        byte[] packed = new byte[codeOffset + (occupied + 1) / 2];
+        packed[0] = (byte) ((rows - 1) << 4 | (cols - 1));
+
+        int n = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                Piece piece = board[row][col];
+                if (piece == null) {
+                    continue;
+                }
+                setBit(packed, occupancyOffset, row * cols + col);
+                if (piece.isHasMoved()) {
+                    setBit(packed, movedOffset, n);
+                }
+                packed[codeOffset + (n >>> 1)] |= (byte) (code(piece) << ((n & 1) << 2));
+                n++;
+            }
+        }
+        return packed;
+    }
+
+    public static Piece[][] unpack(byte[] packed) {
+        int rows = ((packed[0] >>> 4) & 0xF) + 1;
+        int cols = (packed[0] & 0xF) + 1;
+        int squares = rows * cols;
+
+        int occupancyOffset = 1;
+        int occupied = 0;
+        for (int i = 0; i < bytesFor(squares); i++) {
+            occupied += Integer.bitCount(packed[occupancyOffset + i] & 0xFF);
+        }
+        int movedOffset = occupancyOffset + bytesFor(squares);
+        int codeOffset = movedOffset + bytesFor(occupied);
+
+        Piece[][] board = new Piece[rows][cols];
+        int n = 0;
+        for (int square = 0; square < squares; square++) {
+            if (!getBit(packed, occupancyOffset, square)) {
+                continue;
+            }
+            int code = (packed[codeOffset + (n >>> 1)] >>> ((n & 1) << 2)) & 0xF;
+            Piece piece = piece(code);
+            piece.setHasMoved(getBit(packed, movedOffset, n));
+            board[square / cols][square % cols] = piece;
+            n++;
+        }
+        return board;
+    }
+
+    /**
+     * FEN piece placement field, rank 8 first. Row 0 of the board is already black's back
+     * rank, so rows map to ranks in order.
+     */
+    public static String toPlacement(Piece[][] board) {
+        StringBuilder placement = new StringBuilder(72);
+        for (int row = 0; row < board.length; row++) {
+            if (row > 0) {
+                placement.append('/');
+            }
+            int empty = 0;
+            for (Piece piece : board[row]) {
+                if (piece == null || piece.getType() == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    placement.append(empty);
+                    empty = 0;
+                }
+                char letter = PLACEMENT_LETTERS[piece.getType().ordinal()];
+                placement.append(piece.getColor() == PieceColor.white ? Character.toUpperCase(letter) : letter);
+            }
+            if (empty > 0) {
+                placement.append(empty);
+            }
+        }
+        return placement.toString();
+    }
+
+    private static int code(Piece piece) {
+        if (piece.getType() == null || (piece.getColor() != PieceColor.white && piece.getColor() != PieceColor.black)) {
+            return BLANK_PIECE;
+        }
+        return (piece.getColor() == PieceColor.white ? 0 : TYPES.length) + piece.getType().ordinal();
+    }
+
+    private static Piece piece(int code) {
+        if (code >= 2 * TYPES.length) {
+            return new Piece(null, PieceColor.NULL);
+        }
+        PieceColor color = code < TYPES.length ? PieceColor.white : PieceColor.black;
+        return new Piece(TYPES[code % TYPES.length], color);
+    }
+
+    private static int bytesFor(int bits) {
+        return (bits + 7) >>> 3;
+    }
+
+    private static void setBit(byte[] bytes, int offset, int bit) {
+        bytes[offset + (bit >>> 3)] |= (byte) (1 << (bit & 7));
+    }
+
+    private static boolean getBit(byte[] bytes, int offset, int bit) {
+        return (bytes[offset + (bit >>> 3)] & (1 << (bit & 7))) != 0;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.chessmystic.Service.implementation.GameRelated.Engine;
+
+import static org.example.chessmystic.Service.implementation.GameRelated.Engine.Bitboards.QUEEN;
+
+/**
+ * Immutable snapshot of every legal move in a position, with a per-square target set so
+ * that "is from-to legal" is a single bit test.
+ */
+public final class LegalMoveList {
+
+    private final int[] moves;
+    private final long[] targets = new long[64];
+
+    private LegalMoveList(int[] moves) {
+        this.moves = moves;
+        for (int move : moves) {
+            targets[Move.from(move)] |= 1L << Move.to(move);
+        }
+    }
+
+    public static LegalMoveList of(BitboardPosition position) {
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegalMoves(position, buffer);
+        int[] moves = new int[count];
+        System.arraycopy(buffer, 0, moves, 0, count);
+        return new LegalMoveList(moves);
+    }
+
+    public int size() {
+        return moves.length;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public boolean isEmpty() {
+        return moves.length == 0;
+    }
+
+    public boolean contains(int from, int to) {
+        return (targets[from] & (1L << to)) != 0;
+    }
+
+    /**
+     * Squares the piece on {@code from} can legally move to.
+     */
+    public long targetsFrom(int from) {
+        return targets[from];
+    }
+
+    /**
+     * Same contract as {@link MoveGenerator#findLegalMove}: promotions resolve to a queen.
+     * @return the encoded move, or {@link Move#NONE}
+     */
+    public int find(int from, int to) {
+        if (!contains(from, to)) {
+            return Move.NONE;
+        }
+        for (int move : moves) {
+            if (Move.from(move) == from && Move.to(move) == to
+                    && (!Move.isPromotion(move) || Move.promotionType(move) == QUEEN)) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+}
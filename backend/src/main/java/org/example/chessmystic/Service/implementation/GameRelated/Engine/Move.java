@@ -0,0 +1,63 @@
+package org.example.chessmystic.Service.implementation.GameRelated.Engine;
+
+/**
+ * 16-bit move encoding used by the engine: bits 0-5 hold the from square,
+ * bits 6-11 the to square and bits 12-15 the move flag.
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+    public static final int PROMOTION_CAPTURE = 12;
+
+    private Move() {
+    }
+
+    public static int encode(int from, int to, int flag) {
+        return from | (to << 6) | (flag << 12);
+    }
+
+    /**
+     * @param promotionType one of {@link Bitboards#KNIGHT} .. {@link Bitboards#QUEEN}
+     */
+    public static int promotion(int from, int to, int promotionType, boolean capture) {
+        int flag = (capture ? PROMOTION_CAPTURE : PROMOTION) | (promotionType - Bitboards.KNIGHT);
+        return encode(from, to, flag);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flag(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flag(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flag(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        int flag = flag(move);
+        return flag == KING_CASTLE || flag == QUEEN_CASTLE;
+    }
+
+    public static int promotionType(int move) {
+        return Bitboards.KNIGHT + (flag(move) & 3);
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.chessmystic.Service.implementation.GameRelated.Engine;
+
+import static org.example.chessmystic.Service.implementation.GameRelated.Engine.Bitboards.*;
+
+/**
+ * Legal move generation over {@link BitboardPosition}. Moves are produced pseudo-legally
+ * from the attack tables and then filtered by making each one, testing whether the
+ * mover's king is attacked and unmaking it again. Nothing here allocates per call.
+ */
+public final class MoveGenerator {
+
+    // No legal chess position has more than 218 moves
+    public static final int MAX_MOVES = 256;
+
+    // Scratch list for the queries that don't hand their moves back to the caller
+    private static final ThreadLocal<int[]> SCRATCH_MOVES = ThreadLocal.withInitial(() -> new int[MAX_MOVES]);
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Fills {@code moves} with every legal move for the side to move.
+     * @return the number of moves written
+     */
+    public static int generateLegalMoves(BitboardPosition position, int[] moves) {
+        int pseudoCount = generatePseudoLegalMoves(position, moves);
+        int legalCount = 0;
+        for (int i = 0; i < pseudoCount; i++) {
+            if (isLegal(position, moves[i])) {
+                moves[legalCount++] = moves[i];
+            }
+        }
+        return legalCount;
+    }
+
+    public static boolean hasLegalMove(BitboardPosition position) {
+        int[] moves = SCRATCH_MOVES.get();
+        int count = generatePseudoLegalMoves(position, moves);
+        for (int i = 0; i < count; i++) {
+            if (isLegal(position, moves[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Looks up the legal move between two squares. Promotions resolve to a queen,
+     * matching how the live game promotes pawns.
+     * @return the encoded move, or {@link Move#NONE} if no legal move connects the squares
+     */
+    public static int findLegalMove(BitboardPosition position, int from, int to) {
+        int[] moves = SCRATCH_MOVES.get();
+        int count = generatePseudoLegalMoves(position, moves);
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (Move.from(move) != from || Move.to(move) != to) continue;
+            if (Move.isPromotion(move) && Move.promotionType(move) != QUEEN) continue;
+            if (isLegal(position, move)) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    static boolean isLegal(BitboardPosition position, int move) {
+        int us = position.sideToMove;
+        position.makeMove(move);
+        boolean legal = !position.isInCheck(us);
+        position.unmakeMove(move);
+        return legal;
+    }
+
+    static int generatePseudoLegalMoves(BitboardPosition position, int[] moves) {
+        int us = position.sideToMove;
+        int them = opposite(us);
+        long own = position.occupancy[us];
+        long enemy = position.occupancy[them];
+        long occupied = own | enemy;
+        long empty = ~occupied;
+        int base = us * 6;
+        int count = generatePawnMoves(position, moves, 0, us, enemy, empty);
+
+        long knights = position.pieces[base + KNIGHT];
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            count = addTargets(moves, count, from, knightAttacks(from) & ~own, enemy);
+        }
+        long diagonals = position.pieces[base + BISHOP] | position.pieces[base + QUEEN];
+        while (diagonals != 0) {
+            int from = Long.numberOfTrailingZeros(diagonals);
+            diagonals &= diagonals - 1;
+            count = addTargets(moves, count, from, bishopAttacks(from, occupied) & ~own, enemy);
+        }
+        long orthogonals = position.pieces[base + ROOK] | position.pieces[base + QUEEN];
+        while (orthogonals != 0) {
+            int from = Long.numberOfTrailingZeros(orthogonals);
+            orthogonals &= orthogonals - 1;
+            count = addTargets(moves, count, from, rookAttacks(from, occupied) & ~own, enemy);
+        }
+        long king = position.pieces[base + KING];
+        if (king != 0) {
+            int from = Long.numberOfTrailingZeros(king);
+            count = addTargets(moves, count, from, kingAttacks(from) & ~own, enemy);
+            count = generateCastling(position, moves, count, us, them, occupied);
+        }
+        return count;
+    }
+
+    private static int generatePawnMoves(BitboardPosition position, int[] moves, int count,
+                                         int us, long enemy, long empty) {
+        long pawns = position.pieces[us * 6 + PAWN];
+        int forward = us == WHITE ? 8 : -8;
+        long startRank = us == WHITE ? RANK_2 : RANK_7;
+        long promotionRank = us == WHITE ? RANK_8 : RANK_1;
+        long epBit = position.enPassantSquare == NO_SQUARE ? 0L : 1L << position.enPassantSquare;
+
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+
+            int single = from + forward;
+            if ((empty & (1L << single)) != 0) {
+                if ((promotionRank & (1L << single)) != 0) {
+                    count = addPromotions(moves, count, from, single, false);
+                } else {
+                    moves[count++] = Move.encode(from, single, Move.QUIET);
+                    int dbl = single + forward;
+                    if ((startRank & (1L << from)) != 0 && (empty & (1L << dbl)) != 0) {
+                        moves[count++] = Move.encode(from, dbl, Move.DOUBLE_PAWN_PUSH);
+                    }
+                }
+            }
+
+            long attacks = pawnAttacks(us, from);
+            long captures = attacks & enemy;
+            while (captures != 0) {
+                int to = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                if ((promotionRank & (1L << to)) != 0) {
+                    count = addPromotions(moves, count, from, to, true);
+                } else {
+                    moves[count++] = Move.encode(from, to, Move.CAPTURE);
+                }
+            }
+            if ((attacks & epBit) != 0) {
+                moves[count++] = Move.encode(from, position.enPassantSquare, Move.EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    private static int generateCastling(BitboardPosition position, int[] moves, int count,
+                                        int us, int them, long occupied) {
+        int rights = position.castlingRights;
+        int kingSquare = us == WHITE ? 4 : 60;
+        int kingside = us == WHITE ? BitboardPosition.WHITE_KINGSIDE : BitboardPosition.BLACK_KINGSIDE;
+        int queenside = us == WHITE ? BitboardPosition.WHITE_QUEENSIDE : BitboardPosition.BLACK_QUEENSIDE;
+        if ((rights & (kingside | queenside)) == 0 || position.isSquareAttacked(kingSquare, them)) {
+            return count;
+        }
+        long kingsidePath = 0x60L << (kingSquare - 4);
+        if ((rights & kingside) != 0 && (occupied & kingsidePath) == 0
+                && !position.isSquareAttacked(kingSquare + 1, them)
+                && !position.isSquareAttacked(kingSquare + 2, them)) {
+            moves[count++] = Move.encode(kingSquare, kingSquare + 2, Move.KING_CASTLE);
+        }
+        long queensidePath = 0x0EL << (kingSquare - 4);
+        if ((rights & queenside) != 0 && (occupied & queensidePath) == 0
+                && !position.isSquareAttacked(kingSquare - 1, them)
+                && !position.isSquareAttacked(kingSquare - 2, them)) {
+            moves[count++] = Move.encode(kingSquare, kingSquare - 2, Move.QUEEN_CASTLE);
+        }
+        return count;
+    }
+
+    private static int addTargets(int[] moves, int count, int from, long targets, long enemy) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves[count++] = Move.encode(from, to, (enemy & (1L << to)) != 0 ? Move.CAPTURE : Move.QUIET);
+        }
+        return count;
+    }
+
+    private static int addPromotions(int[] moves, int count, int from, int to, boolean capture) {
+        moves[count++] = Move.promotion(from, to, QUEEN, capture);
+        moves[count++] = Move.promotion(from, to, ROOK, capture);
+        moves[count++] = Move.promotion(from, to, BISHOP, capture);
+        moves[count++] = Move.promotion(from, to, KNIGHT, capture);
+        return count;
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.chessmystic.Service.implementation.GameRelated.Engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys for position hashing. The seed is fixed because keys are persisted on
+ * {@code GameState} and must stay comparable across restarts.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x43686573734D7973L;
+
+    static final long[][] PIECE_SQUARE = new long[12][64];
+    static final long[] CASTLING = new long[16];
+    static final long[] EN_PASSANT_FILE = new long[8];
+    static final long SIDE_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int piece = 0; piece < 12; piece++) {
+            for (int square = 0; square < 64; square++) {
+                PIECE_SQUARE[piece][square] = random.nextLong();
+            }
+        }
+        for (int rights = 0; rights < 16; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        SIDE_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    static long enPassant(int square) {
+        return square == Bitboards.NO_SQUARE ? 0L : EN_PASSANT_FILE[square & 7];
+    }
+}
@@ -1,37 +1,54 @@
 package org.example.chessmystic.Service.implementation.GameRelated;
 
+import org.example.chessmystic.Models.APIContacts.UserDTO.UserSummaryDTO;
 import org.example.chessmystic.Models.UserManagement.Friendship;
 import org.example.chessmystic.Models.UserManagement.FriendshipStatus;
 import org.example.chessmystic.Models.UserManagement.User;
 import org.example.chessmystic.Repository.FriendshipRepository;
+import org.example.chessmystic.Service.implementation.ExpiringCache;
 import org.example.chessmystic.Service.implementation.UserService;
+import org.example.chessmystic.Service.implementation.UserSummaryCache;
 import org.example.chessmystic.Service.interfaces.GameRelated.IFriendshipService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
-
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Friend requests, friendships and blocks. Each user's accepted friendships are cached, and
+ * dropped from the cache whenever one of them is accepted, removed or blocked here; the cache
+ * also expires after {@code chess.friends.cache-ttl-ms} to pick up changes made elsewhere.
+ */
 @Service
 public class FriendshipService implements IFriendshipService {
 
     private static final Logger logger = LoggerFactory.getLogger(FriendshipService.class);
     private final FriendshipRepository friendshipRepository;
     private final UserService userService;
+    private final UserSummaryCache userSummaryCache;
     private final SimpMessagingTemplate messagingTemplate;
+    // userId -> the user's accepted friendships
+    private final ExpiringCache<String, List<Friendship>> friendshipsByUser;
 
     @Autowired
-    public FriendshipService(FriendshipRepository friendshipRepository, UserService userService, SimpMessagingTemplate messagingTemplate) {
+    public FriendshipService(FriendshipRepository friendshipRepository, UserService userService,
+                             UserSummaryCache userSummaryCache, SimpMessagingTemplate messagingTemplate,
+                             @Value("${chess.friends.cache-size:10000}") int cacheSize,
+                             @Value("${chess.friends.cache-ttl-ms:60000}") long cacheTtlMs) {
         this.friendshipRepository = friendshipRepository;
         this.userService = userService;
+        this.userSummaryCache = userSummaryCache;
         this.messagingTemplate = messagingTemplate;
+        this.friendshipsByUser = new ExpiringCache<>(cacheSize, Duration.ofMillis(cacheTtlMs));
     }
 
     @Override
@@ -42,10 +59,13 @@ public class FriendshipService implements IFriendshipService {
             throw new IllegalArgumentException("Cannot send friend request to self");
         }
 
-        userService.findById(requesterId)
-                .orElseThrow(() -> new RuntimeException("Requester not found"));
-        userService.findById(recipientId)
-                .orElseThrow(() -> new RuntimeException("Recipient not found"));
+        Map<String, UserSummaryDTO> users = userSummaryCache.getAll(List.of(requesterId, recipientId));
+        if (!users.containsKey(requesterId)) {
+            throw new RuntimeException("Requester not found");
+        }
+        if (!users.containsKey(recipientId)) {
+            throw new RuntimeException("Recipient not found");
+        }
 
         Optional<Friendship> existingFriendship = friendshipRepository.findByUsers(requesterId, recipientId);
         if (existingFriendship.isPresent()) {
@@ -82,6 +102,7 @@ public class FriendshipService implements IFriendshipService {
         Friendship updatedFriendship = friendshipRepository.save(friendship);
         logger.info("Friend request accepted: {}", friendshipId);
         Friendship persisted = friendshipRepository.save(updatedFriendship);
+        evictFriendships(persisted);
 
         // Notify both users
         notifyFriendshipUpdate(persisted.getRequesterId(), "REQUEST_ACCEPTED", persisted);
@@ -115,7 +136,7 @@ public class FriendshipService implements IFriendshipService {
             throw new IllegalArgumentException("Cannot block self");
         }
 
-        userService.findById(userToBlockId)
+        userSummaryCache.get(userToBlockId)
                 .orElseThrow(() -> new RuntimeException("User to block not found"));
 
         Optional<Friendship> existingFriendship = friendshipRepository.findByUsers(userId, userToBlockId);
@@ -133,6 +154,7 @@ public class FriendshipService implements IFriendshipService {
         }
 
         friendshipRepository.save(friendship);
+        evictFriendships(friendship);
         logger.info("User blocked: {} by {}", userToBlockId, userId);
 
         // Notify blocker (and optionally blocked user)
@@ -156,24 +178,52 @@ public class FriendshipService implements IFriendshipService {
 
     @Override
     public List<List<User>> getFriends(String userId) {
-        List<Friendship> friendsIds = friendshipRepository.findByUserIdAndStatus(userId, FriendshipStatus.ACCEPTED);
-
-        List<List<User>> usersThatAreFriends = new ArrayList<>();
-
-        for (Friendship friendship : friendsIds) {
-            User user1 = userService.findById(friendship.getRequesterId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            User user2 = userService.findById(friendship.getRecipientId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+        List<Friendship> friendships = acceptedFriendships(userId);
+        if (friendships.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-            List<User> friends = Arrays.asList(user1, user2);
-            usersThatAreFriends.add(friends);
+        // Every user of every pair in one query
+        Set<String> userIds = new HashSet<>();
+        friendships.forEach(friendship -> {
+            userIds.add(friendship.getRequesterId());
+            userIds.add(friendship.getRecipientId());
+        });
+        Map<String, User> users = userService.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<List<User>> usersThatAreFriends = new ArrayList<>(friendships.size());
+        for (Friendship friendship : friendships) {
+            User user1 = users.get(friendship.getRequesterId());
+            User user2 = users.get(friendship.getRecipientId());
+            if (user1 == null || user2 == null) {
+                throw new RuntimeException("User not found");
+            }
+            usersThatAreFriends.add(Arrays.asList(user1, user2));
         }
 
         return usersThatAreFriends;
     }
 
 
+    @Override
+    public List<String> getFriendIds(String userId) {
+        return acceptedFriendships(userId).stream()
+                .map(friendship -> userId.equals(friendship.getRequesterId())
+                        ? friendship.getRecipientId()
+                        : friendship.getRequesterId())
+                .toList();
+    }
+
+    private List<Friendship> acceptedFriendships(String userId) {
+        List<Friendship> friendships = friendshipsByUser.get(userId);
+        if (friendships == null) {
+            friendships = List.copyOf(friendshipRepository.findByUserIdAndStatus(userId, FriendshipStatus.ACCEPTED));
+            friendshipsByUser.put(userId, friendships);
+        }
+        return friendships;
+    }
+
     @Override
     public List<Friendship> getPendingRequests(String userId) {
         return friendshipRepository.findByRecipientIdAndStatus(userId, FriendshipStatus.PENDING);
@@ -200,6 +250,7 @@ public class FriendshipService implements IFriendshipService {
         Optional<Friendship> friendship = friendshipRepository.findByUsers(userId, friendId);
         if (friendship.isPresent() && friendship.get().getStatus() == FriendshipStatus.ACCEPTED) {
             friendshipRepository.delete(friendship.get());
+            evictFriendships(friendship.get());
             logger.info("Friend removed: {} by {}", friendId, userId);
             // Notify both users
             notifyFriendshipUpdate(userId, "FRIEND_REMOVED", friendship.get());
@@ -216,6 +267,11 @@ public class FriendshipService implements IFriendshipService {
                 .orElse(false);
     }
 
+    private void evictFriendships(Friendship friendship) {
+        friendshipsByUser.invalidate(friendship.getRequesterId());
+        friendshipsByUser.invalidate(friendship.getRecipientId());
+    }
+
     private void notifyFriendshipUpdate(String userId, String eventType, Friendship friendship) {
         try {
             var payload = new java.util.HashMap<String, Object>();
@@ -0,0 +1,284 @@
+package org.example.chessmystic.Service.implementation.GameRelated;
+
+import jakarta.annotation.PreDestroy;
+import org.example.chessmystic.Controller.TimerWebSocketController;
+import org.example.chessmystic.Models.GameStateandFlow.GameStatus;
+import org.example.chessmystic.Models.GameStateandFlow.GameTimers;
+import org.example.chessmystic.Models.GameStateandFlow.PlayerTimer;
+import org.example.chessmystic.Models.Tracking.GameSession;
+import org.example.chessmystic.Models.chess.PieceColor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event-driven chess clocks. Each game keeps the remaining time of both players as of the
+ * start of the current turn plus a monotonic turn-start timestamp; the live value is
+ * derived on demand. Time is only charged when a move is made, and each game has a single
+ * flag-fall task in a delay queue that is rescheduled on every move.
+ *
+ * Timers are written to the session (and so persisted) only on moves, on flag fall and when
+ * the game is paused or resumed. The per-second tick just pushes computed values to subscribers.
+ * A paused game's clock is frozen and restarted on resume, so the pause is charged to no one.
+ */
+@Service
+public class GameClockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameClockService.class);
+
+    private final LiveGameRegistry liveGameRegistry;
+    private final TimerWebSocketController timerWebSocketController;
+    private final Map<String, GameClock> clocks = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor flagFallScheduler;
+
+    @Autowired
+    public GameClockService(LiveGameRegistry liveGameRegistry, TimerWebSocketController timerWebSocketController) {
+        this.liveGameRegistry = liveGameRegistry;
+        this.timerWebSocketController = timerWebSocketController;
+        this.flagFallScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "game-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flagFallScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Starts (or resumes after a restart) the clock of an active game from its persisted timers.
+     */
+    public void start(GameSession session) {
+        start(session, true);
+    }
+
+    /**
+     * Freezes the clock of a game about to leave ACTIVE into its timers and stops it.
+     */
+    public void pause(GameSession session) {
+        GameClock clock = clockFor(session);
+        stop(session.getGameId());
+        if (clock != null) {
+            synchronized (clock) {
+                session.setTimers(clock.toTimers(System.nanoTime()));
+            }
+        }
+    }
+
+    /**
+     * Restarts the clock of a game that is ACTIVE again from the timers frozen by {@link #pause}.
+     */
+    public void resume(GameSession session) {
+        GameClock clock = start(session, false);
+        if (clock != null) {
+            synchronized (clock) {
+                // Fresh write time, so a restart does not charge the pause either
+                session.setTimers(clock.toTimers(System.nanoTime()));
+            }
+        }
+    }
+
+    private GameClock start(GameSession session, boolean chargeSinceWrite) {
+        GameTimers timers = session.getTimers();
+        if (timers == null || session.getStatus() != GameStatus.ACTIVE) {
+            return null;
+        }
+        GameClock clock = new GameClock(session, System.nanoTime(), chargeSinceWrite);
+        GameClock previous = clocks.put(session.getGameId(), clock);
+        if (previous != null) {
+            previous.cancelFlagFall();
+        }
+        scheduleFlagFall(session.getGameId(), clock);
+        return clock;
+    }
+
+    /**
+     * Charges the elapsed turn time to {@code mover}, applies the increment, hands the clock
+     * to the opponent and writes the result into the session's timers.
+     */
+    public void switchTurn(GameSession session, PieceColor mover) {
+        GameClock clock = clockFor(session);
+        if (clock == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        synchronized (clock) {
+            if (clock.active == mover) {
+                long remaining = clock.remainingMs(mover, now);
+                remaining = Math.min(clock.defaultMs, remaining + clock.incrementMs);
+                clock.setRemaining(mover, remaining);
+            }
+            clock.active = mover == PieceColor.white ? PieceColor.black : PieceColor.white;
+            clock.turnStartNanos = now;
+            clock.flagged = false;
+            session.setTimers(clock.toTimers(now));
+        }
+        scheduleFlagFall(session.getGameId(), clock);
+    }
+
+    public GameTimers snapshot(GameSession session) {
+        GameClock clock = clockFor(session);
+        if (clock == null) {
+            return session.getTimers();
+        }
+        synchronized (clock) {
+            return clock.toTimers(System.nanoTime());
+        }
+    }
+
+    public void stop(String gameId) {
+        GameClock clock = clocks.remove(gameId);
+        if (clock != null) {
+            clock.cancelFlagFall();
+        }
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void broadcastClocks() {
+        for (GameSession session : liveGameRegistry.getActiveGames()) {
+            boolean updated = liveGameRegistry.withLock(session.getGameId(), () -> {
+                if (session.getStatus() != GameStatus.ACTIVE || !session.isActive()) {
+                    return false;
+                }
+                GameTimers timers = snapshot(session);
+                if (timers == null) {
+                    return false;
+                }
+                // Keep the in-memory copy current for readers; persisted only on move or flag fall
+                session.setTimers(timers);
+                return true;
+            });
+            if (updated) {
+                timerWebSocketController.broadcastTimerUpdate(session.getGameId(), session);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flagFallScheduler.shutdownNow();
+    }
+
+    private GameClock clockFor(GameSession session) {
+        GameClock clock = clocks.get(session.getGameId());
+        if (clock == null && session.getTimers() != null && session.getStatus() == GameStatus.ACTIVE) {
+            // Recovered game: resume from the persisted timers
+            start(session);
+            clock = clocks.get(session.getGameId());
+        }
+        return clock;
+    }
+
+    private void scheduleFlagFall(String gameId, GameClock clock) {
+        synchronized (clock) {
+            clock.cancelFlagFall();
+            if (clock.flagged) {
+                return;
+            }
+            long delayMs = clock.remainingMs(clock.active, System.nanoTime());
+            clock.flagFall = flagFallScheduler.schedule(() -> onFlagFall(gameId, clock),
+                    Math.max(0, delayMs), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void onFlagFall(String gameId, GameClock clock) {
+        if (clocks.get(gameId) != clock) {
+            return; // stopped or restarted meanwhile
+        }
+        GameSession session = liveGameRegistry.findById(gameId).orElse(null);
+        if (session == null || session.getStatus() != GameStatus.ACTIVE) {
+            stop(gameId);
+            return;
+        }
+        boolean flagged = liveGameRegistry.withLock(gameId, () -> {
+            long now = System.nanoTime();
+            synchronized (clock) {
+                if (clock.remainingMs(clock.active, now) > 0) {
+                    // A move raced the task; the newer schedule is authoritative
+                    return false;
+                }
+                clock.setRemaining(clock.active, 0);
+                clock.turnStartNanos = now;
+                clock.flagged = true;
+                session.setTimers(clock.toTimers(now));
+            }
+            liveGameRegistry.save(session);
+            logger.info("Flag fell for {} in game {}", clock.active, gameId);
+            return true;
+        });
+        if (!flagged) {
+            return;
+        }
+        // Frontend handles timeout events, backend only publishes the expired clock
+        timerWebSocketController.broadcastTimerUpdate(gameId, session);
+    }
+
+    private static final class GameClock {
+        final long defaultMs;
+        final long incrementMs;
+        long whiteMsAtTurnStart;
+        long blackMsAtTurnStart;
+        PieceColor active;
+        long turnStartNanos;
+        boolean flagged;
+        ScheduledFuture<?> flagFall;
+
+        GameClock(GameSession session, long nowNanos, boolean chargeSinceWrite) {
+            GameTimers timers = session.getTimers();
+            this.defaultMs = timers.getDefaultTime() * 1000L;
+            this.incrementMs = session.getIncrementSeconds() * 1000L;
+            this.whiteMsAtTurnStart = timers.getWhite().getTimeLeft() * 1000L;
+            this.blackMsAtTurnStart = timers.getBlack().getTimeLeft() * 1000L;
+            PieceColor turn = session.getGameState() != null ? session.getGameState().getCurrentTurn() : null;
+            this.active = turn != null ? turn : (timers.getBlack().isActive() ? PieceColor.black : PieceColor.white);
+            // Charge the time that passed since the timers were last written (e.g. across a restart)
+            long sinceWrite = chargeSinceWrite && timers.getServerTimeMs() != null
+                    ? Math.max(0, System.currentTimeMillis() - timers.getServerTimeMs()) : 0;
+            this.turnStartNanos = nowNanos - TimeUnit.MILLISECONDS.toNanos(sinceWrite);
+        }
+
+        long remainingMs(PieceColor color, long nowNanos) {
+            long atTurnStart = color == PieceColor.white ? whiteMsAtTurnStart : blackMsAtTurnStart;
+            if (color != active) {
+                return atTurnStart;
+            }
+            return Math.max(0, atTurnStart - TimeUnit.NANOSECONDS.toMillis(nowNanos - turnStartNanos));
+        }
+
+        void setRemaining(PieceColor color, long ms) {
+            if (color == PieceColor.white) {
+                whiteMsAtTurnStart = ms;
+            } else {
+                blackMsAtTurnStart = ms;
+            }
+        }
+
+        void cancelFlagFall() {
+            if (flagFall != null) {
+                flagFall.cancel(false);
+                flagFall = null;
+            }
+        }
+
+        GameTimers toTimers(long nowNanos) {
+            return GameTimers.builder()
+                    .defaultTime((int) (defaultMs / 1000))
+                    .white(PlayerTimer.builder()
+                            .timeLeft((int) Math.round(remainingMs(PieceColor.white, nowNanos) / 1000.0))
+                            .active(active == PieceColor.white)
+                            .build())
+                    .black(PlayerTimer.builder()
+                            .timeLeft((int) Math.round(remainingMs(PieceColor.black, nowNanos) / 1000.0))
+                            .active(active == PieceColor.black)
+                            .build())
+                    .serverTimeMs(System.currentTimeMillis())
+                    .build();
+        }
+    }
+}
@@ -7,6 +7,11 @@ import org.example.chessmystic.Models.Tracking.GameSession;
 import org.example.chessmystic.Repository.GameHistoryRepository;
 import org.example.chessmystic.Service.interfaces.GameRelated.IGameHistoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,10 +25,12 @@ import java.util.UUID;
 public class GameHistoryService implements IGameHistoryService {
 
     private final GameHistoryRepository gameHistoryRepository;
+    private final MongoTemplate mongoTemplate;
 
     @Autowired
-    public GameHistoryService(GameHistoryRepository gameHistoryRepository) {
+    public GameHistoryService(GameHistoryRepository gameHistoryRepository, MongoTemplate mongoTemplate) {
         this.gameHistoryRepository = gameHistoryRepository;
+        this.mongoTemplate = mongoTemplate;
     }
 
     @Transactional
@@ -57,13 +64,30 @@ public class GameHistoryService implements IGameHistoryService {
 
     @Transactional
     public GameHistory addPlayerAction(String gameHistoryId, String playerActionId) {
-        GameHistory history = gameHistoryRepository.findById(gameHistoryId)
-                .orElseThrow(() -> new RuntimeException("Game history not found"));
-        history.getPlayerActionIds().add(playerActionId);
-        gameHistoryRepository.save(history);
+        GameHistory history = mongoTemplate.findAndModify(byId(gameHistoryId), pushAction(playerActionId),
+                FindAndModifyOptions.options().returnNew(true), GameHistory.class);
+        if (history == null) {
+            throw new RuntimeException("Game history not found");
+        }
         return history;
     }
 
+    /**
+     * Same as {@link #addPlayerAction} without reading the history back; the cost does not
+     * depend on how many actions the game already has.
+     */
+    public void appendPlayerAction(String gameHistoryId, String playerActionId) {
+        mongoTemplate.updateFirst(byId(gameHistoryId), pushAction(playerActionId), GameHistory.class);
+    }
+
+    private static Query byId(String gameHistoryId) {
+        return Query.query(Criteria.where("_id").is(gameHistoryId));
+    }
+
+    private static Update pushAction(String playerActionId) {
+        return new Update().push("playerActionIds", playerActionId);
+    }
+
     @Transactional(readOnly = true)
     public Optional<GameHistory> findById(String id) {
         return gameHistoryRepository.findById(id);
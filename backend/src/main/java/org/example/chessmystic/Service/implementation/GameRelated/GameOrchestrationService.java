@@ -5,7 +5,6 @@ import java.util.UUID;
 import java.time.LocalDateTime;
 import org.example.chessmystic.Config.RabbitMQ.RabbitMQMessageService;
 import org.example.chessmystic.Models.GameStateandFlow.GameState;
-import org.example.chessmystic.Models.GameStateandFlow.GameTimers;
 import org.example.chessmystic.Models.Interactions.ActionType;
 import org.example.chessmystic.Models.Tracking.GameSession;
 import org.example.chessmystic.Models.chess.BoardPosition;
@@ -13,13 +12,14 @@ import org.example.chessmystic.Models.chess.Piece;
 import org.example.chessmystic.Models.chess.PieceColor;
 import org.example.chessmystic.Controller.TimerWebSocketController;
 import org.example.chessmystic.Service.implementation.GameEventProducer;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.BitboardPosition;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.BoardCodec;
+import org.example.chessmystic.Service.implementation.GameRelated.Engine.Move;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.example.chessmystic.Repository.GameSessionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
 import java.util.Map;
 
 @Service
@@ -36,24 +36,34 @@ public class GameOrchestrationService {
     private final PlayerActionService playerActionService;
     private final GameSessionService gameSessionService;
     private final TimerWebSocketController timerWebSocketController;
-    private final GameSessionRepository gameSessionRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final LiveGameRegistry liveGameRegistry;
+    private final GameClockService gameClockService;
+    private final SpectatorDelayService spectatorDelayService;
 
     @Autowired
     public GameOrchestrationService(ChessGameService chessGameService,
                                     PlayerActionService playerActionService,
                                     GameSessionService gameSessionService,
-                                    TimerWebSocketController timerWebSocketController, GameSessionRepository gameSessionRepository, SimpMessagingTemplate messagingTemplate) {
+                                    TimerWebSocketController timerWebSocketController, SimpMessagingTemplate messagingTemplate,
+                                    LiveGameRegistry liveGameRegistry, GameClockService gameClockService,
+                                    SpectatorDelayService spectatorDelayService) {
         this.chessGameService = chessGameService;
         this.playerActionService = playerActionService;
         this.gameSessionService = gameSessionService;
         this.timerWebSocketController = timerWebSocketController;
-        this.gameSessionRepository = gameSessionRepository;
         this.messagingTemplate = messagingTemplate;
+        this.liveGameRegistry = liveGameRegistry;
+        this.gameClockService = gameClockService;
+        this.spectatorDelayService = spectatorDelayService;
     }
 
     @Transactional
     public GameState executeMove(String gameId, BoardPosition move) {
+        return liveGameRegistry.withLock(gameId, () -> applyMove(gameId, move));
+    }
+
+    private GameState applyMove(String gameId, BoardPosition move) {
         System.out.println("Received move request: " +
                 "gameId=" + gameId +
                 ", from=[" + move.getRow() + "," + move.getCol() + "]" +
@@ -65,23 +75,6 @@ public class GameOrchestrationService {
 
         if (session.isEmpty()) {
             System.err.println("Game session not found for ID: " + gameId);
-            System.err.println("Available game sessions in database:");
-            try {
-                // Try to get all active games for debugging
-                var allSessions = gameSessionRepository.findAll();
-                System.err.println("Total game sessions in database: " + allSessions.size());
-                allSessions.forEach(s -> System.err.println("  - Game ID: " + s.getGameId() + ", Status: " + s.getStatus() + ", Created: " + s.getCreatedAt()));
-
-                // Also try to find by partial match
-                System.err.println("Searching for similar game IDs...");
-                allSessions.stream()
-                        .filter(s -> s.getGameId().contains(gameId.substring(0, 8)))
-                        .forEach(s -> System.err.println("  - Similar Game ID: " + s.getGameId()));
-
-            } catch (Exception e) {
-                System.err.println("Could not retrieve game sessions for debugging: " + e.getMessage());
-                e.printStackTrace();
-            }
             throw new IllegalArgumentException("Game session not found for ID: " + gameId);
         }
 
@@ -95,7 +88,8 @@ public class GameOrchestrationService {
         }
 
         System.out.println("About to validate move...");
-        if (!chessGameService.validateMove(gameId, move)) {
+        int engineMove = chessGameService.resolveMove(gameSession, move);
+        if (engineMove == Move.NONE) {
             System.err.println("Invalid move detected: " + move);
             System.out.println("Current turn: " + gameSession.getGameState().getCurrentTurn());
             Piece fromPiece = gameSession.getBoard()[move.getRow()][move.getCol()];
@@ -107,6 +101,8 @@ public class GameOrchestrationService {
             throw new IllegalArgumentException("Invalid move");
         }
         System.out.println("Move validation passed");
+        // Pre-move position, which updateGameState advances incrementally
+        BitboardPosition position = chessGameService.positionFor(gameSession);
 
         System.out.println("Getting game state and board...");
         GameState gameState = gameSession.getGameState();
@@ -147,45 +143,39 @@ public class GameOrchestrationService {
                 movingPiece, targetPiece, fromRow, fromCol, toRow, toCol, board);
         System.out.println("Action type determined: " + actionType);
 
-        System.out.println("Executing move on board...");
-        movingPiece.setHasMoved(true);
-        board[toRow][toCol] = movingPiece;
-        board[fromRow][fromCol] = null;
-
-        System.out.println("Handling special moves...");
-        chessGameService.handleSpecialMoves(gameState, movingPiece, fromRow, fromCol, toRow, toCol, board);
-
         System.out.println("Getting player ID...");
         String playerId = movingPiece.getColor() == PieceColor.white
                 ? gameSession.getWhitePlayer().getUserId()
                 : (gameSession.getBlackPlayer() != null ? gameSession.getBlackPlayer().getUserId() : null);
         System.out.println("Player ID: " + playerId);
 
+        // The session is the registry's live copy, which the next flush persists, so it is only
+        // touched once every write for the move has gone through
         System.out.println("Recording player action...");
         playerActionService.recordAction(
                 gameId, playerId, actionType, fromRow, fromCol, toRow, toCol,
                 gameSession.getGameHistoryId(), gameSession.getRpgGameStateId(), 0, null, 0, false, false);
         System.out.println("Player action recorded successfully");
 
+        System.out.println("Executing move on board...");
+        movingPiece.setHasMoved(true);
+        board[toRow][toCol] = movingPiece;
+        board[fromRow][fromCol] = null;
+
+        System.out.println("Handling special moves...");
+        chessGameService.handleSpecialMoves(gameState, movingPiece, fromRow, fromCol, toRow, toCol, board);
+
         System.out.println("Updating game state...");
-        chessGameService.updateGameState(gameState, board, gameSession.getGameMode());
+        chessGameService.updateGameState(gameState, position, engineMove, gameSession.getGameMode());
         System.out.println("Game state updated successfully");
 
         // Update timers
         System.out.println("Updating timers...");
-        GameTimers timers = gameSession.getTimers();
-        if (timers == null) {
+        if (gameSession.getTimers() == null) {
             System.err.println("Timers is null!");
             throw new IllegalArgumentException("Timers is null");
         }
-        if (gameState.getCurrentTurn() == PieceColor.white) {
-            timers.getBlack().setActive(false);
-            timers.getWhite().setActive(true);
-        } else {
-            timers.getWhite().setActive(false);
-            timers.getBlack().setActive(true);
-        }
-        gameSession.setTimers(timers);
+        gameClockService.switchTurn(gameSession, movingPiece.getColor());
         System.out.println("Timers updated successfully");
 
         System.out.println("Saving game session...");
@@ -216,28 +206,8 @@ public class GameOrchestrationService {
             }
         }
 
-        System.out.println("Cleaning up spectator sessions...");
-        if (gameSessionRepository.findById("SpecSession-" + gameSession.getGameId()).isPresent()) {
-            gameSessionRepository.removeByGameId("SpecSession-" + gameSession.getGameId());
-        }
-
-        System.out.println("Creating delayed game session...");
-        GameSession delayed = null;
-        try {
-            Duration spectatorDelay = Duration.ofMinutes(2);
-            delayed = RealtimeService.createTimeDelayedGameSession(gameId, spectatorDelay);
-        } catch (Exception e) {
-            System.err.println("Failed to create delayed game session: " + e.getMessage());
-            e.printStackTrace();
-        }
-
-        if (delayed != null) {
-            gameSessionService.saveSession(delayed);
-            messagingTemplate.convertAndSend("/topic/spectator-game-state/" + gameId, delayed.getGameState());
-            messagingTemplate.convertAndSend("/topic/timer-updates/" + gameId, delayed.getTimers());
-        } else {
-            System.out.println("No delayed game session needed (not enough moves)");
-        }
+        // Spectators see this position once it is older than the spectator delay
+        spectatorDelayService.recordMove(gameSession);
 
         System.out.println("Broadcasting timer update...");
         timerWebSocketController.broadcastTimerUpdate(gameId, gameSession);
@@ -295,7 +265,7 @@ public class GameOrchestrationService {
                 .winnerId(winnerId)
                 .totalMoves(gameState.getMoveCount())
                 .gameDurationMs(calculateGameDuration(gameSession))
-                .finalPosition(serializeBoard(gameSession.getBoard()))
+                .finalPosition(BoardCodec.toPlacement(gameSession.getBoard()))
                 .build();
     }
 
@@ -309,24 +279,6 @@ public class GameOrchestrationService {
         return 0;
     }
 
-    private String serializeBoard(Piece[][] board) {
-        // Simple board serialization - you can improve this
-        StringBuilder sb = new StringBuilder();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board[row][col];
-                if (piece != null) {
-                    sb.append(piece.getColor().toString().charAt(0))
-                            .append(piece.getType().toString().charAt(0));
-                } else {
-                    sb.append("--");
-                }
-            }
-        }
-        return sb.toString();
-    }
-
-
     private void printBoard(Piece[][] board) {
         System.out.println("Board state:");
         for (int row = 0; row < 8; row++) {
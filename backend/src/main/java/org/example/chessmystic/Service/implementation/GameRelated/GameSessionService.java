@@ -1,5 +1,6 @@
 package org.example.chessmystic.Service.implementation.GameRelated;
 
+import org.example.chessmystic.Models.APIContacts.UserDTO.UserSummaryDTO;
 import org.example.chessmystic.Models.GameStateandFlow.*;
 import org.example.chessmystic.Models.Mechanics.RPGGameState;
 import org.example.chessmystic.Models.Stats.PlayerGameStats;
@@ -12,17 +13,24 @@ import org.example.chessmystic.Models.Tracking.GameSession;
 import org.example.chessmystic.Models.Tracking.GameHistory;
 import org.example.chessmystic.Models.Tracking.GameResult;
 import org.example.chessmystic.Models.Tracking.PlayerSessionInfo;
+import org.example.chessmystic.Models.UserManagement.User;
 import org.example.chessmystic.Repository.GameSessionRepository;
 import org.example.chessmystic.Repository.PlayerProfileRepository;
 import org.example.chessmystic.Repository.RPGGameStateRepository;
-import org.example.chessmystic.Repository.UserRepository;
+import org.example.chessmystic.Service.implementation.PresenceService;
 import org.example.chessmystic.Service.implementation.UserService;
+import org.example.chessmystic.Service.implementation.UserSummaryCache;
 import org.example.chessmystic.Service.interfaces.GameRelated.IGameSessionService;
 import org.example.chessmystic.Controller.TimerWebSocketController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,32 +49,62 @@ public class GameSessionService implements IGameSessionService {
     private final UserService userService;
     private final GameHistoryService gameHistoryService;
     private final PlayerProfileRepository playerProfileRepository;
-    private final UserRepository userRepository;
     private final RPGGameStateRepository rpgGameStateRepository;
     private final TimerWebSocketController timerWebSocketController;
     private final SimpMessagingTemplate messagingTemplate;
+    private final LiveGameRegistry liveGameRegistry;
+    private final GameClockService gameClockService;
 
     @Autowired
     private GameEventProducer gameEventProducer;
 
+    @Autowired
+    private ActionSequenceAllocator actionSequenceAllocator;
+
+    @Autowired
+    private UserSummaryCache userSummaryCache;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PresenceService presenceService;
+
+    @Value("${chess.game-sessions.state-id-cache-size:10000}")
+    private int stateIdCacheSize;
+
+    @Value("${chess.game-sessions.max-results:100}")
+    private int maxResults;
+
+    // gamestateId -> gameId, least recently used evicted first; a game keeps its state id for life
+    private final Map<String, String> gameIdsByStateId = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > stateIdCacheSize;
+                }
+            });
+
     @Autowired
     public GameSessionService(GameSessionRepository gameSessionRepository,
                               UserService userService,
                               GameHistoryService gameHistoryService,
                               ChessGameService chessGameService,
                               PlayerProfileRepository playerProfileRepository,
-                              UserRepository userRepository,
                               RPGGameStateRepository rpgGameStateRepository,
                               TimerWebSocketController timerWebSocketController,
-                              SimpMessagingTemplate messagingTemplate) {
+                              SimpMessagingTemplate messagingTemplate,
+                              LiveGameRegistry liveGameRegistry,
+                              GameClockService gameClockService) {
         this.gameSessionRepository = gameSessionRepository;
         this.userService = userService;
         this.gameHistoryService = gameHistoryService;
         this.playerProfileRepository = playerProfileRepository;
-        this.userRepository = userRepository;
         this.rpgGameStateRepository = rpgGameStateRepository;
         this.timerWebSocketController = timerWebSocketController;
         this.messagingTemplate = messagingTemplate;
+        this.liveGameRegistry = liveGameRegistry;
+        this.gameClockService = gameClockService;
     }
 
     @Override
@@ -130,10 +168,11 @@ public class GameSessionService implements IGameSessionService {
             session.setStartedAt(LocalDateTime.now());
             GameHistory gameHistory = gameHistoryService.createGameHistory(session);
             session.setGameHistoryId(gameHistory.getId());
-            session = gameSessionRepository.save(session);
+            session = liveGameRegistry.save(session);
         }
 
-        GameSession savedSession = gameSessionRepository.save(session);
+        GameSession savedSession = liveGameRegistry.save(session);
+        gameClockService.start(savedSession);
         logger.info("Game session created and saved: ID={}, Status={}, Mode={}", 
                    savedSession.getGameId(), savedSession.getStatus(), savedSession.getGameMode());
         return savedSession;
@@ -142,7 +181,7 @@ public class GameSessionService implements IGameSessionService {
     @Override
     public Optional<GameSession> findById(String gameId) {
         logger.info("Searching for game session with ID: {}", gameId);
-        Optional<GameSession> result = gameSessionRepository.findById(gameId);
+        Optional<GameSession> result = liveGameRegistry.findById(gameId);
         if (result.isPresent()) {
             logger.info("Game session found: ID={}, Status={}, Mode={}", 
                        result.get().getGameId(), result.get().getStatus(), result.get().getGameMode());
@@ -160,178 +199,180 @@ public class GameSessionService implements IGameSessionService {
     @Override
     @Transactional
     public GameSession joinGame(String gameId, String playerId, String inviteCode) {
-        GameSession session = gameSessionRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
+        return liveGameRegistry.withLock(gameId, () -> {
+            GameSession session = liveGameRegistry.findById(gameId)
+                    .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
 
-        if (session.getStatus() != GameStatus.WAITING_FOR_PLAYERS) {
-            throw new RuntimeException("Game is not accepting new players");
-        }
+            if (session.getStatus() != GameStatus.WAITING_FOR_PLAYERS) {
+                throw new RuntimeException("Game is not accepting new players");
+            }
 
-        if (session.isPrivate() && (inviteCode == null || !inviteCode.equals(session.getInviteCode()))) {
-            throw new RuntimeException("Invalid invite code");
-        }
+            if (session.isPrivate() && (inviteCode == null || !inviteCode.equals(session.getInviteCode()))) {
+                throw new RuntimeException("Invalid invite code");
+            }
 
-        if (session.getPlayerIds().contains(playerId)) {
-            throw new RuntimeException("Player is already in the game");
-        }
+            if (session.getPlayerIds().contains(playerId)) {
+                throw new RuntimeException("Player is already in the game");
+            }
 
-        // For non-RPG multiplayer: capacity 2; for MULTIPLAYER_RPG: cap 5 total players (1 white + 1 black + others)
-        if (session.getGameMode() != GameMode.MULTIPLAYER_RPG && session.getBlackPlayer() != null) {
-            throw new RuntimeException("Game is already full");
-        }
-        if (session.getGameMode() == GameMode.MULTIPLAYER_RPG) {
-            int currentCount = 1 + (session.getBlackPlayer() == null ? 0 : 1) + (session.getOtherPlayers() == null ? 0 : session.getOtherPlayers().size());
-            if (currentCount >= 5) {
-                throw new RuntimeException("RPG session is full (max 5 players)");
+            // For non-RPG multiplayer: capacity 2; for MULTIPLAYER_RPG: cap 5 total players (1 white + 1 black + others)
+            if (session.getGameMode() != GameMode.MULTIPLAYER_RPG && session.getBlackPlayer() != null) {
+                throw new RuntimeException("Game is already full");
+            }
+            if (session.getGameMode() == GameMode.MULTIPLAYER_RPG) {
+                int currentCount = 1 + (session.getBlackPlayer() == null ? 0 : 1) + (session.getOtherPlayers() == null ? 0 : session.getOtherPlayers().size());
+                if (currentCount >= 5) {
+                    throw new RuntimeException("RPG session is full (max 5 players)");
+                }
             }
-        }
 
-        var user = userService.findById(playerId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + playerId));
+            var user = userService.findById(playerId)
+                    .orElseThrow(() -> new RuntimeException("User not found with id: " + playerId));
 
-        PlayerSessionInfo playerInfo = PlayerSessionInfo.builder()
-                .id(UUID.randomUUID().toString())
-                .userId(playerId)
-                .keycloakId(user.getKeycloakId())
-                .username(user.getUsername())
-                .displayName(user.getFirstName() + " " + user.getLastName())
-                .isConnected(true)
-                .lastSeen(LocalDateTime.now())
-                .build();
+            PlayerSessionInfo playerInfo = PlayerSessionInfo.builder()
+                    .id(UUID.randomUUID().toString())
+                    .userId(playerId)
+                    .keycloakId(user.getKeycloakId())
+                    .username(user.getUsername())
+                    .displayName(user.getFirstName() + " " + user.getLastName())
+                    .isConnected(true)
+                    .lastSeen(LocalDateTime.now())
+                    .build();
 
-        if (session.getGameMode() == GameMode.MULTIPLAYER_RPG) {
-            if (session.getBlackPlayer() == null) {
-                // First joining player becomes black
-                session.setBlackPlayer(playerInfo);
+            if (session.getGameMode() == GameMode.MULTIPLAYER_RPG) {
+                if (session.getBlackPlayer() == null) {
+                    // First joining player becomes black
+                    session.setBlackPlayer(playerInfo);
+                } else {
+                    if (session.getOtherPlayers() == null) session.setOtherPlayers(new ArrayList<>());
+                    session.getOtherPlayers().add(playerInfo);
+                }
             } else {
-                if (session.getOtherPlayers() == null) session.setOtherPlayers(new ArrayList<>());
-                session.getOtherPlayers().add(playerInfo);
+                session.setBlackPlayer(playerInfo);
             }
-        } else {
-            session.setBlackPlayer(playerInfo);
-        }
-        session.getPlayerLastSeen().put(playerId, LocalDateTime.now());
+            session.getPlayerLastSeen().put(playerId, LocalDateTime.now());
 
-        return gameSessionRepository.save(session);
+            return liveGameRegistry.save(session);
+        });
     }
 
     @Override
     @Transactional
     public GameSession startGame(String gameId) {
-        GameSession session = gameSessionRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
+        return liveGameRegistry.withLock(gameId, () -> {
+            GameSession session = liveGameRegistry.findById(gameId)
+                    .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
 
-        if (session.getGameMode() == GameMode.CLASSIC_SINGLE_PLAYER) {
-            if (session.getWhitePlayer() == null) {
-                throw new RuntimeException("White player not assigned for single-player game");
-            }
-        } else {
-            if (session.getWhitePlayer() == null || session.getBlackPlayer() == null) {
-                throw new RuntimeException("Cannot start game without at least two players");
+            if (session.getGameMode() == GameMode.CLASSIC_SINGLE_PLAYER) {
+                if (session.getWhitePlayer() == null) {
+                    throw new RuntimeException("White player not assigned for single-player game");
+                }
+            } else {
+                if (session.getWhitePlayer() == null || session.getBlackPlayer() == null) {
+                    throw new RuntimeException("Cannot start game without at least two players");
+                }
             }
-        }
-
-        if (session.getStatus() == GameStatus.ACTIVE) {
-            logger.warn("Game {} is already active, no action needed.", gameId);
-            return session;
-        }
 
-        if (session.getStatus() != GameStatus.WAITING_FOR_PLAYERS) {
-            throw new RuntimeException("Game is not in WAITING_FOR_PLAYERS state");
-        }
+            if (session.getStatus() == GameStatus.ACTIVE) {
+                logger.warn("Game {} is already active, no action needed.", gameId);
+                return session;
+            }
 
-        session.setStatus(GameStatus.ACTIVE);
-        session.setStartedAt(LocalDateTime.now());
-        session.setLastActivity(LocalDateTime.now());
+            if (session.getStatus() != GameStatus.WAITING_FOR_PLAYERS) {
+                throw new RuntimeException("Game is not in WAITING_FOR_PLAYERS state");
+            }
 
-        initializeGameState(session);
+            session.setStatus(GameStatus.ACTIVE);
+            session.setStartedAt(LocalDateTime.now());
+            session.setLastActivity(LocalDateTime.now());
 
-        GameHistory gameHistory = gameHistoryService.createGameHistory(session);
-        session.setGameHistoryId(gameHistory.getId());
+            initializeGameState(session);
 
-        try {
-            String opponentId = session.getBlackPlayer() != null ? session.getBlackPlayer().getUserId() : null;
+            GameHistory gameHistory = gameHistoryService.createGameHistory(session);
+            session.setGameHistoryId(gameHistory.getId());
 
-            GameStartEvent gameStartEvent = GameStartEvent.builder()
-                    .eventId(UUID.randomUUID().toString())
-                    .gameId(gameId)
-                    .playerId(session.getWhitePlayer().getUserId())
-                    .timestamp(System.currentTimeMillis())
-                    .eventType("GAME_START")
-                    .opponentId(opponentId)
-                    .gameMode(session.getGameMode().toString())
-                    .timeControlMinutes(session.getTimeControlMinutes())
-                    .openingDetected("UNKNOWN") // You can implement opening detection
-                    .build();
+            try {
+                String opponentId = session.getBlackPlayer() != null ? session.getBlackPlayer().getUserId() : null;
+
+                GameStartEvent gameStartEvent = GameStartEvent.builder()
+                        .eventId(UUID.randomUUID().toString())
+                        .gameId(gameId)
+                        .playerId(session.getWhitePlayer().getUserId())
+                        .timestamp(System.currentTimeMillis())
+                        .eventType("GAME_START")
+                        .opponentId(opponentId)
+                        .gameMode(session.getGameMode().toString())
+                        .timeControlMinutes(session.getTimeControlMinutes())
+                        .openingDetected("UNKNOWN") // You can implement opening detection
+                        .build();
 
-            gameEventProducer.publishGameStartEvent(gameStartEvent);
-            logger.info("Game start event published to Kafka successfully");
-        } catch (Exception e) {
-            logger.error("Failed to publish game start event to Kafka: {}", e.getMessage());
-        }
+                gameEventProducer.publishGameStartEvent(gameStartEvent);
+                logger.info("Game start event published to Kafka successfully");
+            } catch (Exception e) {
+                logger.error("Failed to publish game start event to Kafka: {}", e.getMessage());
+            }
 
-        GameSession updatedSession = gameSessionRepository.save(session);
-        timerWebSocketController.broadcastTimerUpdate(gameId, updatedSession);
-        logger.info("Game started: {}", gameId);
-        return updatedSession;
+            GameSession updatedSession = liveGameRegistry.save(session);
+            gameClockService.start(updatedSession);
+            timerWebSocketController.broadcastTimerUpdate(gameId, updatedSession);
+            logger.info("Game started: {}", gameId);
+            return updatedSession;
+        });
     }
 
     @Override
     @Transactional
     public GameSession endGame(String gameId, String winnerId, boolean isDraw, TieResolutionOption tieOption, GameEndReason reason) {
-        GameSession session = gameSessionRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
-        GameSession Delayedsession = gameSessionRepository.findById("SpecSession-"+gameId)
-                .orElseThrow(() -> new RuntimeException("Delayed Game session not found with id: " + gameId));
-    
-        logger.info("endGame called for game {} - current status: {}, requested winnerId: {}, isDraw: {}, reason: {}",
-                gameId, session.getStatus(), winnerId, isDraw, reason);
-    
-        if (session.getStatus() == GameStatus.COMPLETED) {
-            logger.info("Game {} already completed, skipping update", gameId);
-            return session;
-        }
-        if (session.getStatus() != GameStatus.ACTIVE) {
-            throw new RuntimeException("Game is not active and cannot be ended");
-        }
-        session.setStatus(GameStatus.COMPLETED);
-        session.setLastActivity(LocalDateTime.now());
-        session.setActive(false);
-        Delayedsession.setStatus(GameStatus.COMPLETED);
-        Delayedsession.setLastActivity(LocalDateTime.now());
-        Delayedsession.setActive(false);
-    
-        if (session.getTimers() != null) {
-            session.getTimers().getWhite().setActive(false);
-            session.getTimers().getBlack().setActive(false);
-            Delayedsession.getTimers().getWhite().setActive(false);
-            Delayedsession.getTimers().getBlack().setActive(false);
-        }
-    
-        GameResult result = buildGameResult(session, isDraw ? null : winnerId, isDraw, tieOption, reason);
-        updatePlayerStats(session, winnerId, isDraw, result);
-        // AFTER stats are updated (streaks), apply ranked points on the backend
-        applyRankedPoints(session, winnerId, isDraw, result.getGameEndReason());
-    
-        gameHistoryService.updateGameHistory(session.getGameHistoryId(), result, LocalDateTime.now());
-        GameSession updatedSession = gameSessionRepository.save(session);
-    
-        gameSessionRepository.save(Delayedsession);
-        logger.info("Game ended: {} with status {}", gameId, updatedSession.getStatus());
-
-        // Notify all subscribers that this game has ended so clients can close/unsubscribe
-        try {
-            messagingTemplate.convertAndSend("/exchange/amq.topic/game." + gameId + ".ended",
-                    Map.of(
-                            "gameId", gameId,
-                            "status", updatedSession.getStatus().name(),
-                            "winnerId", winnerId,
-                            "isDraw", isDraw
-                    ));
-        } catch (Exception ex) {
-            logger.warn("Failed to broadcast game end event for {}: {}", gameId, ex.getMessage());
-        }
-        return updatedSession;
+        return liveGameRegistry.withLock(gameId, () -> {
+            GameSession session = liveGameRegistry.findById(gameId)
+                    .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
+
+            logger.info("endGame called for game {} - current status: {}, requested winnerId: {}, isDraw: {}, reason: {}",
+                    gameId, session.getStatus(), winnerId, isDraw, reason);
+
+            if (session.getStatus() == GameStatus.COMPLETED) {
+                logger.info("Game {} already completed, skipping update", gameId);
+                return session;
+            }
+            if (session.getStatus() != GameStatus.ACTIVE) {
+                throw new RuntimeException("Game is not active and cannot be ended");
+            }
+            gameClockService.stop(gameId);
+            actionSequenceAllocator.release(gameId);
+            session.setStatus(GameStatus.COMPLETED);
+            session.setLastActivity(LocalDateTime.now());
+            session.setActive(false);
+
+            if (session.getTimers() != null) {
+                session.getTimers().getWhite().setActive(false);
+                session.getTimers().getBlack().setActive(false);
+            }
+
+            GameResult result = buildGameResult(session, isDraw ? null : winnerId, isDraw, tieOption, reason);
+            updatePlayerStats(session, winnerId, isDraw, result);
+            // AFTER stats are updated (streaks), apply ranked points on the backend
+            applyRankedPoints(session, winnerId, isDraw, result.getGameEndReason());
+
+            gameHistoryService.updateGameHistory(session.getGameHistoryId(), result, LocalDateTime.now());
+            GameSession updatedSession = liveGameRegistry.save(session);
+            presenceService.gameEnded(gameId, session.getPlayerIds());
+
+            logger.info("Game ended: {} with status {}", gameId, updatedSession.getStatus());
+
+            // Notify all subscribers that this game has ended so clients can close/unsubscribe
+            try {
+                messagingTemplate.convertAndSend("/exchange/amq.topic/game." + gameId + ".ended",
+                        Map.of(
+                                "gameId", gameId,
+                                "status", updatedSession.getStatus().name(),
+                                "winnerId", winnerId,
+                                "isDraw", isDraw
+                        ));
+            } catch (Exception ex) {
+                logger.warn("Failed to broadcast game end event for {}: {}", gameId, ex.getMessage());
+            }
+            return updatedSession;
+        });
     }
 
     private void applyRankedPoints(GameSession session, String winnerId, boolean isDraw, GameEndReason endReason) {
@@ -377,46 +418,11 @@ public class GameSessionService implements IGameSessionService {
 
             int totalDelta = basePoints + streakBonus;
 
-            userService.findById(playerId).ifPresent(user -> {
-                int currentPoints = user.getPoints();
-                user.setPoints(currentPoints + totalDelta);
-                userRepository.save(user);
-            });
-        }
-    }
-
-    @Scheduled(fixedRate = 1000) // Every second
-    public void updateTimers() {
-        List<GameSession> activeSessions = gameSessionRepository.findByStatus(GameStatus.ACTIVE);
-        if (!activeSessions.isEmpty()) {
-            logger.debug("Processing {} active game sessions for timer updates", activeSessions.size());
-        }
-        
-        for (GameSession session : activeSessions) {
-            // Double-check that the session is still active before processing
-            if (session.getStatus() != GameStatus.ACTIVE || session.isActive() == false) {
-                logger.debug("Skipping game {} - status: {}, active: {}", 
-                           session.getGameId(), session.getStatus(), session.isActive());
-                continue; // Skip if status changed or game is not active
-            }
-            
-            GameTimers timers = session.getTimers();
-            GameState gameState = session.getGameState();
-            if (timers == null || gameState == null) continue;
-
-            if (gameState.getCurrentTurn() == PieceColor.white && timers.getWhite().isActive()) {
-                int newTime = timers.getWhite().getTimeLeft() - 1;
-                timers.getWhite().setTimeLeft(Math.max(0, newTime));
-                // Frontend handles timeout events, backend only updates timer
-            } else if (gameState.getCurrentTurn() == PieceColor.black && timers.getBlack().isActive()) {
-                int newTime = timers.getBlack().getTimeLeft() - 1;
-                timers.getBlack().setTimeLeft(Math.max(0, newTime));
-                // Frontend handles timeout events, backend only updates timer
-            }
-
-            session.setTimers(timers);
-            gameSessionRepository.save(session);
-            timerWebSocketController.broadcastTimerUpdate(session.getGameId(), session);
+            try {
+                userService.updateUserPoints(playerId, totalDelta);
+            } catch (RuntimeException e) {
+                logger.warn("Could not apply {} ranked points to {}: {}", totalDelta, playerId, e.getMessage());
+            }
         }
     }
 
@@ -432,9 +438,9 @@ public class GameSessionService implements IGameSessionService {
             GameEndReason endReason = (reason != null) ? reason : GameEndReason.checkmate;
             resultBuilder.gameEndReason(endReason);
     
-            var winner = "BOT".equals(winnerId) ? null : userService.findById(winnerId).orElse(null);
+            var winner = "BOT".equals(winnerId) ? null : userSummaryCache.get(winnerId).orElse(null);
             if (winner != null) {
-                resultBuilder.winnerName(winner.getFirstName() + " " + winner.getLastName())
+                resultBuilder.winnerName(winner.getDisplayName())
                         .winner(session.getWhitePlayer().getUserId().equals(winnerId) ? PieceColor.white : PieceColor.black);
             } else if ("BOT".equals(winnerId)) {
                 resultBuilder.winnerName("Chess Bot")
@@ -447,7 +453,7 @@ public class GameSessionService implements IGameSessionService {
                 String resolvedWinnerId = playerIds.get(new Random().nextInt(playerIds.size()));
                 resultBuilder.winnerid(resolvedWinnerId)
                         .winner(session.getWhitePlayer().getUserId().equals(resolvedWinnerId) ? PieceColor.white : PieceColor.black)
-                        .winnerName(userService.findById(resolvedWinnerId).map(u -> u.getFirstName() + " " + u.getLastName()).orElse("Unknown"))
+                        .winnerName(userSummaryCache.get(resolvedWinnerId).map(UserSummaryDTO::getDisplayName).orElse("Unknown"))
                         .gameEndReason(GameEndReason.tie_resolved)
                         .tieResolutionOption(tieOption);
             }
@@ -531,10 +537,9 @@ public class GameSessionService implements IGameSessionService {
 
             playerProfileRepository.save(profile);
 
-            userService.findById(playerId).ifPresent(user -> {
-                user.setGameStats(finalStats);
-                userRepository.save(user);
-            });
+            // Only the stats: saving the whole user would overwrite points changed meanwhile
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(playerId)),
+                    new Update().set("gameStats", finalStats), User.class);
 // Points will be calculated and updated by frontend based on streak
             logger.info("Processing player: {}, isWinner: {}, isDraw: {}, ranked: {} - Points will be calculated by frontend", playerId, isWinner, isDraw, session.isRankedMatch());
         }
@@ -554,60 +559,82 @@ public class GameSessionService implements IGameSessionService {
     @Override
     @Transactional
     public GameSession updateGameStatus(String gameId, GameStatus status) {
-        GameSession session = gameSessionRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
+        return liveGameRegistry.withLock(gameId, () -> {
+            GameSession session = liveGameRegistry.findById(gameId)
+                    .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
 
-        session.setStatus(status);
-        session.setLastActivity(LocalDateTime.now());
-        return gameSessionRepository.save(session);
+            GameStatus previous = session.getStatus();
+            if (previous == GameStatus.ACTIVE && status != GameStatus.ACTIVE) {
+                gameClockService.pause(session);
+            }
+            session.setStatus(status);
+            session.setLastActivity(LocalDateTime.now());
+            if (previous != GameStatus.ACTIVE && status == GameStatus.ACTIVE) {
+                gameClockService.resume(session);
+            } else if (status != GameStatus.ACTIVE) {
+                gameClockService.stop(gameId);
+            }
+            GameSession updatedSession = liveGameRegistry.save(session);
+            if (status == GameStatus.COMPLETED || status == GameStatus.ABANDONED || status == GameStatus.TIMEOUT) {
+                presenceService.gameEnded(gameId, session.getPlayerIds());
+            }
+            return updatedSession;
+        });
     }
 
     @Override
-    @Transactional
     public void updatePlayerLastSeen(String gameId, String playerId) {
-        GameSession session = gameSessionRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
+        // Heartbeats only count for a game in progress here, and never cost a Mongo read
+        GameSession session = liveGameRegistry.findLive(gameId)
+                .filter(live -> live.getStatus() == GameStatus.ACTIVE)
+                .orElseThrow(() -> new RuntimeException("No game in progress with id: " + gameId));
 
         if (!session.getPlayerIds().contains(playerId)) {
             throw new RuntimeException("Player not part of this game session");
         }
 
-        session.getPlayerLastSeen().put(playerId, LocalDateTime.now());
-        session.setLastActivity(LocalDateTime.now());
-        gameSessionRepository.save(session);
+        // Written with other heartbeats in the presence service's next flush
+        presenceService.gameHeartbeat(gameId, playerId);
     }
 
     @Override
     @Transactional
     public GameSession reconnectPlayer(String gameId, String playerId) {
-        GameSession session = gameSessionRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
-
-        if (session.getWhitePlayer() != null && session.getWhitePlayer().getUserId().equals(playerId)) {
-            session.getWhitePlayer().setConnected(true);
-            session.getWhitePlayer().setLastSeen(LocalDateTime.now());
-        } else if (session.getBlackPlayer() != null && session.getBlackPlayer().getUserId().equals(playerId)) {
-            session.getBlackPlayer().setConnected(true);
-            session.getBlackPlayer().setLastSeen(LocalDateTime.now());
-        } else if (session.getOtherPlayers() != null && session.getOtherPlayers().stream().anyMatch(p -> p.getUserId().equals(playerId))) {
-            session.getOtherPlayers().stream()
-                    .filter(p -> p.getUserId().equals(playerId))
-                    .findFirst()
-                    .ifPresent(p -> {
-                        p.setConnected(true);
-                        p.setLastSeen(LocalDateTime.now());
-                    });
-        } else {
-            throw new RuntimeException("Player not part of this game session");
-        }
+        return liveGameRegistry.withLock(gameId, () -> {
+            GameSession session = liveGameRegistry.findById(gameId)
+                    .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
+
+            if (session.getWhitePlayer() != null && session.getWhitePlayer().getUserId().equals(playerId)) {
+                session.getWhitePlayer().setConnected(true);
+                session.getWhitePlayer().setLastSeen(LocalDateTime.now());
+            } else if (session.getBlackPlayer() != null && session.getBlackPlayer().getUserId().equals(playerId)) {
+                session.getBlackPlayer().setConnected(true);
+                session.getBlackPlayer().setLastSeen(LocalDateTime.now());
+            } else if (session.getOtherPlayers() != null && session.getOtherPlayers().stream().anyMatch(p -> p.getUserId().equals(playerId))) {
+                session.getOtherPlayers().stream()
+                        .filter(p -> p.getUserId().equals(playerId))
+                        .findFirst()
+                        .ifPresent(p -> {
+                            p.setConnected(true);
+                            p.setLastSeen(LocalDateTime.now());
+                        });
+            } else {
+                throw new RuntimeException("Player not part of this game session");
+            }
 
-        updatePlayerLastSeen(gameId, playerId);
-        return gameSessionRepository.save(session);
+            if (session.getPlayerLastSeen() == null) {
+                session.setPlayerLastSeen(new HashMap<>());
+            }
+            session.getPlayerLastSeen().put(playerId, LocalDateTime.now());
+            session.setLastActivity(LocalDateTime.now());
+            presenceService.heartbeat(null, playerId, gameId, false);
+            return liveGameRegistry.save(session);
+        });
     }
 
     @Override
     public List<GameSession> findGamesByMode(GameMode gameMode) {
-        return gameSessionRepository.findByGameMode(gameMode);
+        return gameSessionRepository.findByGameModeOrderByCreatedAtDesc(gameMode, PageRequest.of(0, maxResults));
     }
 
     private void initializeGameState(GameSession session) {
@@ -637,6 +664,8 @@ public class GameSessionService implements IGameSessionService {
                 .build();
 
         session.setGameState(gameState);
+        // Not in game_sessions until the registry flushes it, so record it for lookups now
+        gameIdsByStateId.put(gameState.getGamestateId(), session.getGameId());
         session.setTimers(timers);
         session.setBoard(initializeStandardChessBoard());
     }
@@ -684,61 +713,73 @@ public class GameSessionService implements IGameSessionService {
 
     @Override
     public GameSession getGameSessionByGameStateId(String gameStateId) {
-        for (GameSession gameSession : gameSessionRepository.findAll()) {
-            if (gameSession.getGameState() != null &&
-                    gameSession.getGameState().getGamestateId() != null &&
-                    gameSession.getGameState().getGamestateId().equals(gameStateId)) {
-                return gameSession;
+        String gameId = gameIdsByStateId.get(gameStateId);
+        if (gameId == null) {
+            gameId = gameSessionRepository.findGameIdByGameStateId(gameStateId)
+                    .map(GameSession::getGameId)
+                    .orElse(null);
+            if (gameId == null) {
+                return null;
             }
+            gameIdsByStateId.put(gameStateId, gameId);
         }
-        return null;
+
+        GameSession session = liveGameRegistry.findById(gameId).orElse(null);
+        if (session == null) {
+            gameIdsByStateId.remove(gameStateId);
+        }
+        return session;
     }
 
     @Override
     @Transactional
     public void saveSession(GameSession session) {
-        gameSessionRepository.save(session);
+        liveGameRegistry.save(session);
     }
 
 
     @Transactional
     @Override
     public void isJoinedSpectating(String gameId, String playerId) {
-        var session = gameSessionRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
-        if (!session.isAllowSpectators()) return;
-
-        if (session.getStartedAt() == null ||
-                java.time.LocalDateTime.now().isBefore(session.getStartedAt().plusMinutes(2))) {
-            throw new RuntimeException("Spectating not available yet. Please wait 2 minutes after game start.");
-        }
+        liveGameRegistry.withLock(gameId, () -> {
+            var session = liveGameRegistry.findById(gameId)
+                    .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
+            if (!session.isAllowSpectators()) return;
+
+            if (session.getStartedAt() == null ||
+                    java.time.LocalDateTime.now().isBefore(session.getStartedAt().plusMinutes(2))) {
+                throw new RuntimeException("Spectating not available yet. Please wait 2 minutes after game start.");
+            }
 
-        if (session.getSpectatorIds() == null) {
-            session.setSpectatorIds(new java.util.ArrayList<>());
-        }
-        if (!session.getSpectatorIds().contains(playerId)) {
-            session.getSpectatorIds().add(playerId);
-            gameSessionRepository.save(session);
-        }
+            if (session.getSpectatorIds() == null) {
+                session.setSpectatorIds(new java.util.ArrayList<>());
+            }
+            if (!session.getSpectatorIds().contains(playerId)) {
+                session.getSpectatorIds().add(playerId);
+                liveGameRegistry.save(session);
+            }
+        });
     }
 
     @Transactional
     @Override
     public void isLeftSpectating(String gameId, String playerId) {
-        GameSession session = gameSessionRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
-        if (session.isAllowSpectators() && session.getSpectatorIds() != null) {
-            boolean removed = session.getSpectatorIds().remove(playerId);
-            if (removed) {
-                gameSessionRepository.save(session);
+        liveGameRegistry.withLock(gameId, () -> {
+            GameSession session = liveGameRegistry.findById(gameId)
+                    .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
+            if (session.isAllowSpectators() && session.getSpectatorIds() != null) {
+                boolean removed = session.getSpectatorIds().remove(playerId);
+                if (removed) {
+                    liveGameRegistry.save(session);
+                }
             }
-        }
+        });
     }
 
     @Transactional
     @Override
     public List<String> getAllSpectators(String gameId){
-        GameSession session = gameSessionRepository.findById(gameId)
+        GameSession session = liveGameRegistry.findById(gameId)
                 .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
         return session.getSpectatorIds();
     }
@@ -746,19 +787,23 @@ public class GameSessionService implements IGameSessionService {
     @Transactional
     @Override
     public void offSpectatorMode(String gameId){
-        GameSession session = gameSessionRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
-        session.setAllowSpectators(false);
-        gameSessionRepository.save(session);
+        liveGameRegistry.withLock(gameId, () -> {
+            GameSession session = liveGameRegistry.findById(gameId)
+                    .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
+            session.setAllowSpectators(false);
+            liveGameRegistry.save(session);
+        });
     }
 
     @Transactional
     @Override
     public void onSpectatorMode(String gameId){
-        GameSession session = gameSessionRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
-        session.setAllowSpectators(true);
-        gameSessionRepository.save(session);
+        liveGameRegistry.withLock(gameId, () -> {
+            GameSession session = liveGameRegistry.findById(gameId)
+                    .orElseThrow(() -> new RuntimeException("Game session not found with id: " + gameId));
+            session.setAllowSpectators(true);
+            liveGameRegistry.save(session);
+        });
     }
 
 }
@@ -0,0 +1,378 @@
+package org.example.chessmystic.Service.implementation.GameRelated;
+
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.example.chessmystic.Models.GameStateandFlow.GameMode;
+import org.example.chessmystic.Models.GameStateandFlow.GameStatus;
+import org.example.chessmystic.Models.KafkaEvents.OutboxEvent;
+import org.example.chessmystic.Models.Tracking.GameSession;
+import org.example.chessmystic.Repository.GameSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Authoritative in-process copy of every active classic game. Reads during a game are
+ * served from memory; saves only mark the game dirty and a scheduled flush writes all
+ * dirty games to {@code game_sessions} in one bulk operation, so a game that moves
+ * several times between flushes costs a single write.
+ *
+ * Sessions leave the registry as soon as they are saved with a non-ACTIVE status; that
+ * final save is written through synchronously. Active games are reloaded on startup.
+ *
+ * Outbox events of a live game are held with it and written by the same flush, ahead of the
+ * session itself, so a persisted position never lacks the events that led to it.
+ */
+@Service
+public class LiveGameRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveGameRegistry.class);
+    static final String SPECTATOR_SESSION_PREFIX = "SpecSession-";
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final GameSessionRepository gameSessionRepository;
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<String, GameSession> liveGames = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> gameLocks = new ConcurrentHashMap<>();
+    private final Map<String, Long> dirtyGames = new ConcurrentHashMap<>();
+    private final Map<String, CachedLegalMoves> legalMoves = new ConcurrentHashMap<>();
+    private final Map<String, List<OutboxEvent>> pendingEvents = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    @Value("${chess.live-games.max-dirty-games:500}")
+    private int maxDirtyGames;
+
+    @Autowired
+    public LiveGameRegistry(GameSessionRepository gameSessionRepository, MongoTemplate mongoTemplate) {
+        this.gameSessionRepository = gameSessionRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Optional<GameSession> findById(String gameId) {
+        GameSession live = liveGames.get(gameId);
+        if (live != null) {
+            return Optional.of(live);
+        }
+        return gameSessionRepository.findById(gameId)
+                .map(loaded -> isTracked(loaded) ? liveGames.computeIfAbsent(gameId, id -> loaded) : loaded);
+    }
+
+    /**
+     * The game if it is live here, without falling back to Mongo.
+     */
+    public Optional<GameSession> findLive(String gameId) {
+        return Optional.ofNullable(liveGames.get(gameId));
+    }
+
+    /**
+     * Active games are kept in memory and persisted by the next flush; anything else
+     * (including a game that has just ended) is evicted and saved immediately.
+     */
+    public GameSession save(GameSession session) {
+        String gameId = session.getGameId();
+        if (isTracked(session)) {
+            liveGames.put(gameId, session);
+            markDirty(gameId);
+            return session;
+        }
+        synchronized (flushLock) {
+            liveGames.remove(gameId);
+            dirtyGames.remove(gameId);
+            releaseLockIfRetired(gameId);
+            legalMoves.remove(gameId);
+            List<OutboxEvent> events = pendingEvents.remove(gameId);
+            if (events != null && !writeOutbox(events)) {
+                // Left for the flush to retry
+                requeue(gameId, events);
+            }
+            return gameSessionRepository.save(session);
+        }
+    }
+
+    /**
+     * Records an event for the outbox relay: with the next flush for a live game, otherwise
+     * straight away. An event that cannot be written now is retried by the flush.
+     */
+    public void addOutboxEvent(OutboxEvent event) {
+        String gameId = event.getGameId();
+        if (liveGames.containsKey(gameId)) {
+            append(gameId, event);
+            markDirty(gameId);
+            return;
+        }
+        if (!writeOutbox(List.of(event))) {
+            append(gameId, event);
+        }
+    }
+
+    /**
+     * Appends a recorded action to the game's move history: in memory for a live game
+     * (persisted by the next flush), otherwise with a single {@code $push}.
+     */
+    public void appendMoveHistoryId(String gameId, String actionId) {
+        GameSession live = liveGames.get(gameId);
+        if (live != null) {
+            if (live.getMoveHistoryIds() == null) {
+                live.setMoveHistoryIds(new ArrayList<>());
+            }
+            live.getMoveHistoryIds().add(actionId);
+            markDirty(gameId);
+            return;
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(gameId)),
+                new Update().push("moveHistoryIds", actionId), GameSession.class);
+    }
+
+    /**
+     * Applies last-seen times (and the game's last activity) to a live game in memory, keeping
+     * the later of old and new. The game is not marked dirty: its next flush, whatever the
+     * cause, writes them along.
+     *
+     * @return false if the game is not live
+     */
+    public boolean mergeLastSeen(String gameId, Map<String, LocalDateTime> lastSeen) {
+        GameSession live = liveGames.get(gameId);
+        if (live == null) {
+            return false;
+        }
+        withLock(gameId, () -> {
+            if (live.getPlayerLastSeen() == null) {
+                live.setPlayerLastSeen(new HashMap<>());
+            }
+            lastSeen.forEach((playerId, seen) -> live.getPlayerLastSeen()
+                    .merge(playerId, seen, (previous, latest) -> latest.isAfter(previous) ? latest : previous));
+            lastSeen.values().stream().max(Comparator.naturalOrder())
+                    .filter(latest -> live.getLastActivity() == null || latest.isAfter(live.getLastActivity()))
+                    .ifPresent(live::setLastActivity);
+        });
+        return true;
+    }
+
+    public Collection<GameSession> getActiveGames() {
+        return liveGames.values();
+    }
+
+    /**
+     * Runs {@code action} holding the game's lock, which serialises every change to a live
+     * session against the others and against the flush snapshot. Reentrant.
+     */
+    public <T> T withLock(String gameId, Supplier<T> action) {
+        ReentrantLock lock = acquire(gameId);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+            releaseLockIfRetired(gameId);
+        }
+    }
+
+    public void withLock(String gameId, Runnable action) {
+        withLock(gameId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private ReentrantLock lockFor(String gameId) {
+        return gameLocks.computeIfAbsent(gameId, id -> new ReentrantLock());
+    }
+
+    private ReentrantLock acquire(String gameId) {
+        while (true) {
+            ReentrantLock lock = lockFor(gameId);
+            lock.lock();
+            // The entry may have been dropped between looking it up and locking it; a new one then rules
+            if (gameLocks.get(gameId) == lock) {
+                return lock;
+            }
+            lock.unlock();
+        }
+    }
+
+    // Drops the lock of a game that is not live once no thread holds or waits for it
+    private void releaseLockIfRetired(String gameId) {
+        if (!liveGames.containsKey(gameId)) {
+            gameLocks.computeIfPresent(gameId,
+                    (id, lock) -> lock.isLocked() || lock.hasQueuedThreads() ? lock : null);
+        }
+    }
+
+    CachedLegalMoves cachedLegalMoves(String gameId) {
+        return legalMoves.get(gameId);
+    }
+
+    /**
+     * Only live games get their moves cached; the entry goes when the game leaves the registry.
+     */
+    void cacheLegalMoves(String gameId, CachedLegalMoves moves) {
+        if (liveGames.containsKey(gameId)) {
+            legalMoves.put(gameId, moves);
+        }
+    }
+
+    private void markDirty(String gameId) {
+        dirtyGames.putIfAbsent(gameId, System.currentTimeMillis());
+        if (dirtyGames.size() >= maxDirtyGames) {
+            // Bound the unflushed window under load instead of letting it grow until the next tick
+            flushDirtyGames();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chess.live-games.flush-interval-ms:250}")
+    public void flushDirtyGames() {
+        synchronized (flushLock) {
+            if (dirtyGames.isEmpty() && pendingEvents.isEmpty()) {
+                return;
+            }
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, GameSession.class);
+            List<String> flushed = new ArrayList<>();
+            Map<String, List<OutboxEvent>> outbox = new LinkedHashMap<>();
+            for (String gameId : dirtyGames.keySet()) {
+                dirtyGames.remove(gameId);
+                GameSession session = liveGames.get(gameId);
+                if (session == null) {
+                    continue;
+                }
+                Document document = new Document();
+                ReentrantLock lock = lockFor(gameId);
+                // Never block on a game while holding flushLock: a move in progress may itself be flushing
+                if (!lock.tryLock()) {
+                    dirtyGames.putIfAbsent(gameId, System.currentTimeMillis());
+                    continue;
+                }
+                try {
+                    mongoTemplate.getConverter().write(session, document);
+                    List<OutboxEvent> events = pendingEvents.remove(gameId);
+                    if (events != null) {
+                        outbox.put(gameId, events);
+                    }
+                } catch (RuntimeException e) {
+                    // Only this game waits for the next flush; its events stay queued with it
+                    logger.error("Failed to convert live game {} for flushing, will retry: {}", gameId, e.getMessage());
+                    dirtyGames.putIfAbsent(gameId, System.currentTimeMillis());
+                    continue;
+                } finally {
+                    lock.unlock();
+                    releaseLockIfRetired(gameId);
+                }
+                bulk.replaceOne(Query.query(Criteria.where("_id").is(gameId)), document,
+                        FindAndReplaceOptions.options().upsert());
+                flushed.add(gameId);
+            }
+            // Events of games no longer live, or whose direct write failed
+            for (String gameId : pendingEvents.keySet()) {
+                if (!liveGames.containsKey(gameId)) {
+                    List<OutboxEvent> events = pendingEvents.remove(gameId);
+                    if (events != null) {
+                        outbox.put(gameId, events);
+                    }
+                }
+            }
+            if (!outbox.isEmpty() && !writeOutbox(outbox.values().stream().flatMap(List::stream).toList())) {
+                // Sessions wait for their events, so both are retried together
+                long now = System.currentTimeMillis();
+                outbox.forEach(this::requeue);
+                flushed.forEach(gameId -> dirtyGames.putIfAbsent(gameId, now));
+                return;
+            }
+            if (flushed.isEmpty()) {
+                return;
+            }
+            try {
+                bulk.execute();
+                logger.debug("Flushed {} live game sessions", flushed.size());
+            } catch (Exception e) {
+                logger.error("Failed to flush {} live game sessions, will retry: {}", flushed.size(), e.getMessage());
+                long now = System.currentTimeMillis();
+                flushed.forEach(gameId -> dirtyGames.putIfAbsent(gameId, now));
+            }
+        }
+    }
+
+    private boolean writeOutbox(List<OutboxEvent> events) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxEvent.class).insert(events).execute();
+            return true;
+        } catch (BulkOperationException e) {
+            // Ids are assigned up front, so entries already written by an earlier attempt only collide
+            if (e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY)) {
+                return true;
+            }
+            logger.error("Failed to write {} outbox events, will retry: {}", events.size(), e.getMessage());
+            return false;
+        } catch (Exception e) {
+            logger.error("Failed to write {} outbox events, will retry: {}", events.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void append(String gameId, OutboxEvent event) {
+        pendingEvents.compute(gameId, (id, queued) -> {
+            List<OutboxEvent> events = queued != null ? queued : new ArrayList<>();
+            events.add(event);
+            return events;
+        });
+    }
+
+    // Puts events that failed to write back ahead of anything recorded since
+    private void requeue(String gameId, List<OutboxEvent> events) {
+        pendingEvents.compute(gameId, (id, queued) -> {
+            List<OutboxEvent> merged = new ArrayList<>(events);
+            if (queued != null) {
+                merged.addAll(queued);
+            }
+            return merged;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverActiveGames() {
+        try {
+            gameSessionRepository.findByStatus(GameStatus.ACTIVE).stream()
+                    .filter(this::isTracked)
+                    .forEach(session -> liveGames.putIfAbsent(session.getGameId(), session));
+            logger.info("Recovered {} active games into the live registry", liveGames.size());
+        } catch (Exception e) {
+            logger.warn("Could not recover active games on startup: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushDirtyGames();
+    }
+
+    private boolean isTracked(GameSession session) {
+        return session.getStatus() == GameStatus.ACTIVE
+                && session.getGameMode() != GameMode.SINGLE_PLAYER_RPG
+                && session.getGameMode() != GameMode.MULTIPLAYER_RPG
+                && session.getGameId() != null
+                && !session.getGameId().startsWith(SPECTATOR_SESSION_PREFIX);
+    }
+}
@@ -5,6 +5,7 @@ import org.example.chessmystic.Models.Tracking.GameSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -18,19 +19,40 @@ import java.util.concurrent.ConcurrentHashMap;
 public class MatchmakingService {
 
     private static final Logger logger = LoggerFactory.getLogger(MatchmakingService.class);
+    private static final String MATCH_ACCEPTANCE_TIMEOUT = "match-acceptance";
 
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
     private final GameSessionService gameSessionService;
-    private final List<MatchmakingPlayer> queue = new ArrayList<>();
-    private final Object queueLock = new Object();
+    private final TimeoutService timeoutService;
     private final Map<String, PendingMatch> pendingMatches = new ConcurrentHashMap<>();
-    private final Map<String, MatchmakingPlayer> playersInQueue = new ConcurrentHashMap<>();
+
+    // Waiting players in join order, and the same players bucketed by rating (FIFO per rating).
+    // queueLock guards both and is only held for single O(log n) operations, never a whole sweep.
+    private final Object queueLock = new Object();
+    private final Map<String, MatchmakingPlayer> playersInQueue = new LinkedHashMap<>();
+    private final NavigableMap<Integer, Deque<MatchmakingPlayer>> ratingBuckets = new TreeMap<>();
+
+    @Value("${chess.matchmaking.initial-rating-window:50}")
+    private int initialRatingWindow;
+
+    @Value("${chess.matchmaking.rating-window-growth-per-second:5}")
+    private int ratingWindowGrowthPerSecond;
+
+    @Value("${chess.matchmaking.max-rating-window:400}")
+    private int maxRatingWindow;
+
+    @Value("${chess.matchmaking.match-anyone-after-seconds:120}")
+    private long matchAnyoneAfterSeconds;
+
+    @Value("${chess.matchmaking.acceptance-timeout-seconds:30}")
+    private long acceptanceTimeoutSeconds;
 
     @Autowired
-    public MatchmakingService(GameSessionService gameSessionService) {
+    public MatchmakingService(GameSessionService gameSessionService, TimeoutService timeoutService) {
         this.gameSessionService = gameSessionService;
+        this.timeoutService = timeoutService;
     }
 
     public void joinQueue(String userId, int points) {
@@ -43,94 +65,138 @@ public class MatchmakingService {
             }
 
             MatchmakingPlayer player = new MatchmakingPlayer(userId, points, LocalDateTime.now());
-            queue.add(player);
-            playersInQueue.put(userId, player);
-            logger.info("Player {} joined queue with {} points. Queue size: {}", userId, points, queue.size());
+            enqueue(player);
+            logger.info("Player {} joined queue with {} points. Queue size: {}", userId, points, playersInQueue.size());
             messagingTemplate.convertAndSend("/topic/matchmaking/status",
-                    Map.of("playersInQueue", queue.size()));
+                    Map.of("playersInQueue", playersInQueue.size()));
         }
     }
 
     public int getQueueSize() {
         synchronized (queueLock) {
-            return queue.size();
+            return playersInQueue.size();
         }
     }
 
     public void leaveQueue(String userId) {
         synchronized (queueLock) {
-            boolean removed = queue.removeIf(p -> p.userId.equals(userId));
-            if (removed) {
-                playersInQueue.remove(userId);
-                logger.info("Player {} left queue. Queue size: {}", userId, queue.size());
+            MatchmakingPlayer player = playersInQueue.get(userId);
+            if (player != null) {
+                dequeue(player);
+                logger.info("Player {} left queue. Queue size: {}", userId, playersInQueue.size());
                 messagingTemplate.convertAndSend("/topic/matchmaking/status",
-                        Map.of("playersInQueue", queue.size()));
+                        Map.of("playersInQueue", playersInQueue.size()));
             }
         }
     }
 
+    /**
+     * Pairs waiting players, longest-waiting first, each with the nearest-rated opponent
+     * inside a window that widens the longer they wait. Each lookup is a pair of
+     * navigable-map probes, and the queue lock is taken per player so joins and leaves
+     * interleave with the sweep instead of waiting for it.
+     */
     @Scheduled(fixedRate = 5000) // Run every 5 seconds
     public void matchPlayers() {
+        List<MatchmakingPlayer> waiting;
         synchronized (queueLock) {
-            if (queue.size() < 2) {
+            if (playersInQueue.size() < 2) {
                 return;
             }
+            waiting = new ArrayList<>(playersInQueue.values());
+        }
 
-            List<MatchmakingPlayer> sortedQueue = new ArrayList<>(queue);
-            sortedQueue.sort(Comparator.comparing(p -> p.joinTime));
-
-            Iterator<MatchmakingPlayer> iterator = sortedQueue.iterator();
-            while (iterator.hasNext() && sortedQueue.size() >= 2) {
-                MatchmakingPlayer player1 = iterator.next();
-
-                // Find candidates excluding the current player
-                List<MatchmakingPlayer> candidates = sortedQueue.stream()
-                        .filter(p -> !p.userId.equals(player1.userId))
-                        .toList();
-
-                MatchmakingPlayer player2 = findMatch(player1, candidates);
+        LocalDateTime now = LocalDateTime.now();
+        for (MatchmakingPlayer player1 : waiting) {
+            MatchmakingPlayer player2;
+            int queueSize;
+            synchronized (queueLock) {
+                if (playersInQueue.get(player1.userId) != player1) {
+                    continue; // matched or left since the snapshot
+                }
+                player2 = findMatch(player1, ratingWindow(Duration.between(player1.joinTime, now).toSeconds()));
+                if (player2 == null) {
+                    continue;
+                }
+                dequeue(player1);
+                dequeue(player2);
+                queueSize = playersInQueue.size();
+            }
 
-                if (player2 != null) {
-                    logger.info("Matched {} ({} points) with {} ({} points)",
-                            player1.userId, player1.points, player2.userId, player2.points);
+            logger.info("Matched {} ({} points) with {} ({} points)",
+                    player1.userId, player1.points, player2.userId, player2.points);
+            createPendingMatch(player1, player2);
 
-                    createPendingMatch(player1, player2);
+            // Update queue status
+            messagingTemplate.convertAndSend("/topic/matchmaking/status",
+                    Map.of("playersInQueue", queueSize));
+        }
+    }
 
-                    // Remove matched players from queue
-                    queue.remove(player1);
-                    queue.remove(player2);
-                    sortedQueue.remove(player1);
-                    sortedQueue.remove(player2);
+    int ratingWindow(long waitSeconds) {
+        if (waitSeconds >= matchAnyoneAfterSeconds) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) Math.min(maxRatingWindow, initialRatingWindow + waitSeconds * ratingWindowGrowthPerSecond);
+    }
 
-                    // Update queue status
-                    messagingTemplate.convertAndSend("/topic/matchmaking/status",
-                            Map.of("playersInQueue", queue.size()));
-                }
+    /**
+     * Nearest-rated other player within {@code window} points; within a rating, the one
+     * who has waited longest. Empty buckets are never kept, so this is O(log n).
+     * Caller holds queueLock.
+     */
+    private MatchmakingPlayer findMatch(MatchmakingPlayer player, int window) {
+        MatchmakingPlayer best = null;
+        long bestDistance = (long) window + 1;
+
+        for (Map.Entry<Integer, Deque<MatchmakingPlayer>> bucket = ratingBuckets.ceilingEntry(player.points);
+             bucket != null && (long) bucket.getKey() - player.points < bestDistance;
+             bucket = ratingBuckets.higherEntry(bucket.getKey())) {
+            MatchmakingPlayer candidate = firstOther(bucket.getValue(), player);
+            if (candidate != null) {
+                best = candidate;
+                bestDistance = (long) bucket.getKey() - player.points;
+                break;
+            }
+        }
+        for (Map.Entry<Integer, Deque<MatchmakingPlayer>> bucket = ratingBuckets.lowerEntry(player.points);
+             bucket != null && (long) player.points - bucket.getKey() < bestDistance;
+             bucket = ratingBuckets.lowerEntry(bucket.getKey())) {
+            MatchmakingPlayer candidate = firstOther(bucket.getValue(), player);
+            if (candidate != null) {
+                best = candidate;
+                break;
             }
         }
+        return best;
     }
 
-    private MatchmakingPlayer findMatch(MatchmakingPlayer player, List<MatchmakingPlayer> candidates) {
-        LocalDateTime now = LocalDateTime.now();
-        long waitSeconds = Duration.between(player.joinTime, now).toSeconds();
-
-        // First try to find a close match (within 50 points)
-        Optional<MatchmakingPlayer> closeMatch = candidates.stream()
-                .filter(p -> Math.abs(p.points - player.points) <= 50)
-                .min(Comparator.comparingInt(p -> Math.abs(p.points - player.points)));
-
-        if (closeMatch.isPresent()) {
-            return closeMatch.get();
+    private static MatchmakingPlayer firstOther(Deque<MatchmakingPlayer> bucket, MatchmakingPlayer player) {
+        for (MatchmakingPlayer candidate : bucket) {
+            if (candidate != player) {
+                return candidate;
+            }
         }
+        return null;
+    }
 
-        // If waited more than 2 minutes, match with anyone
-        if (waitSeconds > 120) {
-            return candidates.stream()
-                    .min(Comparator.comparingInt(p -> Math.abs(p.points - player.points)))
-                    .orElse(null);
+    // Caller holds queueLock
+    private void enqueue(MatchmakingPlayer player) {
+        if (playersInQueue.putIfAbsent(player.userId, player) == null) {
+            ratingBuckets.computeIfAbsent(player.points, points -> new ArrayDeque<>()).addLast(player);
         }
+    }
 
-        return null;
+    // Caller holds queueLock
+    private void dequeue(MatchmakingPlayer player) {
+        playersInQueue.remove(player.userId);
+        Deque<MatchmakingPlayer> bucket = ratingBuckets.get(player.points);
+        if (bucket != null) {
+            bucket.remove(player);
+            if (bucket.isEmpty()) {
+                ratingBuckets.remove(player.points);
+            }
+        }
     }
 
     private void createPendingMatch(MatchmakingPlayer player1, MatchmakingPlayer player2) {
@@ -153,22 +219,13 @@ public class MatchmakingService {
         );
         messagingTemplate.convertAndSend("/queue/matchmaking.matchFound." + player2.userId, matchData2);
 
-        // Set up timeout timer
-        Timer timer = new Timer();
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                PendingMatch match = pendingMatches.get(matchId);
-                if (match != null && (!match.player1Accepted || !match.player2Accepted)) {
-                    cancelPendingMatch(match, "Match acceptance timed out");
-                }
-            }
-        }, 30000); // 30 seconds timeout
-
-        playersInQueue.remove(player1.userId);
-        playersInQueue.remove(player2.userId);
-        pendingMatch.timeoutTimer = timer;
         pendingMatches.put(matchId, pendingMatch);
+        timeoutService.schedule(MATCH_ACCEPTANCE_TIMEOUT, matchId, Duration.ofSeconds(acceptanceTimeoutSeconds), () -> {
+            PendingMatch match = pendingMatches.get(matchId);
+            if (match != null && (!match.player1Accepted || !match.player2Accepted)) {
+                cancelPendingMatch(match, "Match acceptance timed out");
+            }
+        });
     }
 
     public void acceptMatch(String matchId, String userId) {
@@ -226,14 +283,14 @@ public class MatchmakingService {
         // Re-add only the non-declining player to queue
         synchronized (queueLock) {
             if (!pendingMatch.player1.userId.equals(decliningUserId)) {
-                queue.add(pendingMatch.player1);
+                enqueue(pendingMatch.player1);
                 logger.info("Re-added player {} to queue after opponent declined", pendingMatch.player1.userId);
             } else {
                 logger.info("Player {} left queue after declining match", pendingMatch.player1.userId);
             }
 
             if (!pendingMatch.player2.userId.equals(decliningUserId)) {
-                queue.add(pendingMatch.player2);
+                enqueue(pendingMatch.player2);
                 logger.info("Re-added player {} to queue after opponent declined", pendingMatch.player2.userId);
             } else {
                 logger.info("Player {} left queue after declining match", pendingMatch.player2.userId);
@@ -241,11 +298,11 @@ public class MatchmakingService {
 
             // Update queue status for everyone
             messagingTemplate.convertAndSend("/topic/matchmaking/status",
-                    Map.of("playersInQueue", queue.size()));
+                    Map.of("playersInQueue", playersInQueue.size()));
         }
 
         // Clean up
-        pendingMatch.timeoutTimer.cancel();
+        timeoutService.cancel(MATCH_ACCEPTANCE_TIMEOUT, pendingMatch.matchId);
         pendingMatches.remove(pendingMatch.matchId);
     }
 
@@ -256,7 +313,7 @@ public class MatchmakingService {
             createGameSession(pendingMatch.player1, pendingMatch.player2);
 
             // Clean up
-            pendingMatch.timeoutTimer.cancel();
+            timeoutService.cancel(MATCH_ACCEPTANCE_TIMEOUT, pendingMatch.matchId);
             pendingMatches.remove(pendingMatch.matchId);
         }
     }
@@ -271,14 +328,14 @@ public class MatchmakingService {
 
         // Re-add players to queue
         synchronized (queueLock) {
-            queue.add(pendingMatch.player1);
-            queue.add(pendingMatch.player2);
+            enqueue(pendingMatch.player1);
+            enqueue(pendingMatch.player2);
             messagingTemplate.convertAndSend("/exchange/amq.topic/matchmaking.status",
-                    Map.of("playersInQueue", queue.size()));
+                    Map.of("playersInQueue", playersInQueue.size()));
         }
 
         // Clean up
-        pendingMatch.timeoutTimer.cancel();
+        timeoutService.cancel(MATCH_ACCEPTANCE_TIMEOUT, pendingMatch.matchId);
         pendingMatches.remove(pendingMatch.matchId);
     }
 
@@ -342,7 +399,6 @@ public class MatchmakingService {
         boolean player1Accepted = false;
         boolean player2Accepted = false;
         LocalDateTime createdAt;
-        Timer timeoutTimer;
 
         PendingMatch(String matchId, MatchmakingPlayer player1, MatchmakingPlayer player2) {
             this.matchId = matchId;
@@ -0,0 +1,82 @@
+package org.example.chessmystic.Service.implementation.GameRelated;
+
+import org.example.chessmystic.Models.Interactions.MoveBucket;
+import org.example.chessmystic.Models.Interactions.MoveRecord;
+import org.example.chessmystic.Models.Interactions.PlayerAction;
+import org.example.chessmystic.Repository.MoveBucketRepository;
+import org.example.chessmystic.Repository.PlayerActionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Per-game move log in bucket documents, each covering a range of
+ * {@value MoveBucket#CAPACITY} sequence numbers. Appending is a single upsert into the bucket
+ * the action's sequence number falls in, and reading a game is one query returning about one
+ * document per {@value MoveBucket#CAPACITY} moves. Sequence numbers skip ahead after a
+ * restart, so a bucket holds at most that many moves, and fewer across a skip.
+ *
+ * The individual {@code player_actions} documents are still written for cross-game queries;
+ * games recorded before buckets existed are read from there.
+ */
+@Service
+public class MoveBucketStore {
+
+    private final MongoTemplate mongoTemplate;
+    private final MoveBucketRepository moveBucketRepository;
+    private final PlayerActionRepository playerActionRepository;
+
+    @Autowired
+    public MoveBucketStore(MongoTemplate mongoTemplate,
+                           MoveBucketRepository moveBucketRepository,
+                           PlayerActionRepository playerActionRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.moveBucketRepository = moveBucketRepository;
+        this.playerActionRepository = playerActionRepository;
+    }
+
+    public void append(PlayerAction action) {
+        // The bucket follows from the sequence number alone, so concurrent appends agree on it
+        Query bucket = Query.query(Criteria.where("gameSessionId").is(action.getGameSessionId())
+                .and("bucketNo").is((action.getSequenceNumber() - 1) / MoveBucket.CAPACITY));
+        Update update = new Update()
+                .push("moves", MoveRecord.of(action))
+                .inc("count", 1)
+                .min("firstSequence", action.getSequenceNumber())
+                .max("lastSequence", action.getSequenceNumber());
+        try {
+            mongoTemplate.upsert(bucket, update, MoveBucket.class);
+        } catch (DuplicateKeyException e) {
+            // Another append created the bucket first; it exists now, so this one updates it
+            mongoTemplate.upsert(bucket, update, MoveBucket.class);
+        }
+    }
+
+    /**
+     * Every action of the game in sequence order.
+     */
+    public List<PlayerAction> findActions(String gameSessionId) {
+        List<MoveBucket> buckets = moveBucketRepository.findByGameSessionIdOrderByFirstSequenceAsc(gameSessionId);
+        List<PlayerAction> actions = new ArrayList<>();
+        for (MoveBucket bucket : buckets) {
+            for (MoveRecord record : bucket.getMoves()) {
+                actions.add(record.toPlayerAction(gameSessionId));
+            }
+        }
+        // A game's first action is always sequence 1; anything else started before buckets
+        if (actions.isEmpty() || buckets.get(0).getFirstSequence() != 1) {
+            return playerActionRepository.findByGameSessionIdOrderBySequenceNumberAsc(gameSessionId);
+        }
+        // Concurrent appends can land slightly out of order within or across buckets
+        actions.sort(Comparator.comparingInt(PlayerAction::getSequenceNumber));
+        return actions;
+    }
+}
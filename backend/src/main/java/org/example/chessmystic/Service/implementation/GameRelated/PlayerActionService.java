@@ -11,7 +11,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -19,16 +18,22 @@ public class PlayerActionService implements IPlayerActionService {
 
     private static final Logger logger = LoggerFactory.getLogger(PlayerActionService.class);
     private final PlayerActionRepository playerActionRepository;
-    private final GameSessionService gameSessionService;
     private final GameHistoryService gameHistoryService;
+    private final LiveGameRegistry liveGameRegistry;
+    private final ActionSequenceAllocator actionSequenceAllocator;
+    private final MoveBucketStore moveBucketStore;
 
     @Autowired
     public PlayerActionService(PlayerActionRepository playerActionRepository,
-                               GameSessionService gameSessionService,
-                               GameHistoryService gameHistoryService) {
+                               GameHistoryService gameHistoryService,
+                               LiveGameRegistry liveGameRegistry,
+                               ActionSequenceAllocator actionSequenceAllocator,
+                               MoveBucketStore moveBucketStore) {
         this.playerActionRepository = playerActionRepository;
-        this.gameSessionService = gameSessionService;
         this.gameHistoryService = gameHistoryService;
+        this.liveGameRegistry = liveGameRegistry;
+        this.actionSequenceAllocator = actionSequenceAllocator;
+        this.moveBucketStore = moveBucketStore;
     }
 
     @Override
@@ -37,8 +42,7 @@ public class PlayerActionService implements IPlayerActionService {
                              int fromX, int fromY, int toX, int toY, String gameHistoryId,
                              String rpgGameStateId, int roundNumber, String abilityUsed,
                              int damageDealt, boolean isCriticalHit, boolean b) {
-        List<PlayerAction> actions = playerActionRepository.findByGameSessionIdOrderBySequenceNumberAsc(gameSessionId);
-        int sequenceNumber = actions.isEmpty() ? 1 : actions.get(actions.size() - 1).getSequenceNumber() + 1;
+        int sequenceNumber = actionSequenceAllocator.next(gameSessionId);
 
         PlayerAction action = PlayerAction.builder()
                 .gameSessionId(gameSessionId)
@@ -58,24 +62,20 @@ public class PlayerActionService implements IPlayerActionService {
                 .build();
 
         PlayerAction savedAction = playerActionRepository.save(action);
+        moveBucketStore.append(savedAction);
 
-        var session = gameSessionService.findById(gameSessionId)
-                .orElseThrow(() -> new RuntimeException("Game session not found"));
-        if (session.getMoveHistoryIds() == null) {
-            session.setMoveHistoryIds(new ArrayList<>());
-        }
-        session.getMoveHistoryIds().add(savedAction.getId());
-        gameSessionService.saveSession(session);
-
+        // Append-only updates: neither the session nor the history is read back. The live
+        // session is changed last, so a failed write leaves it as it was.
         if (gameHistoryId != null) {
-            gameHistoryService.addPlayerAction(gameHistoryId, savedAction.getId());
+            gameHistoryService.appendPlayerAction(gameHistoryId, savedAction.getId());
         }
+        liveGameRegistry.appendMoveHistoryId(gameSessionId, savedAction.getId());
 
     }
 
     @Override
     public List<PlayerAction> getActionsForGameSession(String gameSessionId) {
-        return playerActionRepository.findByGameSessionIdOrderBySequenceNumberAsc(gameSessionId);
+        return moveBucketStore.findActions(gameSessionId);
     }
 
     @Override
@@ -0,0 +1,393 @@
+package org.example.chessmystic.Service.implementation.GameRelated;
+
+import org.example.chessmystic.Models.GameStateandFlow.GameState;
+import org.example.chessmystic.Models.GameStateandFlow.GameStatus;
+import org.example.chessmystic.Models.GameStateandFlow.GameTimers;
+import org.example.chessmystic.Models.GameStateandFlow.PlayerTimer;
+import org.example.chessmystic.Models.Interactions.PlayerAction;
+import org.example.chessmystic.Models.Tracking.GameSession;
+import org.example.chessmystic.Models.chess.Piece;
+import org.example.chessmystic.Models.chess.PieceColor;
+import org.example.chessmystic.Models.chess.PieceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.example.chessmystic.Service.implementation.GameRelated.LiveGameRegistry.SPECTATOR_SESSION_PREFIX;
+
+/**
+ * Delayed view of live games for spectators. Each game keeps a time-ordered queue of board
+ * snapshots taken as moves are applied; once a snapshot is older than the delay it becomes
+ * the visible position and its move is charged to the delayed clocks. Nothing is replayed
+ * and nothing is written to MongoDB on a move.
+ *
+ * A game that is not tracked yet (first spectator, or after a restart) is seeded once from
+ * its recorded actions, by the spectator's request or the tick and never on a move. A game is
+ * dropped once it is over and its last position has been shown.
+ */
+@Service
+public class SpectatorDelayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpectatorDelayService.class);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final LiveGameRegistry liveGameRegistry;
+    private final GameSessionService gameSessionService;
+    private final MoveBucketStore moveBucketStore;
+    private final Map<String, DelayedGame> games = new ConcurrentHashMap<>();
+
+    @Value("${chess.spectator.delay-seconds:120}")
+    private long delaySeconds;
+
+    @Autowired
+    public SpectatorDelayService(SimpMessagingTemplate messagingTemplate,
+                                 LiveGameRegistry liveGameRegistry,
+                                 GameSessionService gameSessionService,
+                                 MoveBucketStore moveBucketStore) {
+        this.messagingTemplate = messagingTemplate;
+        this.liveGameRegistry = liveGameRegistry;
+        this.gameSessionService = gameSessionService;
+        this.moveBucketStore = moveBucketStore;
+    }
+
+    /**
+     * Queues the position after a move that has just been applied to {@code session} and
+     * recorded as its latest action.
+     */
+    public void recordMove(GameSession session) {
+        DelayedGame game = games.get(session.getGameId());
+        if (game == null) {
+            // Nobody watching; seeding when spectating starts reads this move from the recorded actions
+            return;
+        }
+        List<String> actionIds = session.getMoveHistoryIds();
+        synchronized (game) {
+            int ply = actionIds != null ? actionIds.size() : game.lastPly + 1;
+            if (ply <= game.lastPly) {
+                return; // already seeded with this move
+            }
+            GameState state = session.getGameState();
+            game.session = session;
+            // Moves made while the game was being seeded are folded into this frame
+            List<String> newActionIds = actionIds != null ? List.copyOf(actionIds.subList(game.lastPly, ply)) : List.of();
+            game.lastPly = ply;
+            game.pending.addLast(new Frame(System.currentTimeMillis(), ply, newActionIds,
+                    copyBoard(session.getBoard()),
+                    state != null && state.isCheck(),
+                    state != null && state.isCheckmate(),
+                    state != null && state.isGameOver()));
+        }
+    }
+
+    /**
+     * The game as spectators currently see it, or empty if there is no such game.
+     */
+    public Optional<GameSession> findDelayedSession(String gameId) {
+        return liveGameRegistry.findById(gameId).map(session -> {
+            DelayedGame game = pipelineFor(session);
+            long cutoff = System.currentTimeMillis() - delaySeconds * 1000;
+            synchronized (game) {
+                game.advance(cutoff);
+                return game.toSession(cutoff);
+            }
+        });
+    }
+
+    /**
+     * Pushes the delayed clocks every second and the delayed position whenever a move
+     * crosses the delay, for games that have spectators.
+     */
+    @Scheduled(fixedRate = 1000)
+    public void broadcastDelayedSpectatorTick() {
+        for (GameSession session : liveGameRegistry.getActiveGames()) {
+            if (hasSpectators(session)) {
+                try {
+                    pipelineFor(session);
+                } catch (Exception e) {
+                    logger.warn("Failed to start spectator delay for game {}: {}", session.getGameId(), e.getMessage());
+                }
+            }
+        }
+
+        long cutoff = System.currentTimeMillis() - delaySeconds * 1000;
+        for (Iterator<DelayedGame> iterator = games.values().iterator(); iterator.hasNext(); ) {
+            DelayedGame game = iterator.next();
+            GameSession delayed = null;
+            boolean advanced;
+            synchronized (game) {
+                advanced = game.advance(cutoff);
+                if (isOver(game.session) && game.pending.isEmpty()) {
+                    iterator.remove();
+                }
+                if (hasSpectators(game.session)) {
+                    delayed = game.toSession(cutoff);
+                }
+            }
+            if (delayed == null) {
+                continue;
+            }
+            try {
+                String rawId = game.session.getGameId();
+                messagingTemplate.convertAndSend("/topic/game/" + SPECTATOR_SESSION_PREFIX + rawId + "/timer", delayed.getTimers());
+                if (advanced) {
+                    messagingTemplate.convertAndSend("/topic/spectator-game-state/" + rawId, delayed.getGameState());
+                    messagingTemplate.convertAndSend("/topic/timer-updates/" + rawId, delayed.getTimers());
+                }
+            } catch (Exception e) {
+                logger.warn("Failed spectator delayed tick broadcast: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static boolean hasSpectators(GameSession session) {
+        return !isOver(session) && session.isAllowSpectators()
+                && session.getSpectatorIds() != null && !session.getSpectatorIds().isEmpty();
+    }
+
+    // updateGameStatus can end a game without clearing its active flag
+    private static boolean isOver(GameSession session) {
+        return !session.isActive()
+                || session.getStatus() == GameStatus.COMPLETED
+                || session.getStatus() == GameStatus.ABANDONED
+                || session.getStatus() == GameStatus.TIMEOUT;
+    }
+
+    private DelayedGame pipelineFor(GameSession session) {
+        DelayedGame game = games.get(session.getGameId());
+        if (game != null) {
+            return game;
+        }
+        DelayedGame seeded = seed(session);
+        DelayedGame existing = games.putIfAbsent(session.getGameId(), seeded);
+        return existing != null ? existing : seeded;
+    }
+
+    private DelayedGame seed(GameSession session) {
+        Piece[][] board = gameSessionService.initializeStandardChessBoard();
+        DelayedGame game = new DelayedGame(session, board);
+        List<PlayerAction> actions = moveBucketStore.findActions(session.getGameId());
+        for (PlayerAction action : actions) {
+            if (action.getTimestamp() == null || !applyAction(board, action)) {
+                continue; // Defensive: skip malformed action
+            }
+            game.lastPly++;
+            game.pending.addLast(new Frame(toMillis(action.getTimestamp()), game.lastPly, List.of(action.getId()),
+                    copyBoard(board), false, false, false));
+        }
+        return game;
+    }
+
+    /**
+     * Applies a recorded action the way the live path does, promoting to a queen.
+     * @return false if there is no piece on the source square
+     */
+    private static boolean applyAction(Piece[][] board, PlayerAction a) {
+        int fr = a.getFromX(), fc = a.getFromY();
+        int tr = a.getToX(), tc = a.getToY();
+
+        Piece moving = board[fr][fc];
+        if (moving == null) {
+            return false;
+        }
+        board[fr][fc] = null;
+        board[tr][tc] = moving;
+
+        switch (a.getActionType()) {
+            case CASTLE_KINGSIDE: {
+                // Rook moves from h-file to f-file on the same rank
+                Piece rook = board[tr][7];
+                if (rook != null) {
+                    board[tr][7] = null;
+                    board[tr][tc - 1] = rook;
+                }
+                break;
+            }
+            case CASTLE_QUEENSIDE: {
+                // Rook moves from a-file to d-file on the same rank
+                Piece rook = board[tr][0];
+                if (rook != null) {
+                    board[tr][0] = null;
+                    board[tr][tc + 1] = rook;
+                }
+                break;
+            }
+            case EN_PASSANT: {
+                // Remove the captured pawn behind the destination square
+                int direction = moving.getColor() == PieceColor.white ? 1 : -1;
+                int capturedRow = tr - direction;
+                if (capturedRow >= 0 && capturedRow < 8) {
+                    board[capturedRow][tc] = null;
+                }
+                break;
+            }
+            case PROMOTION:
+                moving.setType(PieceType.QUEEN);
+                break;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    private static Piece[][] copyBoard(Piece[][] board) {
+        Piece[][] copy = new Piece[8][8];
+        if (board == null) {
+            return copy;
+        }
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = board[row][col];
+                if (piece != null) {
+                    copy[row][col] = new Piece(piece.getType(), piece.getColor(), piece.isHasMoved(), piece.isEnPassantTarget());
+                }
+            }
+        }
+        return copy;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Position after {@code ply} half-moves, taken when the move was applied, with the actions
+     * since the previous frame. The board is a private copy and is never mutated.
+     */
+    private record Frame(long atMillis, int ply, List<String> actionIds, Piece[][] board,
+                         boolean check, boolean checkmate, boolean gameOver) {
+    }
+
+    private static final class DelayedGame {
+        GameSession session;
+        final Deque<Frame> pending = new ArrayDeque<>();
+        final List<String> visibleActionIds = new ArrayList<>();
+        Frame visible;
+        int lastPly;
+
+        // Clocks as of the visible position, charged the same way as the live clock
+        final long defaultMs;
+        final long incrementMs;
+        long whiteMs;
+        long blackMs;
+        PieceColor active = PieceColor.white;
+        long lastTickMillis;
+
+        DelayedGame(GameSession session, Piece[][] initialBoard) {
+            this.session = session;
+            this.visible = new Frame(0, 0, List.of(), copyBoard(initialBoard), false, false, false);
+            this.defaultMs = session.getTimeControlMinutes() * 60_000L;
+            this.incrementMs = session.getIncrementSeconds() * 1000L;
+            this.whiteMs = defaultMs;
+            this.blackMs = defaultMs;
+            this.lastTickMillis = session.getStartedAt() != null ? toMillis(session.getStartedAt()) : System.currentTimeMillis();
+        }
+
+        /**
+         * Makes every queued position at or before {@code cutoff} visible.
+         * @return true if the visible position changed
+         */
+        boolean advance(long cutoff) {
+            boolean advanced = false;
+            while (!pending.isEmpty() && pending.peekFirst().atMillis() <= cutoff) {
+                Frame frame = pending.pollFirst();
+                long elapsed = Math.max(0, frame.atMillis() - lastTickMillis);
+                if (active == PieceColor.white) {
+                    whiteMs = Math.min(defaultMs, Math.max(0, whiteMs - elapsed) + incrementMs);
+                } else {
+                    blackMs = Math.min(defaultMs, Math.max(0, blackMs - elapsed) + incrementMs);
+                }
+                // From the ply, so a frame covering several moves still hands the clock to the right side
+                active = frame.ply() % 2 == 0 ? PieceColor.white : PieceColor.black;
+                lastTickMillis = frame.atMillis();
+                visibleActionIds.addAll(frame.actionIds());
+                visible = frame;
+                advanced = true;
+            }
+            return advanced;
+        }
+
+        GameTimers timersAt(long cutoff) {
+            // The player to move has been thinking since the last visible move, unless the game
+            // is over and its last move already shown
+            boolean running = !isOver(session) || !pending.isEmpty();
+            long tail = running ? Math.max(0, cutoff - lastTickMillis) : 0;
+            long white = active == PieceColor.white ? Math.max(0, whiteMs - tail) : whiteMs;
+            long black = active == PieceColor.black ? Math.max(0, blackMs - tail) : blackMs;
+            // Round to nearest second to avoid systematic bias (prevents ~1-2s apparent lag)
+            return GameTimers.builder()
+                    .defaultTime((int) (defaultMs / 1000))
+                    .white(PlayerTimer.builder()
+                            .timeLeft((int) Math.round(white / 1000.0))
+                            .active(running && active == PieceColor.white)
+                            .build())
+                    .black(PlayerTimer.builder()
+                            .timeLeft((int) Math.round(black / 1000.0))
+                            .active(running && active == PieceColor.black)
+                            .build())
+                    .serverTimeMs(System.currentTimeMillis())
+                    .build();
+        }
+
+        GameSession toSession(long cutoff) {
+            GameSession original = session;
+            String delayedId = SPECTATOR_SESSION_PREFIX + original.getGameId();
+            GameState delayedState = GameState.builder()
+                    .gamestateId(original.getGameState() != null ? original.getGameState().getGamestateId() : null)
+                    .gameSessionId(delayedId)
+                    .currentTurn(visible.ply() % 2 == 0 ? PieceColor.white : PieceColor.black)
+                    .moveCount(visible.ply() / 2)
+                    .isGameOver(visible.gameOver())
+                    .isCheck(visible.check())
+                    .isCheckmate(visible.checkmate())
+                    .canWhiteCastleKingSide(false)
+                    .canWhiteCastleQueenSide(false)
+                    .canBlackCastleKingSide(false)
+                    .canBlackCastleQueenSide(false)
+                    .enPassantTarget(null)
+                    .build();
+
+            GameSession delayed = new GameSession();
+            delayed.setGameId(delayedId);
+            delayed.setWhitePlayer(original.getWhitePlayer());
+            delayed.setBlackPlayer(original.getBlackPlayer());
+            delayed.setGameMode(original.getGameMode());
+            delayed.setRankedMatch(original.isRankedMatch());
+            delayed.setPrivate(original.isPrivate());
+            delayed.setInviteCode(original.getInviteCode());
+            delayed.setGameState(delayedState);
+            delayed.setRpgGameStateId(original.getRpgGameStateId());
+            delayed.setEnhancedGameStateId(original.getEnhancedGameStateId());
+            delayed.setTimers(timersAt(cutoff));
+            delayed.setCreatedAt(original.getCreatedAt());
+            delayed.setStartedAt(original.getStartedAt());
+            delayed.setLastActivity(original.getLastActivity());
+            delayed.setActive(original.isActive());
+            delayed.setStatus(original.getStatus());
+            delayed.setPlayerLastSeen(original.getPlayerLastSeen());
+            delayed.setTimeControlMinutes(original.getTimeControlMinutes());
+            delayed.setIncrementSeconds(original.getIncrementSeconds());
+            delayed.setAllowSpectators(original.isAllowSpectators());
+            delayed.setSpectatorIds(original.getSpectatorIds());
+            delayed.setBotId(original.getBotId());
+            delayed.setGameHistoryId(original.getGameHistoryId());
+            delayed.setBoard(visible.board());
+            delayed.setMoveHistoryIds(List.copyOf(visibleActionIds));
+            return delayed;
+        }
+    }
+}
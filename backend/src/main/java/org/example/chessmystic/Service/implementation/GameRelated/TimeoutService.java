@@ -0,0 +1,137 @@
+package org.example.chessmystic.Service.implementation.GameRelated;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyed one-shot timeouts (match acceptance, invites, reconnect grace periods) on a single
+ * shared scheduler thread. A timeout is identified by a kind and an id; scheduling the same
+ * key again replaces the pending one. Actions run on the scheduler thread and should only
+ * hand off work, not block.
+ *
+ * Metrics: {@code chess.timeouts.outstanding} (gauge) and the {@code chess.timeouts.scheduled},
+ * {@code .fired} and {@code .cancelled} counters, tagged by kind.
+ */
+@Service
+public class TimeoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeoutService.class);
+
+    private final Map<String, Timeout> timeouts = new ConcurrentHashMap<>();
+    // Keyed by kind
+    private final Map<String, Counter> scheduledCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> firedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> cancelledCounters = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public TimeoutService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        Gauge.builder("chess.timeouts.outstanding", timeouts, Map::size)
+                .description("Timeouts scheduled and not yet fired or cancelled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code action} after {@code delay} unless cancelled first. Replaces (and counts as
+     * cancelled) any timeout already pending under the same kind and id.
+     */
+    public void schedule(String kind, String id, Duration delay, Runnable action) {
+        Timeout timeout = new Timeout(kind, key(kind, id), action);
+        Timeout previous = timeouts.put(timeout.key, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+        timeout.future = scheduler.schedule(timeout, delay.toMillis(), TimeUnit.MILLISECONDS);
+        counter(scheduledCounters, "chess.timeouts.scheduled", kind).increment();
+    }
+
+    /**
+     * @return true if a pending timeout was cancelled, false if none was pending (or it already fired)
+     */
+    public boolean cancel(String kind, String id) {
+        Timeout timeout = timeouts.remove(key(kind, id));
+        if (timeout == null) {
+            return false;
+        }
+        timeout.cancel();
+        return true;
+    }
+
+    public boolean isPending(String kind, String id) {
+        return timeouts.containsKey(key(kind, id));
+    }
+
+    public int getOutstandingCount() {
+        return timeouts.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private Counter counter(Map<String, Counter> counters, String name, String kind) {
+        return counters.computeIfAbsent(kind, k -> Counter.builder(name).tag("kind", k).register(meterRegistry));
+    }
+
+    private static String key(String kind, String id) {
+        return kind + ':' + id;
+    }
+
+    private final class Timeout implements Runnable {
+        private final String kind;
+        private final String key;
+        private final Runnable action;
+        private volatile ScheduledFuture<?> future;
+
+        private Timeout(String kind, String key, Runnable action) {
+            this.kind = kind;
+            this.key = key;
+            this.action = action;
+        }
+
+        @Override
+        public void run() {
+            // Whoever removes the entry owns it, so a racing cancel and fire never both count
+            if (!timeouts.remove(key, this)) {
+                return;
+            }
+            counter(firedCounters, "chess.timeouts.fired", kind).increment();
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                logger.error("Timeout {} failed", key, e);
+            }
+        }
+
+        // Caller has already removed this entry from the map
+        private void cancel() {
+            ScheduledFuture<?> scheduled = future;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            counter(cancelledCounters, "chess.timeouts.cancelled", kind).increment();
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package org.example.chessmystic.Service.implementation;
+
+import org.example.chessmystic.Models.APIContacts.UserDTO.LeaderboardEntryDTO;
+import org.example.chessmystic.Models.APIContacts.UserDTO.UserSummaryDTO;
+import org.example.chessmystic.Models.Stats.LeaderboardWindowScore;
+import org.example.chessmystic.Models.UserManagement.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Leaderboards kept in memory and updated on every points change, so top-K, a user's rank and
+ * the users around them are answered without touching MongoDB for the ordering. The all-time
+ * board ranks users by their points (users below zero are left off, as before); the daily and
+ * weekly boards rank users by the points they gained in the current day or week.
+ *
+ * Points change through an atomic {@code $inc} on the user, whose result is applied to the
+ * boards. The all-time board is seeded from {@code users} at startup and the windowed ones
+ * from {@code leaderboard_windows}; until seeding finishes the all-time top is read from
+ * MongoDB and other queries are refused.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+    private static final int LOCK_STRIPES = 64;
+
+    public enum Window {
+        ALL_TIME,
+        DAILY,
+        WEEKLY;
+
+        /**
+         * Parses the path form: {@code all-time}, {@code daily} or {@code weekly}.
+         */
+        public static Window fromPath(String value) {
+            return Window.valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final UserSummaryCache userSummaryCache;
+    private final ZoneId zone;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Window, RankIndex> boards = new EnumMap<>(Window.class);
+    private final Map<Window, LocalDate> periods = new EnumMap<>(Window.class);
+    // Orders a user's $inc and the board update that applies its result
+    private final Object[] userLocks = new Object[LOCK_STRIPES];
+    private volatile LocalDate periodsCheckedOn;
+    private volatile boolean ready;
+
+    @Value("${chess.leaderboard.max-page-size:100}")
+    private int maxPageSize;
+
+    @Autowired
+    public LeaderboardService(MongoTemplate mongoTemplate, UserSummaryCache userSummaryCache,
+                              @Value("${chess.leaderboard.zone:UTC}") String zone) {
+        this.mongoTemplate = mongoTemplate;
+        this.userSummaryCache = userSummaryCache;
+        this.zone = ZoneId.of(zone);
+        for (Window window : Window.values()) {
+            boards.put(window, new RankIndex());
+        }
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            userLocks[i] = new Object();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            RankIndex allTime = boards.get(Window.ALL_TIME);
+            Query users = Query.query(Criteria.where("points").gte(0));
+            users.fields().include("_id", "points");
+            try (Stream<User> stream = mongoTemplate.stream(users, User.class)) {
+                stream.forEach(user -> allTime.put(user.getId(), user.getPoints()));
+            }
+
+            LocalDate today = LocalDate.now(zone);
+            for (Window window : List.of(Window.DAILY, Window.WEEKLY)) {
+                LocalDate period = periodStart(window, today);
+                periods.put(window, period);
+                RankIndex board = boards.get(window);
+                board.clear();
+                mongoTemplate.find(Query.query(Criteria.where("window").is(window.name())
+                                .and("period").is(period.toString())), LeaderboardWindowScore.class)
+                        .forEach(score -> board.put(score.getUserId(), score.getPoints()));
+            }
+            periodsCheckedOn = today;
+            ready = true;
+            logger.info("Leaderboards seeded with {} users in {} ms",
+                    allTime.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.error("Failed to seed leaderboards; serving the all-time top from MongoDB", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Atomically adds {@code delta} to the user's points and applies it to every board.
+     *
+     * @return the user's new points, or empty if there is no such user
+     */
+    public OptionalInt addPoints(String userId, int delta) {
+        User updated;
+        synchronized (userLocks[Math.floorMod(userId.hashCode(), LOCK_STRIPES)]) {
+            Query query = Query.query(Criteria.where("_id").is(userId));
+            query.fields().include("points");
+            updated = mongoTemplate.findAndModify(query, new Update().inc("points", delta),
+                    FindAndModifyOptions.options().returnNew(true), User.class);
+            if (updated == null) {
+                return OptionalInt.empty();
+            }
+
+            lock.writeLock().lock();
+            try {
+                putAllTime(userId, updated.getPoints());
+                rollPeriods();
+                boards.get(Window.DAILY).add(userId, delta);
+                boards.get(Window.WEEKLY).add(userId, delta);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        recordWindowPoints(userId, delta);
+        return OptionalInt.of(updated.getPoints());
+    }
+
+    /**
+     * Sets a user's all-time standing after their points were written some other way, such as
+     * on registration or a profile update.
+     */
+    public void updateTotal(String userId, int points) {
+        lock.writeLock().lock();
+        try {
+            putAllTime(userId, points);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String userId) {
+        lock.writeLock().lock();
+        try {
+            boards.values().forEach(board -> board.remove(userId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The all-time top users, best first.
+     */
+    public List<User> topUsers(int limit) {
+        int size = pageSize(limit);
+        if (!ready) {
+            return mongoTemplate.find(Query.query(Criteria.where("points").gte(0))
+                    .with(Sort.by(Sort.Direction.DESC, "points"))
+                    .limit(size), User.class);
+        }
+        List<String> userIds = read(Window.ALL_TIME, board -> board.range(1, size)).stream()
+                .map(RankIndex.Entry::userId)
+                .toList();
+        Map<String, User> users = mongoTemplate.find(Query.query(Criteria.where("_id").in(userIds)), User.class)
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return userIds.stream().map(users::get).filter(Objects::nonNull).toList();
+    }
+
+    public List<LeaderboardEntryDTO> top(Window window, int limit) {
+        return withUsernames(read(window, board -> board.range(1, pageSize(limit))));
+    }
+
+    public Optional<LeaderboardEntryDTO> rankOf(Window window, String userId) {
+        List<RankIndex.Entry> entry = read(window, board -> {
+            int rank = board.rank(userId);
+            return rank == 0 ? List.of() : board.range(rank, 1);
+        });
+        return withUsernames(entry).stream().findFirst();
+    }
+
+    /**
+     * The user's entry with up to {@code radius} entries on either side; empty if the user is
+     * not on the board.
+     */
+    public List<LeaderboardEntryDTO> around(Window window, String userId, int radius) {
+        int span = Math.max(0, Math.min(radius, maxPageSize / 2));
+        return withUsernames(read(window, board -> {
+            int rank = board.rank(userId);
+            if (rank == 0) {
+                return List.of();
+            }
+            int from = Math.max(1, rank - span);
+            return board.range(from, rank + span - from + 1);
+        }));
+    }
+
+    private <T> T read(Window window, Function<RankIndex, T> query) {
+        if (!ready) {
+            throw new IllegalStateException("Leaderboards are still loading");
+        }
+        if (window != Window.ALL_TIME && !LocalDate.now(zone).equals(periodsCheckedOn)) {
+            // A period that ended since the last points change has no scores yet
+            lock.writeLock().lock();
+            try {
+                rollPeriods();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lock.readLock().lock();
+        try {
+            return query.apply(boards.get(window));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<LeaderboardEntryDTO> withUsernames(List<RankIndex.Entry> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        Map<String, UserSummaryDTO> users = userSummaryCache.getAll(
+                entries.stream().map(RankIndex.Entry::userId).toList());
+        return entries.stream()
+                .map(entry -> LeaderboardEntryDTO.builder()
+                        .rank(entry.rank())
+                        .userId(entry.userId())
+                        .username(Optional.ofNullable(users.get(entry.userId()))
+                                .map(UserSummaryDTO::getUsername)
+                                .orElse(null))
+                        .points(entry.score())
+                        .build())
+                .toList();
+    }
+
+    private void putAllTime(String userId, int points) {
+        RankIndex allTime = boards.get(Window.ALL_TIME);
+        if (points >= 0) {
+            allTime.put(userId, points);
+        } else {
+            allTime.remove(userId);
+        }
+    }
+
+    // Caller holds the write lock
+    private void rollPeriods() {
+        LocalDate today = LocalDate.now(zone);
+        for (Window window : List.of(Window.DAILY, Window.WEEKLY)) {
+            LocalDate period = periodStart(window, today);
+            if (!period.equals(periods.get(window))) {
+                boards.get(window).clear();
+                periods.put(window, period);
+            }
+        }
+        periodsCheckedOn = today;
+    }
+
+    private void recordWindowPoints(String userId, int delta) {
+        LocalDate today = LocalDate.now(zone);
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LeaderboardWindowScore.class);
+            for (Window window : List.of(Window.DAILY, Window.WEEKLY)) {
+                String period = periodStart(window, today).toString();
+                bulk.upsert(Query.query(Criteria.where("_id").is(window.name() + ":" + period + ":" + userId)),
+                        new Update().inc("points", delta)
+                                .set("updatedAt", now)
+                                .setOnInsert("userId", userId)
+                                .setOnInsert("window", window.name())
+                                .setOnInsert("period", period));
+            }
+            bulk.execute();
+        } catch (Exception e) {
+            // The boards already have it; only a restart within the period would lose it
+            logger.warn("Failed to record window points for {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private static LocalDate periodStart(Window window, LocalDate day) {
+        return window == Window.WEEKLY ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day;
+    }
+
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.chessmystic.Service.implementation;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.chessmystic.Models.KafkaEvents.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relays {@code event_outbox} to Kafka. Each pass sends a batch of unpublished events in id
+ * order, waits for the broker, and marks the acknowledged ones published. Once an event of
+ * a game fails, the game's later events in the batch stay unpublished too and are resent with
+ * it. The batch is sent before any of it is acknowledged, so those later events may already
+ * have reached the broker: they are then delivered twice, and ahead of the failed one. A crash
+ * between sending and marking resends the whole batch. {@link AnalyticsService} drops the
+ * duplicates by eventId. It only counts events, so their order within a game does not matter
+ * to it, except that a move arriving after its game's end is not counted.
+ *
+ * The outbox is polled rather than tailed with a change stream, which needs a replica set.
+ * Polling runs on its own thread so waiting on the broker never delays scheduled tasks.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final Thread relayThread;
+    private volatile boolean running = true;
+
+    @Value("${chess.outbox.poll-interval-ms:200}")
+    private long pollIntervalMs;
+
+    @Value("${chess.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${chess.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Autowired
+    public OutboxRelay(MongoTemplate mongoTemplate, KafkaTemplate<String, byte[]> kafkaTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.relayThread = new Thread(this::run, "outbox-relay");
+        this.relayThread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        relayThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        relayThread.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                // Keep going while batches come back full
+                int relayed;
+                do {
+                    relayed = relayBatch();
+                } while (running && relayed == batchSize);
+                Thread.sleep(pollIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Outbox relay pass failed", e);
+            }
+        }
+    }
+
+    /**
+     * @return the number of events marked published; less than a full batch means stop for now
+     */
+    int relayBatch() {
+        List<OutboxEvent> batch;
+        try {
+            batch = mongoTemplate.find(Query.query(Criteria.where("published").is(false))
+                    .with(Sort.by("_id"))
+                    .limit(batchSize), OutboxEvent.class);
+        } catch (Exception e) {
+            logger.warn("Could not read the event outbox: {}", e.getMessage());
+            return 0;
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            try {
+                byte[] value = event.getBinaryPayload() != null
+                        ? event.getBinaryPayload()
+                        : event.getPayload().getBytes(StandardCharsets.UTF_8);
+                sends.add(kafkaTemplate.send(event.getTopic(), event.getKey(), value));
+            } catch (RuntimeException e) {
+                sends.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        List<String> published = new ArrayList<>(batch.size());
+        Set<String> failedGames = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            if (acknowledged(event, sends.get(i)) && !failedGames.contains(event.getGameId())) {
+                published.add(event.getId());
+            } else {
+                failedGames.add(event.getGameId());
+            }
+        }
+
+        if (!published.isEmpty()) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(published)),
+                    new Update().set("published", true).set("publishedAt", LocalDateTime.now()),
+                    OutboxEvent.class);
+        }
+        if (!failedGames.isEmpty()) {
+            logger.warn("Relayed {} of {} outbox events; {} games will be retried",
+                    published.size(), batch.size(), failedGames.size());
+        } else {
+            logger.debug("Relayed {} outbox events", published.size());
+        }
+        // Short of a full batch whenever anything failed, so an outage is not retried in a tight loop
+        return published.size();
+    }
+
+    private boolean acknowledged(OutboxEvent event, CompletableFuture<SendResult<String, byte[]>> send) {
+        try {
+            send.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            logger.warn("Failed to relay {} event {}: {}", event.getEventType(), event.getId(), e.getMessage());
+            return false;
+        }
+    }
+}
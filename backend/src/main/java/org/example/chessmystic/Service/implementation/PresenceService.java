@@ -0,0 +1,282 @@
+package org.example.chessmystic.Service.implementation;
+
+import org.example.chessmystic.Models.Tracking.GameSession;
+import org.example.chessmystic.Models.UserManagement.PresenceStatus;
+import org.example.chessmystic.Service.implementation.GameRelated.LiveGameRegistry;
+import org.example.chessmystic.Service.interfaces.GameRelated.IFriendshipService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Who is online, kept in memory and fed by STOMP connects and disconnects and by client
+ * heartbeats. A user with no heartbeat for {@code chess.presence.away-after-ms} is AWAY, and
+ * one with no open session is OFFLINE once {@code disconnect-grace-ms} has passed (so a quick
+ * reconnect goes unnoticed) or, without a session ever seen, after {@code offline-after-ms}.
+ * Status changes, not heartbeats, are pushed to each friend's {@code /queue/presence.<id>}.
+ *
+ * Heartbeats from a game also stand for the player's {@code playerLastSeen} on it; those are
+ * collected and written in one bulk {@code $max} update per {@code flush-interval-ms} instead
+ * of saving the whole session each time.
+ *
+ * Presence is per instance: friends on any instance get the pushes through the broker, but
+ * {@link #friendsPresence} only knows the users connected here.
+ */
+@Service
+public class PresenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceService.class);
+    // STOMP CONNECT header clients may send to be known before their first heartbeat
+    public static final String USER_ID_HEADER = "userId";
+
+    public record PresenceUpdate(String type, String userId, PresenceStatus status, String gameId,
+                                 LocalDateTime lastSeen) {
+        PresenceUpdate(String userId, PresenceStatus status, String gameId, LocalDateTime lastSeen) {
+            this("PRESENCE", userId, status, gameId, lastSeen);
+        }
+    }
+
+    private static final class Presence {
+        final Set<String> sessionIds = new HashSet<>();
+        long lastHeartbeat;
+        // When the last session closed; 0 while one is open
+        long disconnectedAt;
+        String gameId;
+        boolean clientAway;
+        PresenceStatus published = PresenceStatus.OFFLINE;
+    }
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final IFriendshipService friendshipService;
+    private final LiveGameRegistry liveGameRegistry;
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<String, Presence> presences = new ConcurrentHashMap<>();
+    private final Map<String, String> usersBySession = new ConcurrentHashMap<>();
+    // gameId -> playerId -> last seen, waiting for the next flush
+    private final Map<String, Map<String, LocalDateTime>> pendingLastSeen = new ConcurrentHashMap<>();
+
+    @Value("${chess.presence.away-after-ms:60000}")
+    private long awayAfterMs;
+
+    @Value("${chess.presence.offline-after-ms:120000}")
+    private long offlineAfterMs;
+
+    @Value("${chess.presence.disconnect-grace-ms:5000}")
+    private long disconnectGraceMs;
+
+    @Autowired
+    public PresenceService(SimpMessagingTemplate messagingTemplate, IFriendshipService friendshipService,
+                           LiveGameRegistry liveGameRegistry, MongoTemplate mongoTemplate) {
+        this.messagingTemplate = messagingTemplate;
+        this.friendshipService = friendshipService;
+        this.liveGameRegistry = liveGameRegistry;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String userId = accessor.getFirstNativeHeader(USER_ID_HEADER);
+        if (userId != null && accessor.getSessionId() != null) {
+            heartbeat(accessor.getSessionId(), userId, null, false);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String userId = usersBySession.remove(event.getSessionId());
+        if (userId != null) {
+            update(userId, presence -> {
+                presence.sessionIds.remove(event.getSessionId());
+                if (presence.sessionIds.isEmpty()) {
+                    presence.disconnectedAt = System.currentTimeMillis();
+                }
+            });
+        }
+    }
+
+    /**
+     * @param sessionId the STOMP session the heartbeat came on, if any
+     * @param gameId    the game the user is playing, or null to leave it as it is; it is cleared
+     *                  by {@link #gameEnded} rather than by heartbeats without one
+     * @param away      whether the client reports the user as away (say, the tab is hidden)
+     */
+    public void heartbeat(String sessionId, String userId, String gameId, boolean away) {
+        if (sessionId != null) {
+            usersBySession.put(sessionId, userId);
+        }
+        update(userId, presence -> {
+            if (sessionId != null) {
+                presence.sessionIds.add(sessionId);
+            }
+            presence.lastHeartbeat = System.currentTimeMillis();
+            presence.disconnectedAt = 0;
+            if (gameId != null) {
+                presence.gameId = gameId;
+            }
+            presence.clientAway = away;
+        });
+    }
+
+    /**
+     * A heartbeat from a player of a game, already checked to be in it: updates the player's
+     * presence and queues their {@code playerLastSeen} for the next flush.
+     */
+    public void gameHeartbeat(String gameId, String playerId) {
+        LocalDateTime now = LocalDateTime.now();
+        pendingLastSeen.compute(gameId, (id, seen) -> {
+            Map<String, LocalDateTime> players = seen != null ? seen : new HashMap<>();
+            players.put(playerId, now);
+            return players;
+        });
+        heartbeat(null, playerId, gameId, false);
+    }
+
+    /**
+     * Takes the game off its players' presence, so those still in it show as ONLINE again.
+     */
+    public void gameEnded(String gameId, Collection<String> playerIds) {
+        for (String playerId : playerIds) {
+            if (!presences.containsKey(playerId)) {
+                continue;
+            }
+            update(playerId, presence -> {
+                if (gameId.equals(presence.gameId)) {
+                    presence.gameId = null;
+                }
+            });
+        }
+    }
+
+    /**
+     * The status of each of the user's friends, as known to this instance.
+     */
+    public List<PresenceUpdate> friendsPresence(String userId) {
+        List<PresenceUpdate> friends = new ArrayList<>();
+        for (String friendId : friendshipService.getFriendIds(userId)) {
+            Presence presence = presences.get(friendId);
+            if (presence == null) {
+                friends.add(new PresenceUpdate(friendId, PresenceStatus.OFFLINE, null, null));
+                continue;
+            }
+            synchronized (presence) {
+                friends.add(new PresenceUpdate(friendId, presence.published, presence.gameId,
+                        toDateTime(presence.lastHeartbeat)));
+            }
+        }
+        return friends;
+    }
+
+    /**
+     * Moves users whose heartbeats stopped to AWAY or OFFLINE.
+     */
+    @Scheduled(fixedDelayString = "${chess.presence.sweep-interval-ms:5000}")
+    public void sweep() {
+        for (String userId : presences.keySet()) {
+            update(userId, presence -> {
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chess.presence.flush-interval-ms:10000}")
+    public void flushLastSeen() {
+        if (pendingLastSeen.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, GameSession.class);
+        int games = 0;
+        for (String gameId : pendingLastSeen.keySet()) {
+            Map<String, LocalDateTime> seen = pendingLastSeen.remove(gameId);
+            if (seen == null) {
+                continue;
+            }
+            // A live game's own flush rewrites the whole session, so it needs them too
+            liveGameRegistry.mergeLastSeen(gameId, seen);
+            Update update = new Update();
+            seen.forEach((playerId, at) -> update.max("playerLastSeen." + playerId, at));
+            update.max("lastActivity", Collections.max(seen.values()));
+            bulk.updateOne(Query.query(Criteria.where("_id").is(gameId)), update);
+            games++;
+        }
+        if (games == 0) {
+            return;
+        }
+        try {
+            bulk.execute();
+            logger.debug("Wrote last-seen times for {} games", games);
+        } catch (Exception e) {
+            // The next heartbeats supersede them anyway
+            logger.warn("Failed to write last-seen times for {} games: {}", games, e.getMessage());
+        }
+    }
+
+    private void update(String userId, Consumer<Presence> change) {
+        PresenceUpdate[] changed = new PresenceUpdate[1];
+        presences.compute(userId, (id, existing) -> {
+            Presence presence = existing != null ? existing : new Presence();
+            synchronized (presence) {
+                change.accept(presence);
+                PresenceStatus status = currentStatus(presence, System.currentTimeMillis());
+                if (status != presence.published) {
+                    presence.published = status;
+                    changed[0] = new PresenceUpdate(id, status, presence.gameId, toDateTime(presence.lastHeartbeat));
+                }
+                return status == PresenceStatus.OFFLINE ? null : presence;
+            }
+        });
+        if (changed[0] != null) {
+            publish(changed[0]);
+        }
+    }
+
+    private PresenceStatus currentStatus(Presence presence, long now) {
+        if (presence.sessionIds.isEmpty()
+                && ((presence.disconnectedAt > 0 && now - presence.disconnectedAt >= disconnectGraceMs)
+                || now - presence.lastHeartbeat > offlineAfterMs)) {
+            return PresenceStatus.OFFLINE;
+        }
+        if (now - presence.lastHeartbeat > awayAfterMs) {
+            return PresenceStatus.AWAY;
+        }
+        if (presence.gameId != null) {
+            return PresenceStatus.IN_GAME;
+        }
+        return presence.clientAway ? PresenceStatus.AWAY : PresenceStatus.ONLINE;
+    }
+
+    private void publish(PresenceUpdate update) {
+        try {
+            // Friends not subscribed anywhere are dropped by the broker
+            for (String friendId : friendshipService.getFriendIds(update.userId())) {
+                messagingTemplate.convertAndSend("/queue/presence." + friendId, update);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to push presence of {}: {}", update.userId(), e.getMessage());
+        }
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.chessmystic.Service.implementation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistic index of user scores: a treap ordered by score, highest first, then by user
+ * id, with subtree sizes so updates, rank lookups and rank ranges are all O(log n). Ranks are
+ * 1-based and unique; equal scores are ranked by user id.
+ *
+ * Not thread-safe; {@link LeaderboardService} guards its indexes with a lock.
+ */
+final class RankIndex {
+
+    record Entry(String userId, long score, int rank) {
+    }
+
+    private static final class Node {
+        final String userId;
+        final long score;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(String userId, long score, int priority) {
+            this.userId = userId;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<String, Long> scores = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    int size() {
+        return scores.size();
+    }
+
+    boolean contains(String userId) {
+        return scores.containsKey(userId);
+    }
+
+    void put(String userId, long score) {
+        Long previous = scores.put(userId, score);
+        if (previous != null) {
+            if (previous == score) {
+                return;
+            }
+            root = delete(root, previous, userId);
+        }
+        root = insert(root, new Node(userId, score, random.nextInt()));
+    }
+
+    /**
+     * @return the user's new score; users not in the index start from zero
+     */
+    long add(String userId, long delta) {
+        long score = scores.getOrDefault(userId, 0L) + delta;
+        put(userId, score);
+        return score;
+    }
+
+    void remove(String userId) {
+        Long previous = scores.remove(userId);
+        if (previous != null) {
+            root = delete(root, previous, userId);
+        }
+    }
+
+    void clear() {
+        scores.clear();
+        root = null;
+    }
+
+    /**
+     * @return the user's rank, or 0 if the user is not in the index
+     */
+    int rank(String userId) {
+        Long score = scores.get(userId);
+        if (score == null) {
+            return 0;
+        }
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int c = compare(score, userId, node);
+            if (c < 0) {
+                node = node.left;
+            } else if (c > 0) {
+                before += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return before + size(node.left) + 1;
+            }
+        }
+        throw new IllegalStateException("Score map and tree disagree on " + userId);
+    }
+
+    /**
+     * @return up to {@code count} entries in rank order, starting at the 1-based {@code fromRank}
+     */
+    List<Entry> range(int fromRank, int count) {
+        int from = Math.max(fromRank, 1) - 1;
+        int to = (int) Math.min((long) from + Math.max(count, 0), size());
+        List<Entry> entries = new ArrayList<>(Math.max(to - from, 0));
+        collect(root, 0, from, to, entries);
+        return entries;
+    }
+
+    private static void collect(Node node, int offset, int from, int to, List<Entry> out) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        collect(node.left, offset, from, to, out);
+        int index = offset + size(node.left);
+        if (index >= from && index < to) {
+            out.add(new Entry(node.userId, node.score, index + 1));
+        }
+        collect(node.right, index + 1, from, to, out);
+    }
+
+    // Negative when (score, userId) ranks ahead of the node
+    private static int compare(long score, String userId, Node node) {
+        int c = Long.compare(node.score, score);
+        return c != 0 ? c : userId.compareTo(node.userId);
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (inserted.priority > node.priority) {
+            Node[] halves = split(node, inserted.score, inserted.userId);
+            inserted.left = halves[0];
+            inserted.right = halves[1];
+            return update(inserted);
+        }
+        if (compare(inserted.score, inserted.userId, node) < 0) {
+            node.left = insert(node.left, inserted);
+        } else {
+            node.right = insert(node.right, inserted);
+        }
+        return update(node);
+    }
+
+    private static Node delete(Node node, long score, String userId) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(score, userId, node);
+        if (c == 0) {
+            return merge(node.left, node.right);
+        }
+        if (c < 0) {
+            node.left = delete(node.left, score, userId);
+        } else {
+            node.right = delete(node.right, score, userId);
+        }
+        return update(node);
+    }
+
+    // Nodes ranking ahead of (score, userId), and the rest
+    private static Node[] split(Node node, long score, String userId) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(score, userId, node) > 0) {
+            Node[] halves = split(node.right, score, userId);
+            node.right = halves[0];
+            halves[0] = update(node);
+            return halves;
+        }
+        Node[] halves = split(node.left, score, userId);
+        node.left = halves[1];
+        halves[1] = update(node);
+        return halves;
+    }
+
+    // Every node of ahead ranks ahead of every node of behind
+    private static Node merge(Node ahead, Node behind) {
+        if (ahead == null) {
+            return behind;
+        }
+        if (behind == null) {
+            return ahead;
+        }
+        if (ahead.priority > behind.priority) {
+            ahead.right = merge(ahead.right, behind);
+            return update(ahead);
+        }
+        behind.left = merge(ahead, behind.left);
+        return update(behind);
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -23,6 +23,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,14 +34,19 @@ public class UserService implements IUserService {
     private final PlayerProfileRepository playerProfileRepository;
     private final IKeycloakUserService keycloakUserService;
     private final IAuthService authService;
+    private final LeaderboardService leaderboardService;
+    private final UserSummaryCache userSummaryCache;
 
     @Autowired
     public UserService(UserRepository userRepository, PlayerProfileRepository playerProfileRepository,
-                       IKeycloakUserService keycloakUserService, IAuthService authService) {
+                       IKeycloakUserService keycloakUserService, IAuthService authService,
+                       LeaderboardService leaderboardService, UserSummaryCache userSummaryCache) {
         this.userRepository = userRepository;
         this.playerProfileRepository = playerProfileRepository;
         this.keycloakUserService = keycloakUserService;
         this.authService = authService;
+        this.leaderboardService = leaderboardService;
+        this.userSummaryCache = userSummaryCache;
     }
 
     @Override
@@ -81,6 +87,7 @@ public class UserService implements IUserService {
         PlayerProfile profile = getOrCreatePlayerProfile(savedUser.getId());
         savedUser.setPlayerProfileId(profile.getId());
         userRepository.save(savedUser);
+        leaderboardService.updateTotal(savedUser.getId(), savedUser.getPoints());
 
         return RegisterResponseDTO.builder()
                 .userId(savedUser.getId())
@@ -128,6 +135,8 @@ public class UserService implements IUserService {
         dto.applyTo(user);
         user.setLastLoginAt(LocalDateTime.now());
         user = userRepository.save(user);
+        leaderboardService.updateTotal(user.getId(), user.getPoints());
+        userSummaryCache.invalidate(user.getId());
 
         return new UserUpdateDTO(
                 user.getUsername(), user.getEmailAddress(), user.getPoints(),
@@ -156,6 +165,7 @@ public class UserService implements IUserService {
         PlayerProfile profile = getOrCreatePlayerProfile(savedUser.getId());
         savedUser.setPlayerProfileId(profile.getId());
         userRepository.save(savedUser);
+        leaderboardService.updateTotal(savedUser.getId(), savedUser.getPoints());
 
         return savedUser;
     }
@@ -165,6 +175,11 @@ public class UserService implements IUserService {
         return userRepository.findById(id);
     }
 
+    @Override
+    public List<User> findAllById(Collection<String> ids) {
+        return userRepository.findAllById(ids);
+    }
+
     @Override
     public Optional<User> findByKeycloakId(String keycloakId) {
         return userRepository.findByKeycloakId(keycloakId);
@@ -193,6 +208,8 @@ public class UserService implements IUserService {
 
         updateDTO.applyTo(user);
         user = userRepository.save(user);
+        leaderboardService.updateTotal(user.getId(), user.getPoints());
+        userSummaryCache.invalidate(user.getId());
 
         return new UserUpdateDTO(
                 user.getUsername(), user.getEmailAddress(), user.getPoints(),
@@ -206,6 +223,8 @@ public class UserService implements IUserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         userRepository.deleteById(id);
+        leaderboardService.remove(id);
+        userSummaryCache.invalidate(id);
     }
 
     @Override
@@ -215,24 +234,19 @@ public class UserService implements IUserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setActive(false); // Fixed: Use setActive instead of setIsActive
         userRepository.save(user);
+        userSummaryCache.invalidate(id);
     }
 
     @Override
     public List<User> getLeaderboard(int limit) {
-        List<User> users = userRepository.findByPointsGreaterThanEqual(0);
-        return users.stream()
-                .sorted((u1, u2) -> Integer.compare(u2.getPoints(), u1.getPoints()))
-                .limit(limit)
-                .toList();
+        return leaderboardService.topUsers(limit);
     }
 
     @Override
-    @Transactional
     public void updateUserPoints(String userId, int points) {
-        User user = userRepository.findById(userId)
+        leaderboardService.addPoints(userId, points)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        user.setPoints(user.getPoints() + points);
-        userRepository.save(user);
+        userSummaryCache.invalidate(userId);
     }
 
     @Override
@@ -0,0 +1,75 @@
+package org.example.chessmystic.Service.implementation;
+
+import org.example.chessmystic.Models.APIContacts.UserDTO.UserSummaryDTO;
+import org.example.chessmystic.Models.UserManagement.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * What other players see of a user (name, points, avatar), cached by user id so names on game
+ * results, leaderboards and the like don't cost a read of the whole user each time. Misses are
+ * loaded together in one query. {@link UserService} invalidates a user's entry when it changes
+ * them; entries also expire after {@code chess.users.summary-ttl-ms}, which bounds how stale
+ * a change made elsewhere (another instance, a direct write) can look.
+ */
+@Service
+public class UserSummaryCache {
+
+    private final MongoTemplate mongoTemplate;
+    private final ExpiringCache<String, UserSummaryDTO> summaries;
+
+    @Autowired
+    public UserSummaryCache(MongoTemplate mongoTemplate,
+                            @Value("${chess.users.summary-cache-size:10000}") int maxSize,
+                            @Value("${chess.users.summary-ttl-ms:60000}") long ttlMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.summaries = new ExpiringCache<>(maxSize, Duration.ofMillis(ttlMs));
+    }
+
+    public Optional<UserSummaryDTO> get(String userId) {
+        return Optional.ofNullable(getAll(List.of(userId)).get(userId));
+    }
+
+    /**
+     * @return the summaries of the users that exist, by id
+     */
+    public Map<String, UserSummaryDTO> getAll(Collection<String> userIds) {
+        Map<String, UserSummaryDTO> found = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        for (String userId : userIds) {
+            UserSummaryDTO summary = summaries.get(userId);
+            if (summary != null) {
+                found.put(userId, summary);
+            } else {
+                missing.add(userId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Query query = Query.query(Criteria.where("_id").in(missing));
+            query.fields().include("username", "firstName", "lastName", "points", "image");
+            for (User user : mongoTemplate.find(query, User.class)) {
+                UserSummaryDTO summary = UserSummaryDTO.builder()
+                        .id(user.getId())
+                        .username(user.getUsername())
+                        .displayName(user.getFirstName() + " " + user.getLastName())
+                        .points(user.getPoints())
+                        .image(user.getImage())
+                        .build();
+                summaries.put(user.getId(), summary);
+                found.put(user.getId(), summary);
+            }
+        }
+        return found;
+    }
+
+    public void invalidate(String userId) {
+        summaries.invalidate(userId);
+    }
+}
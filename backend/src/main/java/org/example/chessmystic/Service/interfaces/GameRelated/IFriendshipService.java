@@ -13,6 +13,7 @@ public interface IFriendshipService {
     void blockUser(String userId, String userToBlockId);
     void unblockUser(String userId, String userToUnblockId);
     List<List<User>> getFriends(String userId);
+    List<String> getFriendIds(String userId);
     List<Friendship> getPendingRequests(String userId);
     List<Friendship> getSentRequests(String userId);
     List<Friendship> getBlockedUsers(String userId);
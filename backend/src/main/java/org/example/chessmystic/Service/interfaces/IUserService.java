@@ -8,6 +8,7 @@ import org.example.chessmystic.Models.APIContacts.UserDTO.UserUpdateDTO;
 import org.example.chessmystic.Models.UserManagement.User;
 import org.example.chessmystic.Models.Stats.PlayerProfile;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,7 @@ public interface IUserService {
     LoginResponseDTO loginUser(LoginRequestDTO dto);
     User createUser(User user);
     Optional<User> findById(String id);
+    List<User> findAllById(Collection<String> ids);
     Optional<User> findByKeycloakId(String keycloakId);
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
@@ -0,0 +1,164 @@
+package org.example.chessmystic.Config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.chessmystic.Config.WebSocketSessionManager.MessageClass;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Send-queue policies. Each session's first send blocks until released, so what is sent after
+ * it stays queued and the queue can be filled deterministically.
+ */
+class WebSocketSessionManagerTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private WebSocketSessionManager manager;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        manager.closeAllSessions();
+    }
+
+    @Test
+    void bestEffortIsDroppedWhenTheQueueIsFull() throws Exception {
+        manager = manager(1, 2, 16);
+        blockedSession("a");
+
+        assertTrue(manager.sendToSession("a", "1", MessageClass.BEST_EFFORT));
+        assertTrue(manager.sendToSession("a", "2", MessageClass.BEST_EFFORT));
+        assertFalse(manager.sendToSession("a", "3", MessageClass.BEST_EFFORT));
+
+        assertEquals(1.0, dropped(MessageClass.BEST_EFFORT));
+        assertEquals(2.0, registry.get("chess.websocket.queue.depth").gauge().value());
+    }
+
+    @Test
+    void latestWinsPushesOutTheOldestDroppableMessage() throws Exception {
+        manager = manager(1, 2, 16);
+        blockedSession("a");
+
+        manager.sendToSession("a", "1", MessageClass.CRITICAL);
+        manager.sendToSession("a", "2", MessageClass.BEST_EFFORT);
+        assertTrue(manager.sendToSession("a", "3", MessageClass.LATEST_WINS));
+
+        assertEquals(1.0, dropped(MessageClass.BEST_EFFORT));
+        release.countDown();
+        awaitSent(3);
+        assertEquals(List.of("first", "1", "3"), sent);
+    }
+
+    @Test
+    void criticalEvictsASessionWhoseQueueIsFullOfCriticalMessages() throws Exception {
+        manager = manager(1, 2, 16);
+        WebSocketSession session = blockedSession("a");
+
+        manager.sendToSession("a", "1", MessageClass.CRITICAL);
+        manager.sendToSession("a", "2", MessageClass.CRITICAL);
+        assertFalse(manager.sendToSession("a", "3", MessageClass.CRITICAL));
+
+        assertEquals(1.0, registry.get("chess.websocket.evicted").counter().count());
+        assertFalse(manager.isSessionActive("a"));
+        verify(session, timeout(1000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    void stuckSendIsEvictedWithoutFurtherMessages() throws Exception {
+        manager = manager(1, 16, 16);
+        ReflectionTestUtils.setField(manager, "sendTimeLimitMs", 20L);
+        WebSocketSession session = blockedSession("a");
+
+        Thread.sleep(50);
+        manager.evictStuckSessions();
+
+        assertEquals(1.0, registry.get("chess.websocket.evicted").counter().count());
+        verify(session, timeout(1000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    void drainHandsItsThreadToOtherSessionsAfterABatch() throws Exception {
+        manager = manager(1, 16, 2);
+        blockedSession("a");
+        for (int i = 2; i <= 4; i++) {
+            manager.sendToSession("a", "a" + i, MessageClass.CRITICAL);
+        }
+        manager.addSession(session("b"));
+        manager.sendToSession("b", "b1", MessageClass.CRITICAL);
+
+        release.countDown();
+        awaitSent(5);
+
+        assertEquals(List.of("first", "a2", "b1", "a3", "a4"), sent);
+    }
+
+    private WebSocketSessionManager manager(int threads, int maxMessages, int drainBatch) {
+        WebSocketSessionManager manager = new WebSocketSessionManager(registry, threads);
+        ReflectionTestUtils.setField(manager, "maxQueuedMessages", maxMessages);
+        ReflectionTestUtils.setField(manager, "maxQueuedBytes", 1 << 20);
+        ReflectionTestUtils.setField(manager, "sendTimeLimitMs", 10_000L);
+        ReflectionTestUtils.setField(manager, "drainBatch", drainBatch);
+        return manager;
+    }
+
+    // A session whose first message ("first") is being sent, and blocks until release
+    private WebSocketSession blockedSession(String id) throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            String payload = ((TextMessage) invocation.getArgument(0)).getPayload();
+            if (payload.equals("first")) {
+                sending.countDown();
+                release.await();
+            }
+            sent.add(payload);
+            return null;
+        }).when(session).sendMessage(any());
+        manager.addSession(session);
+        manager.sendToSession(id, "first", MessageClass.CRITICAL);
+        assertTrue(sending.await(1, TimeUnit.SECONDS));
+        return session;
+    }
+
+    private WebSocketSession session(String id) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> sent.add(((TextMessage) invocation.getArgument(0)).getPayload()))
+                .when(session).sendMessage(any());
+        return session;
+    }
+
+    private double dropped(MessageClass messageClass) {
+        return registry.get("chess.websocket.dropped").tag("class", messageClass.name()).counter().count();
+    }
+
+    private void awaitSent(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (sent.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
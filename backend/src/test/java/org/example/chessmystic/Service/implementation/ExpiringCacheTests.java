@@ -0,0 +1,74 @@
+package org.example.chessmystic.Service.implementation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Expiry after the TTL, and least-recently-used eviction once the cache is full.
+ */
+class ExpiringCacheTests {
+
+    private static final Duration LONG = Duration.ofMinutes(5);
+
+    @Test
+    void entryExpiresAfterItsTtl() throws Exception {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofMillis(20));
+        cache.put("a", "1");
+        assertEquals("1", cache.get("a"));
+
+        Thread.sleep(50);
+
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void putRestartsTheTtl() throws Exception {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofMillis(200));
+        cache.put("a", "1");
+        Thread.sleep(150);
+        cache.put("a", "2");
+        Thread.sleep(100);
+
+        assertEquals("2", cache.get("a"));
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedWhenFull() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(2, LONG);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+
+        cache.put("c", "3");
+
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    void oldestEntryIsEvictedWhenNothingWasRead() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(2, LONG);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+
+        assertNull(cache.get("a"));
+        assertEquals("2", cache.get("b"));
+        assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    void invalidateRemovesTheEntry() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(2, LONG);
+        cache.put("a", "1");
+
+        cache.invalidate("a");
+
+        assertNull(cache.get("a"));
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.chessmystic.Service.implementation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.chessmystic.Models.KafkaEvents.GameEndEvent;
+import org.example.chessmystic.Models.KafkaEvents.GameEvent;
+import org.example.chessmystic.Models.KafkaEvents.GameStartEvent;
+import org.example.chessmystic.Models.KafkaEvents.MoveEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Both wire formats decode to the same events, and binary events of a newer schema version
+ * are still readable.
+ */
+class GameEventCodecTests {
+
+    private final GameEventCodec codec = new GameEventCodec(new ObjectMapper());
+
+    @Test
+    void binaryMoveDecodesEveryField() throws Exception {
+        MoveEvent move = assertInstanceOf(MoveEvent.class, codec.decode(codec.toBinary(move())));
+
+        assertEquals("MOVE", move.getEventType());
+        assertEquals("e1", move.getEventId());
+        assertEquals("g1", move.getGameId());
+        assertEquals("p1", move.getPlayerId());
+        assertEquals(1_700_000_000_000L, move.getTimestamp());
+        assertEquals(6, move.getFromRow());
+        assertEquals(4, move.getFromCol());
+        assertEquals(4, move.getToRow());
+        assertEquals(4, move.getToCol());
+        assertEquals("PAWN", move.getPieceType());
+        assertEquals("white", move.getPieceColor());
+        assertTrue(move.isCapture());
+        assertFalse(move.isCheck());
+        assertTrue(move.isCheckmate());
+        assertEquals(1234L, move.getMoveTimeMs());
+    }
+
+    @Test
+    void binaryGameStartAndEndDecodeEveryField() throws Exception {
+        GameStartEvent start = assertInstanceOf(GameStartEvent.class, codec.decode(codec.toBinary(GameStartEvent.builder()
+                .eventId("e2").gameId("g1").playerId("p1").timestamp(5L).eventType("GAME_START")
+                .opponentId("p2").gameMode("CLASSIC_MULTIPLAYER").timeControlMinutes(10).build())));
+
+        assertEquals("GAME_START", start.getEventType());
+        assertEquals("p2", start.getOpponentId());
+        assertEquals("CLASSIC_MULTIPLAYER", start.getGameMode());
+        assertEquals(10, start.getTimeControlMinutes());
+        assertNull(start.getOpeningDetected());
+
+        GameEndEvent end = assertInstanceOf(GameEndEvent.class, codec.decode(codec.toBinary(GameEndEvent.builder()
+                .eventId("e3").gameId("g1").playerId("p1").timestamp(9L).eventType("GAME_END")
+                .endReason("checkmate").totalMoves(41).gameDurationMs(600_000L)
+                .finalPosition("8/8/8/8/8/8/8/8").build())));
+
+        assertEquals("GAME_END", end.getEventType());
+        assertEquals("checkmate", end.getEndReason());
+        assertNull(end.getWinnerId());
+        assertEquals(41, end.getTotalMoves());
+        assertEquals(600_000L, end.getGameDurationMs());
+        assertEquals("8/8/8/8/8/8/8/8", end.getFinalPosition());
+    }
+
+    @Test
+    void jsonIsDecodedToTheSameEvent() throws Exception {
+        byte[] json = codec.toJson(move());
+        assertFalse(json[0] == GameEventCodec.MAGIC);
+
+        GameEvent decoded = codec.decode(json);
+
+        MoveEvent move = assertInstanceOf(MoveEvent.class, decoded);
+        assertEquals("g1", move.getGameId());
+        assertEquals(6, move.getFromRow());
+        assertEquals(1234L, move.getMoveTimeMs());
+    }
+
+    @Test
+    void newerSchemaVersionWithTrailingFieldsIsRead() throws Exception {
+        byte[] current = codec.toBinary(move());
+        byte[] newer = Arrays.copyOf(current, current.length + 3);
+        newer[2] = 2;
+        newer[current.length] = 7;
+
+        MoveEvent move = assertInstanceOf(MoveEvent.class, codec.decode(newer));
+
+        assertEquals("g1", move.getGameId());
+        assertEquals(1234L, move.getMoveTimeMs());
+    }
+
+    @Test
+    void unknownTypeAndVersionZeroAreRejected() {
+        byte[] binary = codec.toBinary(move());
+
+        byte[] unknownType = binary.clone();
+        unknownType[1] = 99;
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(unknownType));
+
+        byte[] versionZero = binary.clone();
+        versionZero[2] = 0;
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(versionZero));
+    }
+
+    private static MoveEvent move() {
+        return MoveEvent.builder()
+                .eventId("e1").gameId("g1").playerId("p1").timestamp(1_700_000_000_000L).eventType("MOVE")
+                .fromRow(6).fromCol(4).toRow(4).toCol(4).pieceType("PAWN").pieceColor("white")
+                .isCapture(true).isCheckmate(true).moveTimeMs(1234L)
+                .build();
+    }
+}
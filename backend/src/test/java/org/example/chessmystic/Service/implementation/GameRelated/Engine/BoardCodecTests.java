@@ -0,0 +1,118 @@
+package org.example.chessmystic.Service.implementation.GameRelated.Engine;
+
+import org.example.chessmystic.Models.chess.Piece;
+import org.example.chessmystic.Models.chess.PieceColor;
+import org.example.chessmystic.Models.chess.PieceType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Packed boards unpack to the same pieces, colours and has-moved flags, on square and RPG-sized
+ * boards alike.
+ */
+class BoardCodecTests {
+
+    private static final PieceType[] BACK_RANK = {
+            PieceType.ROOK, PieceType.KNIGHT, PieceType.BISHOP, PieceType.QUEEN,
+            PieceType.KING, PieceType.BISHOP, PieceType.KNIGHT, PieceType.ROOK
+    };
+
+    @Test
+    void standardBoardRoundTripsIn29Bytes() {
+        Piece[][] board = standardBoard();
+
+        byte[] packed = BoardCodec.pack(board);
+
+        assertEquals(29, packed.length);
+        assertBoardsEqual(board, BoardCodec.unpack(packed));
+        assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", BoardCodec.toPlacement(BoardCodec.unpack(packed)));
+    }
+
+    @Test
+    void hasMovedFlagsSurviveTheRoundTrip() {
+        Piece[][] board = standardBoard();
+        board[4][4] = board[6][4];
+        board[6][4] = null;
+        board[4][4].setHasMoved(true);
+        board[0][4].setHasMoved(true);
+
+        assertBoardsEqual(board, BoardCodec.unpack(BoardCodec.pack(board)));
+    }
+
+    @Test
+    void rectangularAndMaximumSizedBoardsRoundTrip() {
+        Piece[][] wide = new Piece[5][12];
+        wide[0][11] = new Piece(PieceType.QUEEN, PieceColor.black);
+        wide[4][0] = new Piece(PieceType.KING, PieceColor.white);
+        wide[2][7] = new Piece(PieceType.KNIGHT, PieceColor.white, true, false);
+        assertBoardsEqual(wide, BoardCodec.unpack(BoardCodec.pack(wide)));
+
+        Piece[][] largest = new Piece[16][16];
+        largest[15][15] = new Piece(PieceType.PAWN, PieceColor.black);
+        assertBoardsEqual(largest, BoardCodec.unpack(BoardCodec.pack(largest)));
+    }
+
+    @Test
+    void emptyBoardKeepsItsDimensions() {
+        Piece[][] unpacked = BoardCodec.unpack(BoardCodec.pack(new Piece[10][10]));
+
+        assertEquals(10, unpacked.length);
+        assertEquals(10, unpacked[0].length);
+        for (Piece[] row : unpacked) {
+            for (Piece piece : row) {
+                assertNull(piece);
+            }
+        }
+    }
+
+    @Test
+    void typelessPieceUnpacksAsBlank() {
+        Piece[][] board = new Piece[8][8];
+        board[3][3] = new Piece(null, PieceColor.NULL);
+
+        Piece blank = BoardCodec.unpack(BoardCodec.pack(board))[3][3];
+
+        assertNull(blank.getType());
+        assertEquals(PieceColor.NULL, blank.getColor());
+    }
+
+    @Test
+    void oversizedAndRaggedBoardsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.pack(new Piece[17][8]));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.pack(new Piece[0][0]));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.pack(new Piece[][]{new Piece[8], new Piece[7]}));
+    }
+
+    private static Piece[][] standardBoard() {
+        Piece[][] board = new Piece[8][8];
+        for (int col = 0; col < 8; col++) {
+            board[0][col] = new Piece(BACK_RANK[col], PieceColor.black);
+            board[1][col] = new Piece(PieceType.PAWN, PieceColor.black);
+            board[6][col] = new Piece(PieceType.PAWN, PieceColor.white);
+            board[7][col] = new Piece(BACK_RANK[col], PieceColor.white);
+        }
+        return board;
+    }
+
+    private static void assertBoardsEqual(Piece[][] expected, Piece[][] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int row = 0; row < expected.length; row++) {
+            assertEquals(expected[row].length, actual[row].length);
+            for (int col = 0; col < expected[row].length; col++) {
+                Piece want = expected[row][col];
+                Piece got = actual[row][col];
+                String square = row + "," + col;
+                if (want == null) {
+                    assertNull(got, square);
+                    continue;
+                }
+                assertEquals(want.getType(), got.getType(), square);
+                assertEquals(want.getColor(), got.getColor(), square);
+                assertEquals(want.isHasMoved(), got.isHasMoved(), square);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.chessmystic.Service.implementation.GameRelated.Engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Node counts for the standard perft positions (chessprogramming.org/Perft_Results).
+ * Every make is checked to be undone exactly, including the Zobrist key.
+ */
+class MoveGeneratorPerftTests {
+
+    @ParameterizedTest(name = "{0} depth {2}")
+    @CsvSource(delimiter = '|', value = {
+            "start      | rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1                 | 5 | 4865609",
+            "kiwipete   | r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1     | 4 | 4085603",
+            "endgame    | 8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1                                | 5 | 674624",
+            "promotions | r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1         | 4 | 422333",
+            "talkchess  | rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8                | 4 | 2103487",
+            "middlegame | r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10 | 4 | 3894594"
+    })
+    void perftMatchesKnownNodeCounts(String name, String fen, int depth, long expectedNodes) {
+        BitboardPosition position = BitboardPosition.fromFen(fen);
+        long key = position.getZobristKey();
+
+        assertEquals(expectedNodes, perft(position, depth, new int[depth + 1][MoveGenerator.MAX_MOVES]));
+        assertEquals(key, position.getZobristKey());
+    }
+
+    @Test
+    void legalMoveListAgreesWithGenerator() {
+        BitboardPosition position = BitboardPosition.fromFen(
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        LegalMoveList moves = LegalMoveList.of(position);
+
+        assertEquals(48, moves.size());
+        assertTrue(moves.contains(4, 6), "white can castle kingside");
+        assertTrue(moves.contains(4, 2), "white can castle queenside");
+        assertFalse(moves.contains(4, 12), "e2 is occupied by a white bishop");
+        assertEquals(Move.KING_CASTLE, Move.flag(moves.find(4, 6)));
+        assertEquals(Move.NONE, moves.find(0, 63));
+    }
+
+    @Test
+    void promotionsResolveToQueen() {
+        BitboardPosition position = BitboardPosition.fromFen("8/P6k/8/8/8/8/8/K7 w - - 0 1");
+        int move = LegalMoveList.of(position).find(48, 56);
+
+        assertTrue(Move.isPromotion(move));
+        assertEquals(Bitboards.QUEEN, Move.promotionType(move));
+    }
+
+    private static long perft(BitboardPosition position, int depth, int[][] moveLists) {
+        int[] moves = moveLists[depth];
+        int count = MoveGenerator.generateLegalMoves(position, moves);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            long key = position.getZobristKey();
+            position.makeMove(moves[i]);
+            nodes += perft(position, depth - 1, moveLists);
+            position.unmakeMove(moves[i]);
+            assertEquals(key, position.getZobristKey());
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.chessmystic.Service.implementation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ranks and ranges of the treap, checked against a plain sort of the same scores.
+ */
+class RankIndexTests {
+
+    @Test
+    void ranksByScoreThenUserId() {
+        RankIndex index = new RankIndex();
+        index.put("carol", 1200);
+        index.put("alice", 1500);
+        index.put("bob", 1200);
+
+        assertEquals(1, index.rank("alice"));
+        assertEquals(2, index.rank("bob"));
+        assertEquals(3, index.rank("carol"));
+        assertEquals(0, index.rank("dave"));
+        assertEquals(List.of(
+                new RankIndex.Entry("alice", 1500, 1),
+                new RankIndex.Entry("bob", 1200, 2),
+                new RankIndex.Entry("carol", 1200, 3)), index.range(1, 10));
+    }
+
+    @Test
+    void updatesAndRemovesMoveOtherUsersRanks() {
+        RankIndex index = new RankIndex();
+        index.put("alice", 1500);
+        index.put("bob", 1200);
+        index.put("carol", 1000);
+
+        assertEquals(1300, index.add("carol", 300));
+        assertEquals(2, index.rank("carol"));
+        assertEquals(3, index.rank("bob"));
+
+        index.remove("alice");
+        assertFalse(index.contains("alice"));
+        assertEquals(2, index.size());
+        assertEquals(1, index.rank("carol"));
+        assertEquals(2, index.rank("bob"));
+
+        assertEquals(50, index.add("dave", 50));
+        assertEquals(3, index.rank("dave"));
+    }
+
+    @Test
+    void rangeClampsToTheIndex() {
+        RankIndex index = new RankIndex();
+        for (int i = 0; i < 5; i++) {
+            index.put("u" + i, i);
+        }
+
+        assertEquals(List.of(new RankIndex.Entry("u1", 1, 4), new RankIndex.Entry("u0", 0, 5)), index.range(4, 10));
+        assertEquals(List.of(new RankIndex.Entry("u4", 4, 1)), index.range(0, 1));
+        assertTrue(index.range(6, 3).isEmpty());
+        assertTrue(index.range(1, -1).isEmpty());
+    }
+
+    @Test
+    void agreesWithASortAfterRandomInsertsAndRemoves() {
+        Random random = new Random(42);
+        RankIndex index = new RankIndex();
+        Map<String, Long> scores = new HashMap<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            String userId = "u" + random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                index.remove(userId);
+                scores.remove(userId);
+            } else {
+                long score = random.nextInt(50);
+                index.put(userId, score);
+                scores.put(userId, score);
+            }
+
+            if (step % 250 == 0) {
+                assertMatches(scores, index);
+            }
+        }
+        assertMatches(scores, index);
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.range(1, 10).isEmpty());
+    }
+
+    private static void assertMatches(Map<String, Long> scores, RankIndex index) {
+        List<String> order = new ArrayList<>(scores.keySet());
+        order.sort(Comparator.<String>comparingLong(scores::get).reversed().thenComparing(Comparator.naturalOrder()));
+
+        assertEquals(order.size(), index.size());
+        List<RankIndex.Entry> all = index.range(1, order.size());
+        for (int i = 0; i < order.size(); i++) {
+            String userId = order.get(i);
+            assertEquals(new RankIndex.Entry(userId, scores.get(userId), i + 1), all.get(i));
+            assertEquals(i + 1, index.rank(userId));
+        }
+    }
+}